@@ -8,8 +8,12 @@ import Adventure.*;
 
 import Adventure.Base.Utility.*;
 
+import Adventure.Server.*;
+
 import Adventure.UI.*;
 
+import java.io.*;
+
 /**
  * This class houses the main() method for the entire game and will load in the correct IOUtility based on the command line
  * arguments that are passed in to it.
@@ -26,10 +30,18 @@ public class Adventure
     /**
      * This is the application main() method, which holds the game loop.
      * 
-     * @param args By passing the value of "gui" in to this method as an argument the game's Swing GUI will load.
+     * @param args By passing the value of "gui" in to this method as an argument the game's Swing GUI will load. By
+     *             passing the value of "server" the game is run as a headless server instead, optionally followed by
+     *             the port number to listen on.
      */
     public static final void main( String[] args )
     {                   
+        // A headless server plays a separate game for every connection, so it has no game loop of its own here.
+        if ( startServer( args ) )
+        {
+            return;
+        }
+
         // First we need to parse the command line arguments to figure out which IOUtility to load.
         parseCommandLineArguments( args );
         
@@ -44,6 +56,45 @@ public class Adventure
         }
     }
 
+    /**
+     * This method is used to start the game as a headless server if the "server" argument was passed in to the main()
+     * method. The server keeps running on its own thread after this method returns.
+     *
+     * @param args The arguments passed into the main() method
+     * @return True if the game is being run as a server, false otherwise.
+     */
+    private static boolean startServer( String[] args )
+    {
+        boolean useServer = false;
+        int port = GameServer.DEFAULT_PORT;
+
+        for ( String arg : args )
+        {
+            if ( arg.equalsIgnoreCase( "server" ) )
+            {
+                useServer = true;
+            }
+            else if ( arg.matches( "\\d{1,5}" ) )
+            {
+                port = Integer.parseInt( arg );
+            }
+        }
+
+        if ( useServer )
+        {
+            try
+            {
+                new GameServer( port ).start();
+                System.out.println( "Adventures in Text is listening for players on port " + port + "." );
+            }
+            catch ( IOException | IllegalArgumentException e )
+            {
+                System.out.println( "The server could not be started on port " + port + ": " + e.getMessage() );
+            }
+        }
+        return useServer;
+    }
+
     /**
      * This method is used parse the command line arguments passed in to the main() method. It is used to determine if the
      * game should use the command line interface or to load the Swing based GUI window.
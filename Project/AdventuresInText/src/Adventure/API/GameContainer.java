@@ -64,6 +64,41 @@ public abstract interface GameContainer
      */
     public abstract double containedItemWeight();
 
+    /**
+     * This method must be called when the weight of a single GameItem held by this container changes, so that the
+     * container's running weight stays correct. By default it does nothing, which is right for a container that works
+     * out its weight from scratch every time it is asked.
+     *
+     * @param item The GameItem object whose weight has changed.
+     * @param oldWeight The weight that a single quantity of the item had before it changed.
+     */
+    public default void itemWeightChanged( GameItem item, double oldWeight )
+    {
+    }
+
+    /**
+     * This method must be called by a container that is held by this container whenever the weight of its contents
+     * changes, so that this container's running weight stays correct. By default it does nothing, which is right for a
+     * container that works out its weight from scratch every time it is asked.
+     *
+     * @param weightChange The amount the weight of the held container's contents has changed by.
+     */
+    public default void containedWeightChanged( double weightChange )
+    {
+    }
+
+    /**
+     * This method must be called when a GameItem held by this container changes its name, so that it can still be
+     * found by its new name. By default it does nothing, which is right for a container that searches its items by
+     * name every time it is asked.
+     *
+     * @param item The GameItem object that has been renamed.
+     * @param oldName The String name the item had before it was renamed.
+     */
+    public default void itemRenamed( GameItem item, String oldName )
+    {
+    }
+
     /**
      * This method is used to decrease the quantity of a given GameItem being maintained by this container
      * by the given amount.
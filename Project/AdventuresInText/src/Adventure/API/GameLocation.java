@@ -121,6 +121,41 @@ public abstract interface GameLocation
      */
     public abstract GameExit getExitByDirection( String directionName );
 
+    /**
+     * This method is used to get a reference to the exit that you would travel through by moving the direction
+     * that has the given name. By default it searches the list of exits, so it should be overridden by anything that
+     * can find the exit more quickly.
+     *
+     * @param directionName the name of the direction of which you want the exit.
+     * @param includeHidden True to include exits that are marked as hidden, false otherwise.
+     * @return The gameExit object that is in the specified direction, or null if none is found.
+     */
+    public default GameExit getExitByDirection( String directionName, boolean includeHidden )
+    {
+        for ( GameExit exit : this.exitList() )
+        {
+            if ( ( includeHidden || !exit.isHidden() )
+                && exit.getExitDirection().getName().equalsIgnoreCase( directionName ) )
+            {
+                return exit;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * This method is used to get a reference to the exit that you would travel through by moving in the given
+     * direction. By default it searches the list of exits by the name of the direction.
+     *
+     * @param direction the GameDirection object of which you want the exit.
+     * @param includeHidden True to include exits that are marked as hidden, false otherwise.
+     * @return The gameExit object that is in the specified direction, or null if none is found.
+     */
+    public default GameExit getExitByDirection( GameDirection direction, boolean includeHidden )
+    {
+        return this.getExitByDirection( direction.getName(), includeHidden );
+    }
+
     /**
      * This method is used to see if a given Gameexit object is within the list of exits for this location. This search
      * doesn't include exits that are GameHideable objects marked as hiddden.
@@ -308,6 +343,17 @@ public abstract interface GameLocation
      */
     public abstract ArrayList<GameActor> actorList();
 
+    /**
+     * This method is used to get a read-only view of the GameActors in this location. The Base locations don't make a
+     * copy, so their view will change as actors come and go. By default this is a read-only copy of actorList().
+     *
+     * @return A read-only list of the GameActors in this location.
+     */
+    public default List<GameActor> actorView()
+    {
+        return Collections.unmodifiableList( this.actorList() );
+    }
+
     /**
      * This method is used to add the given GamePawn to this location.
      *
@@ -485,6 +531,17 @@ public abstract interface GameLocation
      */
     public abstract ArrayList<GamePawn> pawnList();
 
+    /**
+     * This method is used to get a read-only view of the GamePawns in this location. The Base locations don't make a
+     * copy, so their view will change as pawns come and go. By default this is a read-only copy of pawnList().
+     *
+     * @return A read-only list of the GamePawns in this location.
+     */
+    public default List<GamePawn> pawnView()
+    {
+        return Collections.unmodifiableList( this.pawnList() );
+    }
+
     /**
      * This method is used to get a copy of the list of GamePlayer objects in this location.
      *
@@ -492,6 +549,17 @@ public abstract interface GameLocation
      */
     public abstract ArrayList<GamePlayer> playerList();
 
+    /**
+     * This method is used to get a read-only view of the GamePlayers in this location. The Base locations don't make a
+     * copy, so their view will change as players come and go. By default this is a read-only copy of playerList().
+     *
+     * @return A read-only list of the GamePlayers in this location.
+     */
+    public default List<GamePlayer> playerView()
+    {
+        return Collections.unmodifiableList( this.playerList() );
+    }
+
     /**
      * This method is used to remove the given GamePawn from the list of pawns in this location.
      *
@@ -568,4 +636,26 @@ public abstract interface GameLocation
      * This method is used to unmark as hidden all components that are currently so marked within this location.
      */
     public abstract void revealHidden();
+
+    /**
+     * This method is used to find the pawn, item or exit in this location with the given name. Pawns are searched
+     * first, then items, then exits. The Base locations keep each of these by name, so they don't need to search any of
+     * the lists.
+     *
+     * @param objectName The name of the GameObject to be found.
+     * @return The GameObject in this location with the given name, or null if there is none.
+     */
+    public default GameObject getObject( String objectName )
+    {
+        GameObject object = this.getPawn( objectName );
+        if ( object == null )
+        {
+            object = this.getItem( objectName );
+        }
+        if ( object == null )
+        {
+            object = this.getExit( objectName );
+        }
+        return object;
+    }
 }
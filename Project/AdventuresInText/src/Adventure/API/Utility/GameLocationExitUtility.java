@@ -70,6 +70,41 @@ public interface GameLocationExitUtility
       */
     public abstract GameExit getExitByDirection( String directionName );
 
+    /**
+     * This method is used to get a reference to the exit that you would travel through by moving the direction
+     * that has the given name. By default it searches the list of exits, so it should be overridden by anything that
+     * can find the exit more quickly.
+     *
+     * @param directionName the name of the direction of which you want the exit.
+     * @param includeHidden True to include exits that are marked as hidden, false otherwise.
+     * @return The gameExit object that is in the specified direction, or null if none is found.
+     */
+    public default GameExit getExitByDirection( String directionName, boolean includeHidden )
+    {
+        for ( GameExit exit : this.exitList() )
+        {
+            if ( ( includeHidden || !exit.isHidden() )
+                && exit.getExitDirection().getName().equalsIgnoreCase( directionName ) )
+            {
+                return exit;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * This method is used to get a reference to the exit that you would travel through by moving in the given
+     * direction. By default it searches the list of exits by the name of the direction.
+     *
+     * @param direction the GameDirection object of which you want the exit.
+     * @param includeHidden True to include exits that are marked as hidden, false otherwise.
+     * @return The gameExit object that is in the specified direction, or null if none is found.
+     */
+    public default GameExit getExitByDirection( GameDirection direction, boolean includeHidden )
+    {
+        return this.getExitByDirection( direction.getName(), includeHidden );
+    }
+
      /**
       * This method is used to see if a given Gameexit object is within the list of exits for this location. This search
       * doesn't include exits that are GameHideable objects marked as hiddden.
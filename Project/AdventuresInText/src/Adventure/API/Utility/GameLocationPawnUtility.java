@@ -17,6 +17,17 @@ public interface GameLocationPawnUtility
      */
     public abstract ArrayList<GameActor> actorList();
 
+    /**
+     * This method is used to get a read-only view of the GameActors in this location. The Base locations don't make a
+     * copy, so their view will change as actors come and go. By default this is a read-only copy of actorList().
+     *
+     * @return A read-only list of the GameActors in this location.
+     */
+    public default List<GameActor> actorView()
+    {
+        return Collections.unmodifiableList( this.actorList() );
+    }
+
     /**
      * This method is used to add the given GamePawn to this location.
      *
@@ -196,6 +207,17 @@ public interface GameLocationPawnUtility
      */
     public abstract ArrayList<GamePawn> pawnList();
 
+    /**
+     * This method is used to get a read-only view of the GamePawns in this location. The Base locations don't make a
+     * copy, so their view will change as pawns come and go. By default this is a read-only copy of pawnList().
+     *
+     * @return A read-only list of the GamePawns in this location.
+     */
+    public default List<GamePawn> pawnView()
+    {
+        return Collections.unmodifiableList( this.pawnList() );
+    }
+
     /**
      * This method is used to get a copy of the list of GamePlayer objects in this location.
      *
@@ -203,6 +225,37 @@ public interface GameLocationPawnUtility
      */
     public abstract ArrayList<GamePlayer> playerList();
 
+    /**
+     * This method is used to get a read-only view of the GamePlayers in this location. The Base locations don't make a
+     * copy, so their view will change as players come and go. By default this is a read-only copy of playerList().
+     *
+     * @return A read-only list of the GamePlayers in this location.
+     */
+    public default List<GamePlayer> playerView()
+    {
+        return Collections.unmodifiableList( this.playerList() );
+    }
+
+    /**
+     * This method is used to get a read-only view of the pawns in this location that are GameSpeakers. The Base
+     * locations don't make a copy, so their view will change as speakers come and go. By default this is a read-only
+     * copy of the speakers in pawnList().
+     *
+     * @return A read-only list of the GameSpeakers in this location.
+     */
+    public default List<GameSpeaker> speakerView()
+    {
+        ArrayList<GameSpeaker> speakers = new ArrayList<GameSpeaker>();
+        for ( GamePawn pawn : this.pawnList() )
+        {
+            if ( pawn instanceof GameSpeaker )
+            {
+                speakers.add( ( GameSpeaker ) pawn );
+            }
+        }
+        return Collections.unmodifiableList( speakers );
+    }
+
     /**
      * This method is used to remove the given GamePawn from the list of pawns in this location.
      *
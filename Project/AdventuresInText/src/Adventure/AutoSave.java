@@ -0,0 +1,238 @@
+package Adventure;
+
+import java.io.*;
+
+import java.nio.*;
+import java.nio.file.*;
+
+import java.util.concurrent.*;
+
+/**
+ * This class saves the game in the background every so often, so that the player doesn't lose much if they forget to
+ * save. The game is only ever saved at the end of a turn, when nothing is halfway through changing it.
+ *
+ * Saving is split in two. At the end of a turn the game is encoded into buffers, which become a snapshot of the game
+ * that nothing else holds on to. The snapshot is then handed to a background thread, which writes it to a temporary
+ * file, forces it to the disk and renames it over the newest autosave, so the player never waits for the disk and an
+ * autosave is never left half written.
+ *
+ * The newest autosave is kept in "autosave.sav", and older ones are kept in "autosave2.sav", "autosave3.sav" and so on,
+ * up to the number of autosaves that are kept. Each of them can be loaded like any other saved game. How often the game
+ * is autosaved, how many autosaves are kept and the name they are kept under all belong to the GameSession, so a
+ * session that autosaves alongside others should be given an autosave name of its own.
+ */
+public class AutoSave
+{
+    /**
+     * This is the name of the newest autosave unless the session is given another one. Older autosaves have their
+     * number added to the end of it.
+     */
+    public static final String AUTOSAVE_NAME = "autosave";
+
+    private final GameSession session;
+
+    private final ExecutorService writer;
+
+    private long lastSave;
+
+    private volatile boolean writing;
+
+    private volatile IOException failure;
+
+    /**
+     * This constructor creates a new autosave service for a session. The first autosave is made once the interval of
+     * the session has passed.
+     *
+     * @param owner The GameSession whose game is autosaved.
+     */
+    public AutoSave( GameSession owner )
+    {
+        this.session = owner;
+        this.lastSave = System.nanoTime();
+        this.writing = false;
+        this.failure = null;
+
+        this.writer = Executors.newSingleThreadExecutor( new ThreadFactory()
+        {
+            public Thread newThread( Runnable task )
+            {
+                Thread thread = new Thread( task, "Auto Save" );
+                thread.setDaemon( true );
+                return thread;
+            }
+        } );
+    }
+
+    /**
+     * This method is used to set how often the game of the current session is autosaved. It is the same as calling
+     * setAutosaveInterval() on the session.
+     *
+     * @param newInterval The number of milliseconds between each autosave.
+     */
+    public static void setInterval( long newInterval )
+    {
+        GameSession.current().setAutosaveInterval( newInterval );
+    }
+
+    /**
+     * This method is used to get how often the game of the current session is autosaved.
+     *
+     * @return The number of milliseconds between each autosave.
+     */
+    public static long getInterval()
+    {
+        return GameSession.current().getAutosaveInterval();
+    }
+
+    /**
+     * This method is used to set how many autosaves the current session keeps. It is the same as calling
+     * setAutosaveRetention() on the session.
+     *
+     * @param newRetention The number of autosaves to keep, which is at least 1.
+     */
+    public static void setRetention( int newRetention )
+    {
+        GameSession.current().setAutosaveRetention( newRetention );
+    }
+
+    /**
+     * This method is used to get how many autosaves the current session keeps.
+     *
+     * @return The number of autosaves to keep.
+     */
+    public static int getRetention()
+    {
+        return GameSession.current().getAutosaveRetention();
+    }
+
+    /**
+     * This method is used to get the file of an autosave of the current session.
+     *
+     * @param age The age of the autosave, where 1 is the newest.
+     * @return The File of the autosave.
+     */
+    public static File autosaveFile( int age )
+    {
+        return autosaveFile( GameSession.current().getAutosaveName(), age );
+    }
+
+    /**
+     * This method is used to get the file of an autosave with a given name.
+     *
+     * @param name The String name of the newest autosave, without an extension.
+     * @param age The age of the autosave, where 1 is the newest.
+     * @return The File of the autosave.
+     */
+    public static File autosaveFile( String name, int age )
+    {
+        if ( age <= 1 )
+        {
+            return new File( name + "." + Engine.BINARY_SAVE_EXT );
+        }
+        return new File( name + age + "." + Engine.BINARY_SAVE_EXT );
+    }
+
+    /**
+     * This method is used to find out if it is time to autosave. It is not time if the last autosave is still being
+     * written, so that a slow disk never makes snapshots pile up in memory.
+     *
+     * @return True if the game should be autosaved at the end of this turn, false otherwise.
+     * @throws IOException Thrown if the last autosave could not be written.
+     */
+    public boolean isDue()
+        throws IOException
+    {
+        if ( this.failure != null )
+        {
+            throw this.failure;
+        }
+        return !this.writing && System.nanoTime() - this.lastSave >= TimeUnit.MILLISECONDS.toNanos( this.session.getAutosaveInterval() );
+    }
+
+    /**
+     * This method hands a snapshot of the game to the background thread to be written as the newest autosave. The
+     * snapshot must have been encoded at the end of a turn, and must not be used by anything else afterwards.
+     *
+     * @param snapshot The buffers that hold the encoded game, in order.
+     */
+    public void save( final ByteBuffer[] snapshot )
+    {
+        // The settings are read here, on the thread of the session, since the background thread has no session.
+        final String name = this.session.getAutosaveName();
+        final int kept = this.session.getAutosaveRetention();
+
+        this.lastSave = System.nanoTime();
+        this.writing = true;
+        this.writer.execute( new Runnable()
+        {
+            public void run()
+            {
+                write( snapshot, name, kept );
+            }
+        } );
+    }
+
+    /**
+     * This method will stop the service, waiting for an autosave that is being written to be finished.
+     *
+     * @throws IOException Thrown if the last autosave could not be written.
+     */
+    public void close()
+        throws IOException
+    {
+        this.writer.shutdown();
+        try
+        {
+            while ( !this.writer.awaitTermination( 1, TimeUnit.SECONDS ) )
+            {
+                continue;
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+        if ( this.failure != null )
+        {
+            throw this.failure;
+        }
+    }
+
+    /**
+     * This helper method moves the older autosaves along by one and writes the snapshot as the newest autosave. It is
+     * only run on the background thread.
+     *
+     * @param snapshot The buffers that hold the encoded game, in order.
+     * @param name The String name of the newest autosave.
+     * @param kept The number of autosaves to keep.
+     */
+    private void write( ByteBuffer[] snapshot, String name, int kept )
+    {
+        try
+        {
+            // Every autosave is complete at all times, since each one is only ever renamed or replaced in one step.
+            if ( kept > 1 )
+            {
+                Files.deleteIfExists( autosaveFile( name, kept ).toPath() );
+            }
+            for ( int age = kept - 1; age >= 1; age-- )
+            {
+                File older = autosaveFile( name, age );
+                if ( older.exists() )
+                {
+                    Files.move( older.toPath(), autosaveFile( name, age + 1 ).toPath(),
+                                StandardCopyOption.REPLACE_EXISTING );
+                }
+            }
+            SaveCodec.replaceFile( autosaveFile( name, 1 ), snapshot );
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            this.failure = e instanceof IOException ? ( IOException ) e : new IOException( e );
+        }
+        finally
+        {
+            this.writing = false;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package Adventure.Base;
 
+import Adventure.*;
+
 import Adventure.API.*;
 
 import Adventure.Validation.*;
@@ -84,6 +86,7 @@ public abstract class BaseAction
             }
         }
         this.aliases.add( alias );
+        Engine.aliasAdded( this, alias );
     }
 
      /**
@@ -94,6 +97,7 @@ public abstract class BaseAction
     public void addPreposition( String preposition )
     {
         this.prepositions.add( preposition );
+        Engine.stateChanged( this );
     }
 
      /**
@@ -164,7 +168,8 @@ public abstract class BaseAction
         {
             if ( listAlias.equalsIgnoreCase( alias ) )
             {
-                this.aliases.remove( alias );
+                this.aliases.remove( listAlias );
+                Engine.aliasRemoved( this, listAlias );
                 return;
             }
         }
@@ -182,6 +187,7 @@ public abstract class BaseAction
             if ( listPreposition.equalsIgnoreCase( preposition ) )
             {
                 this.prepositions.remove( preposition );
+                Engine.stateChanged( this );
                 return;
             }
         }
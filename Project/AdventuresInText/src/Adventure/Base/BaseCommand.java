@@ -1,5 +1,7 @@
 package Adventure.Base;
 
+import Adventure.*;
+
 import Adventure.API.*;
 
 import Adventure.Validation.*;
@@ -96,6 +98,8 @@ public abstract class BaseCommand
                 }
             }
         }
+        String oldHotkey = hotkey;
         hotkey = newHotkey;
+        Engine.hotkeyChanged( this, oldHotkey );
     }
 }
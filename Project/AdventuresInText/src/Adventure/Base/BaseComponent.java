@@ -116,7 +116,14 @@ public abstract class BaseComponent
                 }
             }
         }
+        String oldName = this.name;
         this.name = newName;
+
+        // If this component was already registered under its old name, the Engine needs to know about the new one.
+        if ( oldName != null )
+        {
+            Engine.renameComponent( this, oldName );
+        }
     }
 
     /**
@@ -232,6 +239,7 @@ public abstract class BaseComponent
     public void setStatusUtility( GameComponentStatusUtility newStatusUtility )
     {
         this.statusUtility = newStatusUtility;
+        Engine.componentChanged( this );
     }
 
     /**
@@ -242,6 +250,7 @@ public abstract class BaseComponent
     public void setTextUtility( GameComponentTextUtility newTextUtility )
     {
         this.textUtility = newTextUtility;
+        Engine.stateChanged( this );
     }
 
     /**
@@ -1,5 +1,7 @@
 package Adventure.Base;
 
+import Adventure.*;
+
 import Adventure.API.*;
 
 /**
@@ -12,7 +14,20 @@ public abstract class BaseCondition
     @SuppressWarnings( "compatibility:8953708310952030740" )
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Only one check out of this many is timed, since reading the clock can cost as much as a simple check.
+     */
+    private static final int TIMING_INTERVAL = 16;
+
     protected boolean negated;
+
+    private transient long checkCount;
+
+    private transient long passCount;
+
+    private transient long timedChecks;
+
+    private transient long timedNanos;
     
     /**
      * This constructor is used to initialize and set up this condition.
@@ -45,17 +60,98 @@ public abstract class BaseCondition
      */
     public boolean checkCondition()
     {
-        boolean condition = this.runConditionCheck();
+        boolean condition;
+        if ( this.checkCount % TIMING_INTERVAL == 0 )
+        {
+            long start = System.nanoTime();
+            condition = this.runConditionCheck();
+            this.timedNanos += System.nanoTime() - start;
+            this.timedChecks++;
+        }
+        else
+        {
+            condition = this.runConditionCheck();
+        }
         if(this.negated)
         {
-            return !condition;
+            condition = !condition;
+        }
+
+        // Here we keep track of how often this condition passes, so that events can check their most selective
+        // conditions first.
+        this.checkCount++;
+        if ( condition )
+        {
+            this.passCount++;
         }
         return condition;
     }
+
+    /**
+     * This method is used to get the statistics that have been gathered for this condition since the game started.
+     *
+     * @return A ConditionStatistics object describing how this condition has performed.
+     */
+    public ConditionStatistics getStatistics()
+    {
+        return new ConditionStatistics( this, this.checkCount, this.passCount, this.averageNanos() );
+    }
+
+    /**
+     * This method will throw away the statistics that have been gathered for this condition.
+     */
+    public void resetStatistics()
+    {
+        this.checkCount = 0;
+        this.passCount = 0;
+        this.timedChecks = 0;
+        this.timedNanos = 0;
+    }
+
+    /**
+     * This method is used to get the rank of this condition, which events use to decide which of their conditions to
+     * check first. It is the same as getStatistics().getRank(), but does not create a new object.
+     *
+     * @return The rank of this condition, where conditions with a lower rank are checked first, or Double.NaN if this
+     *         condition has never been checked.
+     */
+    public double getRank()
+    {
+        return ConditionStatistics.rank( this.averageNanos(), this.checkCount, this.passCount );
+    }
+
+    /**
+     * This helper method works out the average time taken by the checks that have been timed.
+     *
+     * @return The average time for one check, in nanoseconds.
+     */
+    private double averageNanos()
+    {
+        if ( this.timedChecks == 0 )
+        {
+            return 0.0;
+        }
+        return ( double ) this.timedNanos / this.timedChecks;
+    }
     
+    /**
+     * This method is used to tell the Engine what this condition reads when it is checked, so that events using it only
+     * need to be checked again after one of those things has changed. Conditions that can name everything they read
+     * should override this method, declare each of those things with the given tracker, and return true. By default
+     * nothing is declared, which means any event using this condition will be checked every turn.
+     *
+     * @param tracker The EventTracker to declare the dependencies with.
+     * @return True if every dependency of this condition has been declared, false otherwise.
+     */
+    public boolean declareDependencies( EventTracker tracker )
+    {
+        return false;
+    }
+
     public void setNegated(boolean newNegated)
     {
         this.negated = newNegated;
+        Engine.conditionChanged( this );
     }
     
     public boolean isNegated()
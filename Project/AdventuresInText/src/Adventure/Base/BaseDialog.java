@@ -65,6 +65,7 @@ public abstract class BaseDialog
     public void addBranch( String optionText, GameDialog branchDialog )
     {
         this.branches.put( optionText, branchDialog );
+        Engine.stateChanged( this );
     }
 
     /**
@@ -77,6 +78,7 @@ public abstract class BaseDialog
     public void addBranch( String optionText, String branchName, String branchText )
     {
         this.branches.put( optionText, new Dialog( branchName, branchText ) );
+        Engine.stateChanged( this );
     }
 
     /**
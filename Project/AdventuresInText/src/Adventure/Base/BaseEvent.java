@@ -21,6 +21,22 @@ public abstract class BaseEvent
      */
     protected ArrayList<GameCondition> conditions;
 
+    /**
+     * This field is used to let the event reorder its conditions so that the cheapest, most selective ones are checked
+     * first. It is off unless the map turns it on, since conditions may rely on being checked in the order they were
+     * added.
+     */
+    protected boolean adaptiveConditionOrder;
+
+    /**
+     * The conditions are reordered after this many checks of the event.
+     */
+    private static final int REORDER_INTERVAL = 32;
+
+    private transient GameCondition[] evaluationOrder;
+
+    private transient int checksSinceReorder;
+
     /**
      * This constructor is used to initialize and set up this event.
      *
@@ -52,6 +68,8 @@ public abstract class BaseEvent
         if ( add )
         {
             this.conditions.add( newCondition );
+            this.evaluationOrder = null;
+            Engine.eventConditionsChanged( this );
         }
 
     }
@@ -119,7 +137,7 @@ public abstract class BaseEvent
      */
     public boolean checkEventConditions()
     {
-        for ( GameCondition condition : this.conditionList() )
+        for ( GameCondition condition : this.evaluationOrder() )
         {
             if ( !condition.checkCondition() )
             {
@@ -128,4 +146,97 @@ public abstract class BaseEvent
         }
         return true;
     }
+
+    /**
+     * This helper method gets the order that the conditions should be checked in. When adaptive ordering is turned on,
+     * every so often the conditions are sorted to put the ones that are cheap to check and likely to fail first. That
+     * way the check can usually stop early, without running the expensive ones.
+     *
+     * @return An array holding the conditions for this event in the order they should be checked.
+     */
+    private GameCondition[] evaluationOrder()
+    {
+        if ( this.evaluationOrder == null || this.evaluationOrder.length != this.conditions.size() )
+        {
+            this.evaluationOrder = this.conditions.toArray( new GameCondition[ this.conditions.size() ] );
+            this.checksSinceReorder = 0;
+        }
+        else if ( this.adaptiveConditionOrder && ++this.checksSinceReorder >= REORDER_INTERVAL )
+        {
+            this.checksSinceReorder = 0;
+            this.reorderConditions();
+        }
+        return this.evaluationOrder;
+    }
+
+    /**
+     * This helper method sorts the conditions by their rank. Conditions that don't keep statistics have no rank, so
+     * if there are any of them the order is left alone. Conditions that have never been checked have no rank yet either,
+     * so they keep their place and only the conditions around them are sorted.
+     */
+    private void reorderConditions()
+    {
+        if ( this.evaluationOrder.length < 2 )
+        {
+            return;
+        }
+        final double[] ranks = new double[ this.evaluationOrder.length ];
+        ArrayList<Integer> ranked = new ArrayList<Integer>();
+        for ( int i = 0; i < this.evaluationOrder.length; i++ )
+        {
+            if ( !( this.evaluationOrder[ i ] instanceof BaseCondition ) )
+            {
+                return;
+            }
+            ranks[ i ] = ( ( BaseCondition ) this.evaluationOrder[ i ] ).getRank();
+            if ( !Double.isNaN( ranks[ i ] ) )
+            {
+                ranked.add( i );
+            }
+        }
+
+        // The sort is stable, so conditions with the same rank keep their current order.
+        ArrayList<Integer> sorted = new ArrayList<Integer>( ranked );
+        Collections.sort( sorted, new Comparator<Integer>()
+        {
+            public int compare( Integer first, Integer second )
+            {
+                return Double.compare( ranks[ first ], ranks[ second ] );
+            }
+        } );
+
+        // The ranked conditions are put back into the places that ranked conditions held, in their sorted order.
+        GameCondition[] newOrder = this.evaluationOrder.clone();
+        for ( int i = 0; i < ranked.size(); i++ )
+        {
+            newOrder[ ranked.get( i ) ] = this.evaluationOrder[ sorted.get( i ) ];
+        }
+        this.evaluationOrder = newOrder;
+    }
+
+    /**
+     * This method is used to let this event reorder its conditions, so that the ones that are cheap to check and likely
+     * to fail are checked first. It should only be turned on if the conditions don't rely on each other and don't
+     * change anything when they are checked, since the order they are checked in is no longer the order they were
+     * added in.
+     *
+     * @param newAdaptiveConditionOrder True to let the conditions be reordered, false to always check them in the
+     *                                  order they were added.
+     */
+    public void setAdaptiveConditionOrder( boolean newAdaptiveConditionOrder )
+    {
+        this.adaptiveConditionOrder = newAdaptiveConditionOrder;
+        this.evaluationOrder = null;
+        Engine.stateChanged( this );
+    }
+
+    /**
+     * This method is used to find out if this event reorders its conditions.
+     *
+     * @return True if the conditions can be reordered, false if they are always checked in the order they were added.
+     */
+    public boolean hasAdaptiveConditionOrder()
+    {
+        return this.adaptiveConditionOrder;
+    }
 }
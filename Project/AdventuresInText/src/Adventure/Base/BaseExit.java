@@ -46,7 +46,7 @@ public abstract class BaseExit
     public BaseExit( GameDirection direction, GameLocation exitToLocation )
     {
         // TODO: There needs to be a better method for generating unique exit names...
-        super( direction.getHotkey() + "_" + Engine.componentList().size());
+        super( direction.getHotkey() + "_" + Engine.componentCount());
 
         this.hideUtility = new ObjectHideUtility( this );
 
@@ -91,6 +91,7 @@ public abstract class BaseExit
     {
         newHideUtility.setObjectComponent( this );
         this.hideUtility = newHideUtility;
+        Engine.componentChanged( this );
     }
     ///////////////////////Hide Utility////////////////////////////
 
@@ -134,6 +135,10 @@ public abstract class BaseExit
     public void setExitDirection( GameDirection newDirection )
     {
         this.direction = newDirection;
+
+        // Locations find their exits by direction, so they need to know that this one has moved.
+        LocationExitUtility.exitsChanged();
+        Engine.stateChanged( this );
     }
 
     /**
@@ -143,13 +148,10 @@ public abstract class BaseExit
      */
     public void setExitDirection( String directionName )
     {
-        for ( GameComponent component : Engine.componentList() )
+        GameDirection direction = Engine.getDirection( directionName );
+        if ( direction != null )
         {
-            if ( component instanceof GameDirection && component.getName().equalsIgnoreCase( directionName ) )
-            {
-                setExitDirection( ( GameDirection ) component );
-                return;
-            }
+            setExitDirection( direction );
         }
     }
 
@@ -161,6 +163,7 @@ public abstract class BaseExit
     public void setExitLocation( GameLocation newLocation )
     {
         this.exitTo = newLocation;
+        Engine.stateChanged( this );
     }
 
     /**
@@ -170,13 +173,10 @@ public abstract class BaseExit
      */
     public void setExitLocation( String locationName )
     {
-        for ( GameComponent component : Engine.componentList() )
+        GameLocation newLocation = Engine.getLocation( locationName );
+        if ( newLocation != null )
         {
-            if ( component instanceof GameLocation && location.getName().equalsIgnoreCase( locationName ) )
-            {
-                setExitLocation( ( GameLocation ) component );
-                return;
-            }
+            setExitLocation( newLocation );
         }
     }
 
@@ -188,6 +188,7 @@ public abstract class BaseExit
     public void setLocation( GameLocation newLocation )
     {
         this.location = newLocation;
+        Engine.stateChanged( this );
     }
 
     /**
@@ -197,13 +198,10 @@ public abstract class BaseExit
      */
     public void setLocation( String locationName )
     {
-        for ( GameComponent component : Engine.componentList() )
+        GameLocation newLocation = Engine.getLocation( locationName );
+        if ( newLocation != null )
         {
-            if ( component instanceof GameLocation && component.getName().equalsIgnoreCase( locationName ) )
-            {
-                this.setLocation( ( GameLocation ) component );
-                return;
-            }
+            this.setLocation( newLocation );
         }
     }
 }
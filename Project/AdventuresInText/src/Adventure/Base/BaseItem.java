@@ -155,6 +155,7 @@ public abstract class BaseItem
     {
         newHideUtility.setObjectComponent( this );
         this.hideUtility = newHideUtility;
+        Engine.componentChanged( this );
     }
     ///////////////////////Hide Utility////////////////////////////
 
@@ -205,6 +206,7 @@ public abstract class BaseItem
         if ( addToList )
         {
             this.containers.add( container );
+            Engine.stateChanged( this );
             return true;
         }
         return false;
@@ -219,13 +221,11 @@ public abstract class BaseItem
      */
     public boolean addContainer( String newContainerName )
     {
-        for ( GameComponent component : Engine.componentList() )
+        GameContainer container = Engine.getContainer( newContainerName );
+        if ( container != null )
         {
-            if ( component instanceof GameContainer && component.getName().equalsIgnoreCase( newContainerName ) )
-            {
-                this.addContainer( ( GameContainer ) component );
-                return true;
-            }
+            this.addContainer( container );
+            return true;
         }
         return false;
     }
@@ -240,6 +240,7 @@ public abstract class BaseItem
     {
         if ( this.containers.remove( container ) )
         {
+            Engine.stateChanged( this );
             return true;
         }
         return false;
@@ -361,7 +362,15 @@ public abstract class BaseItem
      */
     public void setItemWeight( double newWeight )
     {
+        double oldWeight = this.itemWeight;
         this.itemWeight = newWeight;
+        Engine.stateChanged( this );
+
+        // The weight of every container holding this item has changed along with it.
+        for ( GameContainer container : this.containers )
+        {
+            container.itemWeightChanged( this, oldWeight );
+        }
     }
 
     /**
@@ -120,6 +120,7 @@ public abstract class BaseLocation
     {
         newContainerUtility.setLocationComponent( this );
         this.containerUtility = newContainerUtility;
+        Engine.stateChanged( this );
     }
     ///////////////////////Container Utility////////////////////////////
 
@@ -206,6 +207,32 @@ public abstract class BaseLocation
         return this.exitUtility.getExitByDirection( directionName );
     }
 
+    /**
+     * This method is used to get a reference to the exit that you would travel through by moving the direction
+     * that has the given name.
+     *
+     * @param directionName the name of the direction of which you want the exit.
+     * @param includeHidden True to include exits that are marked as hidden, false otherwise.
+     * @return The gameExit object that is in the specified direction, or null if none is found.
+     */
+    public GameExit getExitByDirection( String directionName, boolean includeHidden )
+    {
+        return this.exitUtility.getExitByDirection( directionName, includeHidden );
+    }
+
+    /**
+     * This method is used to get a reference to the exit that you would travel through by moving in the given
+     * direction.
+     *
+     * @param direction the GameDirection object of which you want the exit.
+     * @param includeHidden True to include exits that are marked as hidden, false otherwise.
+     * @return The gameExit object that is in the specified direction, or null if none is found.
+     */
+    public GameExit getExitByDirection( GameDirection direction, boolean includeHidden )
+    {
+        return this.exitUtility.getExitByDirection( direction, includeHidden );
+    }
+
     /**
      * This method is used to see if a given Gameexit object is within the list of exits for this location. This search
      * doesn't include exits that are GameHideable objects marked as hiddden.
@@ -442,6 +469,7 @@ public abstract class BaseLocation
     {
         newExitUtility.setLocationComponent( this );
         this.exitUtility = newExitUtility;
+        Engine.stateChanged( this );
     }
     ///////////////////////Exit Utility////////////////////////////
 
@@ -511,6 +539,41 @@ public abstract class BaseLocation
         return this.itemUtility.containedItemWeight();
     }
 
+    /**
+     * This method must be called when the weight of a single GameItem held by this container changes, so that the
+     * container's running weight stays correct.
+     *
+     * @param item The GameItem object whose weight has changed.
+     * @param oldWeight The weight that a single quantity of the item had before it changed.
+     */
+    public void itemWeightChanged( GameItem item, double oldWeight )
+    {
+        this.itemUtility.itemWeightChanged( item, oldWeight );
+    }
+
+    /**
+     * This method must be called by a container that is held by this container whenever the weight of its contents
+     * changes, so that this container's running weight stays correct.
+     *
+     * @param weightChange The amount the weight of the held container's contents has changed by.
+     */
+    public void containedWeightChanged( double weightChange )
+    {
+        this.itemUtility.containedWeightChanged( weightChange );
+    }
+
+    /**
+     * This method must be called when a GameItem held by this container changes its name, so that it can still be
+     * found by its new name.
+     *
+     * @param item The GameItem object that has been renamed.
+     * @param oldName The String name the item had before it was renamed.
+     */
+    public void itemRenamed( GameItem item, String oldName )
+    {
+        this.itemUtility.itemRenamed( item, oldName );
+    }
+
     /**
      * This method is used to decrease the quantity of a given GameItem being maintained by this container
      * by the given amount.
@@ -800,6 +863,7 @@ public abstract class BaseLocation
     {
         newItemUtility.setContainerComponent( this );
         this.itemUtility = newItemUtility;
+        Engine.itemsChanged( this );
     }
     ///////////////////////Item Utility////////////////////////////
 
@@ -815,6 +879,17 @@ public abstract class BaseLocation
         return this.pawnUtility.actorList();
     }
 
+    /**
+     * This method is used to get a read-only view of the GameActors in this location. Unlike actorList(), this doesn't
+     * make a copy, so the view will change as actors come and go.
+     *
+     * @return A read-only list of the GameActors in this location.
+     */
+    public List<GameActor> actorView()
+    {
+        return this.pawnUtility.actorView();
+    }
+
     /**
      * This method is used to add the given GamePawn to this location.
      *
@@ -1052,6 +1127,17 @@ public abstract class BaseLocation
         return this.pawnUtility.pawnList();
     }
 
+    /**
+     * This method is used to get a read-only view of the GamePawns in this location. Unlike pawnList(), this doesn't make
+     * a copy, so the view will change as pawns come and go.
+     *
+     * @return A read-only list of the GamePawns in this location.
+     */
+    public List<GamePawn> pawnView()
+    {
+        return this.pawnUtility.pawnView();
+    }
+
     /**
      * This method is used to get a copy of the list of GamePlayer objects in this location.
      *
@@ -1062,6 +1148,17 @@ public abstract class BaseLocation
         return this.pawnUtility.playerList();
     }
 
+    /**
+     * This method is used to get a read-only view of the GamePlayers in this location. Unlike playerList(), this doesn't
+     * make a copy, so the view will change as players come and go.
+     *
+     * @return A read-only list of the GamePlayers in this location.
+     */
+    public List<GamePlayer> playerView()
+    {
+        return this.pawnUtility.playerView();
+    }
+
     /**
      * This method is used to remove the given GamePawn from the list of pawns in this location.
      *
@@ -1093,6 +1190,7 @@ public abstract class BaseLocation
     {
         newPawnUtility.setLocationComponent( this );
         this.pawnUtility = newPawnUtility;
+        Engine.stateChanged( this );
     }
     ///////////////////////Pawn Utility////////////////////////////
 
@@ -1157,6 +1255,7 @@ public abstract class BaseLocation
     {
         newSpeakerUtility.setLocationComponent( this );
         this.speakerUtility = newSpeakerUtility;
+        Engine.stateChanged( this );
     }
     ///////////////////////Speaker Utility////////////////////////////
 
@@ -1169,11 +1268,11 @@ public abstract class BaseLocation
     {
         IO.addLine( this.getText( "description" ) + "\n" );
 
-        if ( this.playerList().size() > 1 )
+        if ( this.playerView().size() > 1 )
         {
             IO.addLine( this.listPlayers() );
         }
-        if ( !this.actorList().isEmpty() )
+        if ( !this.actorView().isEmpty() )
         {
             IO.addLine( this.listActors() );
         }
@@ -1211,4 +1310,25 @@ public abstract class BaseLocation
             }
         }
     }
+
+    /**
+     * This method is used to find the pawn, item or exit in this location with the given name. Pawns are searched
+     * first, then items, then exits. Each of these is kept by name, so this doesn't need to search any of the lists.
+     *
+     * @param objectName The name of the GameObject to be found.
+     * @return The GameObject in this location with the given name, or null if there is none.
+     */
+    public GameObject getObject( String objectName )
+    {
+        GameObject object = this.getPawn( objectName );
+        if ( object == null )
+        {
+            object = this.getItem( objectName );
+        }
+        if ( object == null )
+        {
+            object = this.getExit( objectName );
+        }
+        return object;
+    }
 }
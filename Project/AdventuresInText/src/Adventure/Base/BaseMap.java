@@ -48,6 +48,7 @@ public abstract class BaseMap
     public void setCurrentPlayer( GamePlayer newCurrentPlayer )
     {
         this.currentPlayer = newCurrentPlayer;
+        Engine.stateChanged( this );
     }
 
     /**
@@ -58,13 +59,10 @@ public abstract class BaseMap
      */
     public void setCurrentPlayer( String newCurrentPlayerName )
     {
-        for ( GameComponent component : Engine.componentList() )
+        GamePlayer player = Engine.getPlayer( newCurrentPlayerName );
+        if ( player != null )
         {
-            if ( component instanceof GamePlayer && component.getName().equalsIgnoreCase( newCurrentPlayerName ) )
-            {
-                setCurrentPlayer( ( GamePlayer ) component );
-                return;
-            }
+            setCurrentPlayer( player );
         }
     }
 
@@ -86,6 +84,7 @@ public abstract class BaseMap
     public void setMapPath( String newMapPath )
     {
         this.mapPath = newMapPath;
+        Engine.stateChanged( this );
     }
 
     /**
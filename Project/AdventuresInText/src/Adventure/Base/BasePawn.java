@@ -92,6 +92,7 @@ public abstract class BasePawn
     {
         newHideUtility.setObjectComponent( this );
         this.hideUtility = newHideUtility;
+        Engine.componentChanged( this );
     }
     ///////////////////////Hide Utility////////////////////////////
 
@@ -134,6 +135,7 @@ public abstract class BasePawn
         }
         this.location = newLocation;
         this.location.addPawn( this );
+        Engine.locationChanged( this );
     }
 
     /**
@@ -143,13 +145,10 @@ public abstract class BasePawn
      */
     public void setLocation( String locationName )
     {
-        for ( GameComponent component : Engine.componentList() )
+        GameLocation newLocation = Engine.getLocation( locationName );
+        if ( newLocation != null )
         {
-            if ( component instanceof GameLocation && component.getName().equalsIgnoreCase( locationName ) )
-            {
-                this.setLocation( ( GameLocation ) component );
-                return;
-            }
+            this.setLocation( newLocation );
         }
     }
 }
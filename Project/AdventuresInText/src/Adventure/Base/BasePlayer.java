@@ -123,6 +123,41 @@ public abstract class BasePlayer
         return this.itemUtility.containedItemWeight();
     }
 
+    /**
+     * This method must be called when the weight of a single GameItem held by this container changes, so that the
+     * container's running weight stays correct.
+     *
+     * @param item The GameItem object whose weight has changed.
+     * @param oldWeight The weight that a single quantity of the item had before it changed.
+     */
+    public void itemWeightChanged( GameItem item, double oldWeight )
+    {
+        this.itemUtility.itemWeightChanged( item, oldWeight );
+    }
+
+    /**
+     * This method must be called by a container that is held by this container whenever the weight of its contents
+     * changes, so that this container's running weight stays correct.
+     *
+     * @param weightChange The amount the weight of the held container's contents has changed by.
+     */
+    public void containedWeightChanged( double weightChange )
+    {
+        this.itemUtility.containedWeightChanged( weightChange );
+    }
+
+    /**
+     * This method must be called when a GameItem held by this container changes its name, so that it can still be
+     * found by its new name.
+     *
+     * @param item The GameItem object that has been renamed.
+     * @param oldName The String name the item had before it was renamed.
+     */
+    public void itemRenamed( GameItem item, String oldName )
+    {
+        this.itemUtility.itemRenamed( item, oldName );
+    }
+
     /**
      * This method is used to decrease the quantity of a given GameItem being maintained by this container
      * by the given amount.
@@ -415,6 +450,7 @@ public abstract class BasePlayer
     public void setItemUtility( GameContainerItemUtility newItemUtility )
     {
         this.itemUtility = newItemUtility;
+        Engine.itemsChanged( this );
     }
     ///////////////////////Item Utility////////////////////////////
 
@@ -431,6 +467,7 @@ public abstract class BasePlayer
         if ( component instanceof GameLocation )
         {
             this.location = (GameLocation) component;
+            Engine.locationChanged( this );
         }
     }
 }
@@ -5,6 +5,8 @@ import Adventure.*;
 import Adventure.API.*;
 import Adventure.API.Utility.*;
 
+import java.io.*;
+
 import java.util.*;
 
 /**
@@ -17,9 +19,17 @@ public class ComponentStatusUtility
     private static final long serialVersionUID = 1L;
 
     /**
-     * This field holds the mapping of status values.
+     * When a component is saved, its statuses are written out under the field name and type that older versions of
+     * this class used, so that saved games can be loaded by either version. The ids in the StatusMap are only valid
+     * while the game is running, so they are never saved.
+     */
+    private static final ObjectStreamField[] serialPersistentFields =
+    { new ObjectStreamField( "statusList", HashMap.class ), new ObjectStreamField( "component", GameComponent.class ) };
+
+    /**
+     * This field holds the mapping of status ids to status values.
      */
-    protected HashMap<String, Integer> statusList;
+    protected transient StatusMap statuses;
 
     /**
      * This field hold a reference to the component this utility is attached to.
@@ -34,7 +44,7 @@ public class ComponentStatusUtility
     public ComponentStatusUtility( GameComponent component )
     {
         super();
-        this.statusList = new HashMap<String, Integer>();
+        this.statuses = new StatusMap();
         this.component = component;
     }
 
@@ -46,14 +56,18 @@ public class ComponentStatusUtility
      */
     public int getStatus( String statusName )
     {
-        if ( statusList.containsKey( statusName ) )
-        {
-            return statusList.get( statusName );
-        }
-        else
-        {
-            return 0;
-        }
+        return this.getStatus( StatusKeys.lookup( statusName ) );
+    }
+
+    /**
+     * This method will retrieve the value stored for the attached component for a given status id.
+     *
+     * @param statusId The int id of the status to check, from the StatusKeys table.
+     * @return The integer value stored for the given status or a 0 if not found.
+     */
+    public int getStatus( int statusId )
+    {
+        return this.statuses.get( statusId, 0 );
     }
 
     /**
@@ -64,21 +78,18 @@ public class ComponentStatusUtility
      */
     public boolean hasStatus( String statusName )
     {
-        if ( statusList.containsKey( statusName ) )
-        {
-            if ( statusList.get( statusName ) == 0 )
-            {
-                return false;
-            }
-            else
-            {
-                return true;
-            }
-        }
-        else
-        {
-            return false;
-        }
+        return this.hasStatus( StatusKeys.lookup( statusName ) );
+    }
+
+    /**
+     * This method will check if there is a value other than 0 for the given status id.
+     *
+     * @param statusId The int id of the status to check, from the StatusKeys table.
+     * @return True if the given status has a value other than 0, false otherwise.
+     */
+    public boolean hasStatus( int statusId )
+    {
+        return this.statuses.get( statusId, 0 ) != 0;
     }
 
     /**
@@ -89,14 +100,19 @@ public class ComponentStatusUtility
      */
     public void incrementStatus( String statusName )
     {
-        int current = 0;
-        if ( statusList.containsKey( statusName ) )
-        {
-            current = statusList.get( statusName );
-        }
+        this.incrementStatus( StatusKeys.intern( statusName ) );
+    }
 
-        current++;
-        statusList.put( statusName, current );
+    /**
+     * This method will take the current value stored for a given status id and increment it by 1. If there is no value
+     * stored for the given status id, the value of 1 is set.
+     *
+     * @param statusId The int id of the status to be incremented, from the StatusKeys table.
+     */
+    public void incrementStatus( int statusId )
+    {
+        this.statuses.put( statusId, this.statuses.get( statusId, 0 ) + 1 );
+        Engine.statusChanged( this.component, StatusKeys.name( statusId ) );
     }
 
     /**
@@ -106,7 +122,22 @@ public class ComponentStatusUtility
      */
     public void removeStatus( String statusName )
     {
-        statusList.remove( statusName );
+        int statusId = StatusKeys.lookup( statusName );
+        if ( statusId >= 0 )
+        {
+            this.removeStatus( statusId );
+        }
+    }
+
+    /**
+     * This method will completely remove the given status id from the status list.
+     *
+     * @param statusId The int id of the status to be removed, from the StatusKeys table.
+     */
+    public void removeStatus( int statusId )
+    {
+        this.statuses.remove( statusId );
+        Engine.statusChanged( this.component, StatusKeys.name( statusId ) );
     }
 
     /**
@@ -117,7 +148,90 @@ public class ComponentStatusUtility
      */
     public void setStatus( String statusName, int newStatus )
     {
-        statusList.put( statusName, newStatus );
+        this.setStatus( StatusKeys.intern( statusName ), newStatus );
+    }
+
+    /**
+     * This method is used to directly set the value of a given status id to the given value.
+     *
+     * @param statusId The int id of the status to have its value set, from the StatusKeys table.
+     * @param newStatus The value to set the status with the given id to.
+     */
+    public void setStatus( int statusId, int newStatus )
+    {
+        this.statuses.put( statusId, newStatus );
+        Engine.statusChanged( this.component, StatusKeys.name( statusId ) );
+    }
+
+    /**
+     * This method is used to get a copy of every status stored for the attached component, keyed by status name.
+     *
+     * @return A map from each status name to its value.
+     */
+    public HashMap<String, Integer> statusList()
+    {
+        HashMap<String, Integer> statusList = new HashMap<String, Integer>();
+        for ( int statusId : this.statuses.keys() )
+        {
+            statusList.put( StatusKeys.name( statusId ), this.statuses.get( statusId, 0 ) );
+        }
+        return statusList;
+    }
+
+    /**
+     * This method is used when a saved game is loaded to replace every status at once. The Engine is not told about each
+     * status, since every event is checked again after a game is loaded anyway.
+     *
+     * @param statusIds The int ids of the statuses.
+     * @param values The value for each status, in the same order as the ids.
+     */
+    public void restoreStatuses( int[] statusIds, int[] values )
+    {
+        this.statuses = new StatusMap();
+        for ( int i = 0; i < statusIds.length; i++ )
+        {
+            this.statuses.put( statusIds[ i ], values[ i ] );
+        }
+    }
+
+    /**
+     * This method writes this utility to a saved game, storing the statuses by name.
+     *
+     * @param out The stream the saved game is being written to.
+     * @throws IOException Thrown if the stream can't be written to.
+     */
+    private void writeObject( ObjectOutputStream out )
+        throws IOException
+    {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put( "statusList", this.statusList() );
+        fields.put( "component", this.component );
+        out.writeFields();
+    }
+
+    /**
+     * This method reads this utility from a saved game, turning each status name back into an id.
+     *
+     * @param in The stream the saved game is being read from.
+     * @throws IOException Thrown if the stream can't be read from.
+     * @throws ClassNotFoundException Thrown if the saved game holds a class that can't be found.
+     */
+    @SuppressWarnings( "unchecked" )
+    private void readObject( ObjectInputStream in )
+        throws IOException, ClassNotFoundException
+    {
+        ObjectInputStream.GetField fields = in.readFields();
+        this.component = ( GameComponent ) fields.get( "component", null );
+        this.statuses = new StatusMap();
+
+        HashMap<String, Integer> statusList = ( HashMap<String, Integer> ) fields.get( "statusList", null );
+        if ( statusList != null )
+        {
+            for ( Map.Entry<String, Integer> status : statusList.entrySet() )
+            {
+                this.statuses.put( StatusKeys.intern( status.getKey() ), status.getValue() );
+            }
+        }
     }
 
     /**
@@ -137,12 +251,10 @@ public class ComponentStatusUtility
      */
     public void setStatusComponent( String componentName )
     {
-        for ( GameComponent component : Engine.componentList() )
+        GameComponent component = Engine.getComponent( componentName );
+        if ( component != null )
         {
-            if ( component.getName().equalsIgnoreCase( componentName ) )
-            {
-                this.setStatusComponent( component );
-            }
+            this.setStatusComponent( component );
         }
     }
 }
@@ -5,6 +5,8 @@ import Adventure.*;
 import Adventure.API.*;
 import Adventure.API.Utility.*;
 
+import java.io.*;
+
 import java.util.*;
 
 /**
@@ -17,9 +19,30 @@ public class ComponentTextUtility
     private static final long serialVersionUID = 1L;
 
     /**
-     * This field holds the mapping of text string values.
+     * When a component is saved, its text is written out under the field name and type that older versions of this
+     * class used, so that saved games can be loaded by either version.
+     */
+    private static final ObjectStreamField[] serialPersistentFields =
+    { new ObjectStreamField( "outputText", HashMap.class ), new ObjectStreamField( "component", GameComponent.class ) };
+
+    /**
+     * This is the table of text names shared by every component, so that each component only has to store an id for
+     * each name.
+     */
+    private static final KeyTable textNames = new KeyTable();
+
+    private static final int[] NO_KEYS = new int[ 0 ];
+
+    private static final String[] NO_VALUES = new String[ 0 ];
+
+    /**
+     * These fields hold the text strings that are not empty, with the id of each name in textKeys and its string at the
+     * same position in textValues. Empty strings are never stored, since asking for text that isn't there already
+     * gives an empty string.
      */
-    protected HashMap<String, String> outputText;
+    protected transient int[] textKeys;
+
+    protected transient String[] textValues;
 
     /**
      * This field hold a reference to the component this utility is attached to.
@@ -34,10 +57,29 @@ public class ComponentTextUtility
     public ComponentTextUtility( GameComponent component )
     {
         super();
-        this.outputText = new HashMap<String, String>();
+        this.textKeys = NO_KEYS;
+        this.textValues = NO_VALUES;
         this.component = component;
     }
 
+    /**
+     * This helper method finds where the text with the given name id is stored.
+     *
+     * @param textId The id of the text name.
+     * @return The position of the text, or -1 if there is none.
+     */
+    private int indexOf( int textId )
+    {
+        for ( int i = 0; i < this.textKeys.length; i++ )
+        {
+            if ( this.textKeys[ i ] == textId )
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * This method is used to retrieve the string of text being stored with the given name.
      *
@@ -46,11 +88,12 @@ public class ComponentTextUtility
      */
     public String getText( String textName )
     {
-        if ( this.outputText.containsKey( textName ) )
+        int index = this.indexOf( textNames.lookup( textName ) );
+        if ( index < 0 )
         {
-            return this.outputText.get( textName );
+            return "";
         }
-        return "";
+        return this.textValues[ index ];
     }
 
     /**
@@ -61,21 +104,7 @@ public class ComponentTextUtility
      */
     public boolean hasText( String textName )
     {
-        if ( outputText.containsKey( textName ) )
-        {
-            if ( outputText.get( textName ) == "" )
-            {
-                return false;
-            }
-            else
-            {
-                return true;
-            }
-        }
-        else
-        {
-            return false;
-        }
+        return this.indexOf( textNames.lookup( textName ) ) >= 0;
     }
 
     /**
@@ -85,18 +114,148 @@ public class ComponentTextUtility
      */
     public void removeText( String textName )
     {
-        outputText.remove( textName );
+        int index = this.indexOf( textNames.lookup( textName ) );
+        if ( index < 0 )
+        {
+            return;
+        }
+
+        int last = this.textKeys.length - 1;
+        Engine.stateChanged( this.component );
+        if ( last == 0 )
+        {
+            this.textKeys = NO_KEYS;
+            this.textValues = NO_VALUES;
+            return;
+        }
+        int[] newKeys = Arrays.copyOf( this.textKeys, last );
+        String[] newValues = Arrays.copyOf( this.textValues, last );
+        if ( index < last )
+        {
+            // The order doesn't matter, so the last entry simply takes the place of the removed one.
+            newKeys[ index ] = this.textKeys[ last ];
+            newValues[ index ] = this.textValues[ last ];
+        }
+        this.textKeys = newKeys;
+        this.textValues = newValues;
     }
 
     /**
-     * This method is used to store a string of text with the given name as its mapped key.
+     * This method is used to store a string of text with the given name as its mapped key. Storing an empty string is
+     * the same as removing the text.
      *
      * @param textName The name to use as the key for this text string.
      * @param newText The string of text to store with the given name.
      */
     public void setText( String textName, String newText )
     {
-        this.outputText.put( textName, newText );
+        if ( newText == null || newText.isEmpty() )
+        {
+            this.removeText( textName );
+            return;
+        }
+
+        int textId = textNames.intern( textName );
+        int index = this.indexOf( textId );
+        Engine.stateChanged( this.component );
+        if ( index >= 0 )
+        {
+            this.textValues[ index ] = newText;
+            return;
+        }
+        int length = this.textKeys.length;
+        this.textKeys = Arrays.copyOf( this.textKeys, length + 1 );
+        this.textValues = Arrays.copyOf( this.textValues, length + 1 );
+        this.textKeys[ length ] = textId;
+        this.textValues[ length ] = newText;
+    }
+
+    /**
+     * This method is used to get a copy of every string of text stored for the attached component, keyed by name.
+     *
+     * @return A map from each text name to its string of text.
+     */
+    public HashMap<String, String> textList()
+    {
+        HashMap<String, String> textList = new HashMap<String, String>();
+        for ( int i = 0; i < this.textKeys.length; i++ )
+        {
+            textList.put( textNames.name( this.textKeys[ i ] ), this.textValues[ i ] );
+        }
+        return textList;
+    }
+
+    /**
+     * This method is used when a saved game is loaded to replace every string of text at once. The text is not reported
+     * to the Engine as changed, since a saved game may be read on another thread while the game is running.
+     *
+     * @param textNames The names of the strings of text.
+     * @param texts The string of text for each name, in the same order as the names.
+     */
+    public void restoreText( String[] textNames, String[] texts )
+    {
+        int[] newKeys = new int[ textNames.length ];
+        String[] newValues = new String[ textNames.length ];
+        int count = 0;
+        for ( int i = 0; i < textNames.length; i++ )
+        {
+            if ( texts[ i ] != null && !texts[ i ].isEmpty() )
+            {
+                newKeys[ count ] = ComponentTextUtility.textNames.intern( textNames[ i ] );
+                newValues[ count ] = texts[ i ];
+                count++;
+            }
+        }
+        this.textKeys = count == 0 ? NO_KEYS : Arrays.copyOf( newKeys, count );
+        this.textValues = count == 0 ? NO_VALUES : Arrays.copyOf( newValues, count );
+    }
+
+    /**
+     * This method writes this utility to a saved game, storing the text by name.
+     *
+     * @param out The stream the saved game is being written to.
+     * @throws IOException Thrown if the stream can't be written to.
+     */
+    private void writeObject( ObjectOutputStream out )
+        throws IOException
+    {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put( "outputText", this.textList() );
+        fields.put( "component", this.component );
+        out.writeFields();
+    }
+
+    /**
+     * This method reads this utility from a saved game. The text is restored directly rather than through setText(),
+     * since loading a game doesn't change it.
+     *
+     * @param in The stream the saved game is being read from.
+     * @throws IOException Thrown if the stream can't be read from.
+     * @throws ClassNotFoundException Thrown if the saved game holds a class that can't be found.
+     */
+    @SuppressWarnings( "unchecked" )
+    private void readObject( ObjectInputStream in )
+        throws IOException, ClassNotFoundException
+    {
+        ObjectInputStream.GetField fields = in.readFields();
+        this.component = ( GameComponent ) fields.get( "component", null );
+        this.textKeys = NO_KEYS;
+        this.textValues = NO_VALUES;
+
+        HashMap<String, String> outputText = ( HashMap<String, String> ) fields.get( "outputText", null );
+        if ( outputText != null )
+        {
+            String[] names = new String[ outputText.size() ];
+            String[] texts = new String[ outputText.size() ];
+            int i = 0;
+            for ( Map.Entry<String, String> text : outputText.entrySet() )
+            {
+                names[ i ] = text.getKey();
+                texts[ i ] = text.getValue();
+                i++;
+            }
+            this.restoreText( names, texts );
+        }
     }
 
     /**
@@ -116,12 +275,10 @@ public class ComponentTextUtility
      */
     public void setComponent( String componentName )
     {
-        for ( GameComponent component : Engine.componentList() )
+        GameComponent component = Engine.getComponent( componentName );
+        if ( component != null )
         {
-            if ( component.getName().equalsIgnoreCase( componentName ) )
-            {
-                this.setComponent( component );
-            }
+            this.setComponent( component );
         }
     }
 }
@@ -27,6 +27,41 @@ public class ContainerItemUtility
      */
     protected double maxWeight;
 
+    /**
+     * This field holds the combined weight of every item held directly by this container.
+     */
+    protected transient double itemWeight;
+
+    /**
+     * This field holds the combined weight of the contents of every held item that is itself a container.
+     */
+    protected transient double nestedWeight;
+
+    /**
+     * This field is true once the two weight totals have been worked out. They are not saved with the game, so they
+     * are worked out again the first time they are needed after loading.
+     */
+    protected transient boolean weightsKnown;
+
+    /**
+     * When this is true, every weight that is asked for is also worked out from scratch and compared with the running
+     * totals. It is meant for tests, since it makes asking for a weight as slow as it used to be.
+     */
+    private static volatile boolean weightChecking = false;
+
+    /**
+     * This field holds every item in this container by its case-folded name, so that items can be found by name without
+     * looking at every item. It is not saved with the game, so it is built again the first time it is needed after
+     * loading.
+     */
+    protected transient HashMap<String, GameItem> itemsByName;
+
+    /**
+     * This field is true if two items in this container have ever had names that differ only by case. Only one of them
+     * can be held in the name index, so the other has to be found by searching when the first is removed.
+     */
+    protected transient boolean sharedNames;
+
     /**
      * @param container
      */
@@ -68,12 +103,10 @@ public class ContainerItemUtility
     public boolean addItem( String itemName, String contaierName )
     {
         GameComponent container = Engine.getComponent( contaierName );
-        for ( GameComponent component : Engine.componentList() )
+        GameItem item = Engine.getItem( itemName );
+        if ( item != null )
         {
-            if ( component instanceof GameItem && component.getName().equalsIgnoreCase( itemName ) )
-            {
-                return this.addItem( ( GameItem ) component, 1, ( GameContainer ) container );
-            }
+            return this.addItem( item, 1, ( GameContainer ) container );
         }
         return false;
     }
@@ -110,10 +143,7 @@ public class ContainerItemUtility
         }
 
         // Gets the current total weight in this container
-        for ( GameItem item : this.itemList() )
-        {
-            currentTotalWeight += item.getItemWeight() * this.itemList.get( item );
-        }
+        currentTotalWeight = this.itemWeight();
 
         if ( currentTotalWeight + weightOfNewItems <= this.getMaxWeight() )
         {
@@ -147,29 +177,74 @@ public class ContainerItemUtility
     public boolean addItem( String itemName, int quantity, String contaierName )
     {
         GameComponent container = Engine.getComponent( contaierName );
-        if ( container instanceof GameContainer )
+        GameItem item = Engine.getItem( itemName );
+        if ( container instanceof GameContainer && item != null )
         {
-            for ( GameComponent component : Engine.componentList() )
-            {
-                if ( component instanceof GameItem && component.getName().equalsIgnoreCase( itemName ) )
-                {
-                    return this.addItem( ( GameItem ) component, quantity, ( GameContainer ) component );
-                }
-            }
+            return this.addItem( item, quantity, ( GameContainer ) container );
         }
         return false;
     }
 
     /**
-     * @return
+     * This method is used to get the weight of everything held by this container, including the contents of any held
+     * items that are containers themselves. The weight is kept as a running total, so this doesn't need to look at any
+     * of the items.
+     *
+     * @return The combined weight of everything held by this container.
      */
     public double containedItemWeight()
+    {
+        this.knowWeights();
+        double containedWeight = this.itemWeight + this.nestedWeight;
+        if ( weightChecking )
+        {
+            this.checkWeight( containedWeight, this.weighItems( true ) );
+        }
+        return containedWeight;
+    }
+
+    /**
+     * This helper method is used to get the weight of the items held directly by this container, not counting the
+     * contents of any held containers.
+     *
+     * @return The combined weight of the items held directly by this container.
+     */
+    private double itemWeight()
+    {
+        this.knowWeights();
+        if ( weightChecking )
+        {
+            this.checkWeight( this.itemWeight, this.weighItems( false ) );
+        }
+        return this.itemWeight;
+    }
+
+    /**
+     * This helper method works out both weight totals from scratch if they aren't already known.
+     */
+    private void knowWeights()
+    {
+        if ( !this.weightsKnown )
+        {
+            this.itemWeight = this.weighItems( false );
+            this.nestedWeight = this.weighItems( true ) - this.itemWeight;
+            this.weightsKnown = true;
+        }
+    }
+
+    /**
+     * This helper method adds up the weight of the items in this container the slow way, by looking at every item.
+     *
+     * @param includeNested True to include the contents of held items that are containers themselves.
+     * @return The combined weight of the items.
+     */
+    private double weighItems( boolean includeNested )
     {
         double containedWeight = 0.0;
         for ( GameItem item : this.itemList.keySet() )
         {
             containedWeight += item.getItemWeight() * this.itemList.get( item );
-            if ( item instanceof GameContainer )
+            if ( includeNested && item instanceof GameContainer && item != this.container )
             {
                 GameContainer container = ( GameContainer ) item;
                 containedWeight += container.containedItemWeight();
@@ -178,6 +253,262 @@ public class ContainerItemUtility
         return containedWeight;
     }
 
+    /**
+     * This helper method compares a running total with the same total worked out from scratch. The running total is
+     * built up one change at a time, so it is allowed to differ by a tiny rounding error.
+     *
+     * @param runningWeight The running total.
+     * @param actualWeight The total worked out from scratch.
+     * @throws IllegalStateException Thrown if the two totals don't match.
+     */
+    private void checkWeight( double runningWeight, double actualWeight )
+    {
+        if ( Math.abs( runningWeight - actualWeight ) > 1e-9 * Math.max( 1.0, Math.abs( actualWeight ) ) )
+        {
+            throw new IllegalStateException( "The running weight of " + ( ( GameObject ) this.container ).getName() +
+                                             " is " + runningWeight + ", but its items weigh " + actualWeight + "." );
+        }
+    }
+
+    /**
+     * This method is used to turn the weight checking mode on or off for every container. While it is on, every weight
+     * that is asked for is compared with the weight worked out from scratch, and an IllegalStateException is thrown if
+     * they don't match.
+     *
+     * @param newWeightChecking True to check every weight, false to trust the running totals.
+     */
+    public static void setWeightChecking( boolean newWeightChecking )
+    {
+        weightChecking = newWeightChecking;
+    }
+
+    /**
+     * This method is used to find out if the weight checking mode is on.
+     *
+     * @return True if every weight is being checked, false otherwise.
+     */
+    public static boolean isWeightChecking()
+    {
+        return weightChecking;
+    }
+
+    /**
+     * This helper method updates the running totals after the quantity of an item in this container has changed, and
+     * passes the change on to any containers that hold this one.
+     *
+     * @param item The GameItem object whose quantity has changed.
+     * @param oldQuantity The quantity of the item before the change.
+     * @param newQuantity The quantity of the item after the change.
+     */
+    private void quantityChanged( GameItem item, int oldQuantity, int newQuantity )
+    {
+        if ( oldQuantity <= 0 && newQuantity > 0 )
+        {
+            this.indexName( item, item.getName() );
+        }
+        else if ( oldQuantity > 0 && newQuantity <= 0 )
+        {
+            this.unindexName( item, item.getName() );
+        }
+
+        // If the totals aren't known yet, they will be worked out from the new quantities when they are needed.
+        if ( this.weightsKnown )
+        {
+            double oldWeight = this.itemWeight + this.nestedWeight;
+            this.itemWeight += item.getItemWeight() * ( newQuantity - oldQuantity );
+            if ( item instanceof GameContainer && item != this.container )
+            {
+                // The contents of a held container only count once, no matter how many of it there are.
+                if ( oldQuantity <= 0 && newQuantity > 0 )
+                {
+                    this.nestedWeight += ( ( GameContainer ) item ).containedItemWeight();
+                }
+                else if ( oldQuantity > 0 && newQuantity <= 0 )
+                {
+                    this.nestedWeight -= ( ( GameContainer ) item ).containedItemWeight();
+                }
+            }
+            if ( this.itemList.isEmpty() )
+            {
+                // An empty container weighs exactly nothing, so we take the chance to drop any rounding error.
+                this.itemWeight = 0.0;
+                this.nestedWeight = 0.0;
+            }
+            this.passWeightChange( this.itemWeight + this.nestedWeight - oldWeight );
+        }
+        Engine.itemsChanged( this.container );
+    }
+
+    /**
+     * This helper method tells every container that holds this one that the weight of its contents has changed.
+     *
+     * @param weightChange The amount the weight of this container's contents has changed by.
+     */
+    private void passWeightChange( double weightChange )
+    {
+        if ( weightChange != 0.0 && this.container instanceof GameItem )
+        {
+            for ( GameContainer parent : ( ( GameItem ) this.container ).getContainerList() )
+            {
+                if ( parent != this.container )
+                {
+                    parent.containedWeightChanged( weightChange );
+                }
+            }
+        }
+    }
+
+    /**
+     * This helper method turns an item name into the key it is stored under in the name index. Names are compared
+     * without regard to case everywhere in the engine.
+     *
+     * @param itemName The String name to be converted.
+     * @return The key for the given name.
+     */
+    private static String nameKey( String itemName )
+    {
+        return itemName.toLowerCase( Locale.ROOT );
+    }
+
+    /**
+     * This helper method is used to get the name index, building it from the item list if it hasn't been built yet.
+     *
+     * @return The map of case-folded names to the items in this container.
+     */
+    private HashMap<String, GameItem> itemsByName()
+    {
+        if ( this.itemsByName == null )
+        {
+            this.itemsByName = new HashMap<String, GameItem>();
+            this.sharedNames = false;
+            for ( GameItem item : this.itemList.keySet() )
+            {
+                this.indexName( item, item.getName() );
+            }
+        }
+        return this.itemsByName;
+    }
+
+    /**
+     * This helper method adds an item to the name index under the given name.
+     *
+     * @param item The GameItem object to be added.
+     * @param itemName The String name to add the item under.
+     */
+    private void indexName( GameItem item, String itemName )
+    {
+        if ( this.itemsByName == null )
+        {
+            // The whole index will be built from the item list when it is first needed.
+            return;
+        }
+        String key = nameKey( itemName );
+        GameItem indexedItem = this.itemsByName.get( key );
+        if ( indexedItem == null )
+        {
+            this.itemsByName.put( key, item );
+        }
+        else if ( indexedItem != item )
+        {
+            this.sharedNames = true;
+        }
+    }
+
+    /**
+     * This helper method removes an item from the name index. If another item in this container has the same name, it
+     * takes the removed item's place.
+     *
+     * @param item The GameItem object to be removed.
+     * @param itemName The String name the item was added under.
+     */
+    private void unindexName( GameItem item, String itemName )
+    {
+        if ( this.itemsByName == null )
+        {
+            return;
+        }
+        String key = nameKey( itemName );
+        if ( this.itemsByName.get( key ) == item )
+        {
+            this.itemsByName.remove( key );
+            if ( this.sharedNames )
+            {
+                for ( GameItem otherItem : this.itemList.keySet() )
+                {
+                    if ( otherItem != item && otherItem.getName().equalsIgnoreCase( itemName ) )
+                    {
+                        this.itemsByName.put( key, otherItem );
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * This helper method finds the item in this container with the given name.
+     *
+     * @param itemName The String name of the item, which is not case sensitive.
+     * @return The GameItem object with the given name, or null if this container doesn't hold one.
+     */
+    private GameItem findItem( String itemName )
+    {
+        if ( itemName == null )
+        {
+            return null;
+        }
+        return this.itemsByName().get( nameKey( itemName ) );
+    }
+
+    /**
+     * This method must be called when a GameItem held by this container changes its name, so that it can still be
+     * found by its new name.
+     *
+     * @param item The GameItem object that has been renamed.
+     * @param oldName The String name the item had before it was renamed.
+     */
+    public void itemRenamed( GameItem item, String oldName )
+    {
+        if ( this.itemList.containsKey( item ) )
+        {
+            this.unindexName( item, oldName );
+            this.indexName( item, item.getName() );
+        }
+    }
+
+    /**
+     * This method must be called when the weight of a single GameItem held by this container changes, so that the
+     * running totals stay correct.
+     *
+     * @param item The GameItem object whose weight has changed.
+     * @param oldWeight The weight that a single quantity of the item had before it changed.
+     */
+    public void itemWeightChanged( GameItem item, double oldWeight )
+    {
+        if ( this.weightsKnown && this.itemList.containsKey( item ) )
+        {
+            double weightChange = ( item.getItemWeight() - oldWeight ) * this.itemList.get( item );
+            this.itemWeight += weightChange;
+            this.passWeightChange( weightChange );
+        }
+        Engine.itemsChanged( this.container );
+    }
+
+    /**
+     * This method must be called by a container that is held by this container whenever the weight of its contents
+     * changes, so that the running totals stay correct.
+     *
+     * @param weightChange The amount the weight of the held container's contents has changed by.
+     */
+    public void containedWeightChanged( double weightChange )
+    {
+        if ( this.weightsKnown )
+        {
+            this.nestedWeight += weightChange;
+            this.passWeightChange( weightChange );
+        }
+    }
+
     /**
      * @param item
      * @param decreaseByAmount
@@ -187,16 +518,19 @@ public class ContainerItemUtility
     {
         if ( this.itemList.containsKey( item ) )
         {
-            int quantityAfterDecrease = itemList.get( item ) - decreaseByAmount;
+            int quantity = itemList.get( item );
+            int quantityAfterDecrease = quantity - decreaseByAmount;
             if ( quantityAfterDecrease < 1 )
             {
                 itemList.remove( item );
                 item.removeContainer( this.container );
+                this.quantityChanged( item, quantity, 0 );
                 return true;
             }
             else
             {
                 itemList.put( item, quantityAfterDecrease );
+                this.quantityChanged( item, quantity, quantityAfterDecrease );
                 return true;
             }
         }
@@ -210,12 +544,10 @@ public class ContainerItemUtility
      */
     public boolean decreaseItemQuantity( String itemName, int decreaseByAmount )
     {
-        for ( GameItem item : this.itemList() )
+        GameItem item = this.findItem( itemName );
+        if ( item != null )
         {
-            if ( item.getName().equalsIgnoreCase( itemName ) )
-            {
-                return this.decreaseItemQuantity( item, decreaseByAmount );
-            }
+            return this.decreaseItemQuantity( item, decreaseByAmount );
         }
         return false;
     }
@@ -226,14 +558,7 @@ public class ContainerItemUtility
      */
     public GameItem getItem( String itemName )
     {
-        for ( GameItem item : this.itemList() )
-        {
-            if ( item.getName().equalsIgnoreCase( itemName ) )
-            {
-                return item;
-            }
-        }
-        return null;
+        return this.findItem( itemName );
     }
 
     /**
@@ -242,12 +567,10 @@ public class ContainerItemUtility
      */
     public int getItemQuantity( String itemName )
     {
-        for ( GameItem item : this.itemList() )
+        GameItem item = this.findItem( itemName );
+        if ( item != null )
         {
-            if ( item.getName().equalsIgnoreCase( itemName ) )
-            {
-                return this.getItemQuantity( item );
-            }
+            return this.getItemQuantity( item );
         }
         return 0;
     }
@@ -258,9 +581,10 @@ public class ContainerItemUtility
      */
     public int getItemQuantity( GameItem item )
     {
-        if ( this.itemList.containsKey( item ) )
+        Integer quantity = this.itemList.get( item );
+        if ( quantity != null )
         {
-            return this.itemList.get( item );
+            return quantity;
         }
         return 0;
     }
@@ -279,7 +603,7 @@ public class ContainerItemUtility
      */
     public boolean hasItem( GameItem item )
     {
-        return this.hasItem( item.getName(), 1, false );
+        return this.hasItem( item, 1, false );
     }
 
     /**
@@ -289,7 +613,7 @@ public class ContainerItemUtility
      */
     public boolean hasItem( GameItem item, int quantity )
     {
-        return this.hasItem( item.getName(), quantity, false );
+        return this.hasItem( item, quantity, false );
     }
 
     /**
@@ -299,7 +623,7 @@ public class ContainerItemUtility
      */
     public boolean hasItem( GameItem item, boolean includeHidden )
     {
-        return this.hasItem( item.getName(), 1, includeHidden );
+        return this.hasItem( item, 1, includeHidden );
     }
 
     /**
@@ -310,7 +634,9 @@ public class ContainerItemUtility
      */
     public boolean hasItem( GameItem item, int quantity, boolean includeHidden )
     {
-        return this.hasItem( item.getName(), quantity, includeHidden );
+        Integer currentQuantity = this.itemList.get( item );
+        return currentQuantity != null && currentQuantity >= quantity &&
+               ( includeHidden || !item.hasStatus( "hidden" ) );
     }
 
     /**
@@ -350,15 +676,10 @@ public class ContainerItemUtility
      */
     public boolean hasItem( String itemName, int quantity, boolean includeHidden )
     {
-        for ( GameItem item : this.itemList() )
+        GameItem item = this.findItem( itemName );
+        if ( item != null )
         {
-            if ( item.getName().equalsIgnoreCase( itemName ) )
-            {
-                if ( this.itemList.get( item ) >= quantity && ( includeHidden || !item.hasStatus( "hidden" ) ) )
-                {
-                    return true;
-                }
-            }
+            return this.hasItem( item, quantity, includeHidden );
         }
         return false;
     }
@@ -384,17 +705,21 @@ public class ContainerItemUtility
 
         if ( this.containedItemWeight() + weightOfNewItems <= this.getMaxWeight() )
         {
+            int oldQuantity = 0;
             int quantity = 0;
             if ( this.itemList.containsKey( item ) )
             {
-                quantity = this.itemList.get( item ) + increaseByAmount;
+                oldQuantity = this.itemList.get( item );
+                quantity = oldQuantity + increaseByAmount;
                 this.itemList.put( item, quantity );
             }
             else
             {
+                quantity = increaseByAmount;
                 this.itemList.put( item, increaseByAmount );
             }
             item.addContainer( this.container );
+            this.quantityChanged( item, oldQuantity, quantity );
             return true;
         }
         return false;
@@ -407,12 +732,10 @@ public class ContainerItemUtility
      */
     public boolean increaseItemQuantity( String itemName, int increaseByAmount )
     {
-        for ( GameComponent component : Engine.componentList() )
+        GameItem item = Engine.getItem( itemName );
+        if ( item != null )
         {
-            if ( component instanceof GameItem && component.getName().equalsIgnoreCase( itemName ) )
-            {
-                return this.increaseItemQuantity( ( GameItem ) component, increaseByAmount );
-            }
+            return this.increaseItemQuantity( item, increaseByAmount );
         }
         return false;
     }
@@ -454,12 +777,10 @@ public class ContainerItemUtility
      */
     public boolean removeSingleItem( String itemName )
     {
-        for ( GameItem item : this.itemList() )
+        GameItem item = this.findItem( itemName );
+        if ( item != null )
         {
-            if ( item.getName().equalsIgnoreCase( itemName ) )
-            {
-                return this.removeItemQuantity( item, 1 );
-            }
+            return this.removeItemQuantity( item, 1 );
         }
         return false;
     }
@@ -478,12 +799,14 @@ public class ContainerItemUtility
             if ( quantityToRemove < currentQuantity )
             {
                 this.itemList.put( item, currentQuantity - quantityToRemove );
+                this.quantityChanged( item, currentQuantity, currentQuantity - quantityToRemove );
                 return true;
             }
             else if ( quantityToRemove == currentQuantity )
             {
                 item.removeContainer( this.container );
                 this.itemList.remove( item );
+                this.quantityChanged( item, currentQuantity, 0 );
                 return true;
             }
         }
@@ -497,12 +820,10 @@ public class ContainerItemUtility
      */
     public boolean removeItemQuantity( String itemName, int quantityToRemove )
     {
-        for ( GameItem item : this.itemList() )
+        GameItem item = this.findItem( itemName );
+        if ( item != null )
         {
-            if ( item.getName().equalsIgnoreCase( itemName ) )
-            {
-                return this.removeItemQuantity( item, quantityToRemove );
-            }
+            return this.removeItemQuantity( item, quantityToRemove );
         }
         return false;
     }
@@ -520,12 +841,10 @@ public class ContainerItemUtility
      */
     public void setContainerComponent( String containerName )
     {
-        for ( GameComponent component : Engine.componentList() )
+        GameContainer container = Engine.getContainer( containerName );
+        if ( container != null )
         {
-            if ( component instanceof GameContainer && component.getName().equalsIgnoreCase( containerName ) )
-            {
-                setContainerComponent( ( GameContainer ) component );
-            }
+            setContainerComponent( container );
         }
     }
 
@@ -535,5 +854,9 @@ public class ContainerItemUtility
     public void setMaxWeight( double newMaxWeight )
     {
         this.maxWeight = newMaxWeight;
+        if ( this.container instanceof GameComponent )
+        {
+            Engine.stateChanged( ( GameComponent ) this.container );
+        }
     }
 }
@@ -0,0 +1,106 @@
+package Adventure.Base.Utility;
+
+import java.util.concurrent.*;
+
+/**
+ * This class is a table of names that gives every name a small int id the first time it is seen, so that utilities can
+ * store values by id instead of by name. The same name always has the same id for as long as the game is running, but
+ * ids are not kept between runs, so they must never be saved.
+ *
+ * Looking up a name happens far more often than adding one, so the ids are kept in a concurrent map that can be read
+ * from any thread without locking. Adding a name only takes a lock long enough to give it the next id, and the array of
+ * names only has to be copied when it fills up, which happens less and less often as it doubles in size.
+ */
+public class KeyTable
+{
+    private final ConcurrentHashMap<String, Integer> ids;
+
+    private volatile String[] names;
+
+    private int count;
+
+    /**
+     * This constructor creates a new, empty table.
+     */
+    public KeyTable()
+    {
+        this.ids = new ConcurrentHashMap<String, Integer>();
+        this.names = new String[ 32 ];
+        this.count = 0;
+    }
+
+    /**
+     * This method is used to get the id for a name, giving the name a new id if it doesn't have one yet.
+     *
+     * @param name The String name to look up.
+     * @return The int id for the name.
+     */
+    public int intern( String name )
+    {
+        Integer id = this.ids.get( name );
+        if ( id != null )
+        {
+            return id;
+        }
+
+        synchronized ( this )
+        {
+            id = this.ids.get( name );
+            if ( id == null )
+            {
+                String[] currentNames = this.names;
+                if ( this.count == currentNames.length )
+                {
+                    String[] newNames = new String[ currentNames.length * 2 ];
+                    System.arraycopy( currentNames, 0, newNames, 0, this.count );
+                    currentNames = newNames;
+                }
+                currentNames[ this.count ] = name;
+                this.names = currentNames;
+                id = this.count++;
+
+                // The name is stored before its id is published, so anyone who finds the id can also find the name.
+                this.ids.put( name, id );
+            }
+            return id;
+        }
+    }
+
+    /**
+     * This method is used to get the id for a name without giving it a new id. It is used when a value is only being
+     * read, since a name that has never been used can't have a value stored under it.
+     *
+     * @param name The String name to look up.
+     * @return The int id for the name, or -1 if the name has never been used.
+     */
+    public int lookup( String name )
+    {
+        Integer id = this.ids.get( name );
+        if ( id == null )
+        {
+            return -1;
+        }
+        return id;
+    }
+
+    /**
+     * This method is used to get the name for an id.
+     *
+     * @param id The int id of the name.
+     * @return The String name with the given id.
+     */
+    public String name( int id )
+    {
+        return this.names[ id ];
+    }
+
+    /**
+     * This method is used to get the number of names that have been given an id.
+     *
+     * @return The number of names in the table.
+     */
+    public int size()
+    {
+        return this.ids.size();
+    }
+}
@@ -42,7 +42,7 @@ public class LocationContainerUtility
      */
     public boolean hasContainer( GameContainer container, boolean includeHidden )
     {
-        if ( location.itemList().contains( container ) )
+        if ( container instanceof GameItem && location.hasItem( ( GameItem ) container, true ) )
         {
             GameObject containerObject = ( GameObject ) container;
             if ( includeHidden || !containerObject.hasStatus( "hidden" ) )
@@ -69,32 +69,10 @@ public class LocationContainerUtility
      */
     public boolean hasContainer( String containerName, boolean includeHidden )
     {
-        for ( GamePawn pawn : location.pawnList() )
+        GameObject object = location.getObject( containerName );
+        if ( object instanceof GameContainer )
         {
-            if ( pawn.getName().equalsIgnoreCase( containerName ) && pawn instanceof GameContainer )
-            {
-                return this.hasContainer( (GameContainer) pawn, includeHidden );
-            }
-        }
-        for ( GameItem item : location.itemList() )
-        {
-            if ( item.getName().equalsIgnoreCase( containerName ) && item instanceof GameContainer )
-            {
-                if ( includeHidden || !item.hasStatus( "hidden" ) )
-                {
-                    return this.hasContainer( ( GameContainer ) item, includeHidden );
-                }
-            }
-        }
-        for ( GameExit exit : location.exitList() )
-        {
-            if ( exit.getName().equalsIgnoreCase( containerName ) && exit instanceof GameContainer )
-            {
-                if ( includeHidden || !exit.hasStatus( "hidden" ) )
-                {
-                    return this.hasContainer( ( GameContainer ) exit, includeHidden );
-                }
-            }
+            return this.hasContainer( ( GameContainer ) object, includeHidden );
         }
         return false;
     }
@@ -112,12 +90,10 @@ public class LocationContainerUtility
      */
     public void setLocationComponent( String locationName )
     {
-        for ( GameComponent component : Engine.componentList() )
+        GameLocation newLocation = Engine.getLocation( locationName );
+        if ( newLocation != null )
         {
-            if ( component instanceof GameLocation && component.getName().equalsIgnoreCase( locationName ) )
-            {
-                setLocationComponent( ( GameLocation ) component );
-            }
+            setLocationComponent( newLocation );
         }
     }
 }
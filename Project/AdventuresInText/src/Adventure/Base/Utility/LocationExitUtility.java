@@ -25,6 +25,28 @@ public class LocationExitUtility
      */
     protected GameLocation location;
 
+    /**
+     * This field holds the exits in this location by the identity of their direction, in the order they were added.
+     * Along with the two maps below, it is not saved with the game, and is built again from the exit list whenever it
+     * is needed and out of date.
+     */
+    protected transient IdentityHashMap<GameDirection, ArrayList<GameExit>> exitsByDirection;
+
+    /**
+     * This field holds the exits in this location by the case-folded name of their direction.
+     */
+    protected transient HashMap<String, ArrayList<GameExit>> exitsByDirectionName;
+
+    /**
+     * This field holds the exits in this location by their case-folded name.
+     */
+    protected transient HashMap<String, GameExit> exitsByName;
+
+    /**
+     * This field holds the exit version of the session when the maps were last built.
+     */
+    protected transient int indexVersion;
+
     /**
      * @param location
      */
@@ -35,6 +57,162 @@ public class LocationExitUtility
         this.exitList = new ArrayList<GameExit>();
     }
 
+    /**
+     * This method must be called whenever an exit is given a new direction, or an exit or direction is renamed, so that
+     * every location will find its exits correctly. These changes are rare, so rather than tracking which locations hold
+     * which exits, the exit version of the session is increased and every location in the session builds its maps again
+     * the next time they are needed.
+     */
+    public static void exitsChanged()
+    {
+        GameSession.current().exitsChanged();
+    }
+
+    /**
+     * This helper method turns a name into the key it is stored under in the maps. Names are compared without regard to
+     * case everywhere in the engine.
+     *
+     * @param name The String name to be converted.
+     * @return The key for the given name.
+     */
+    private static String nameKey( String name )
+    {
+        return name.toLowerCase( Locale.ROOT );
+    }
+
+    /**
+     * This helper method builds the maps from the exit list if they haven't been built yet, or if they are out of date.
+     */
+    private void indexExits()
+    {
+        int currentVersion = GameSession.current().getExitVersion();
+        if ( this.exitsByDirection == null || this.indexVersion != currentVersion )
+        {
+            this.exitsByDirection = new IdentityHashMap<GameDirection, ArrayList<GameExit>>();
+            this.exitsByDirectionName = new HashMap<String, ArrayList<GameExit>>();
+            this.exitsByName = new HashMap<String, GameExit>();
+            this.indexVersion = currentVersion;
+            for ( GameExit exit : this.exitList )
+            {
+                this.indexExit( exit );
+            }
+        }
+    }
+
+    /**
+     * This helper method adds a single exit to the maps.
+     *
+     * @param exit The GameExit object to be added.
+     */
+    private void indexExit( GameExit exit )
+    {
+        GameDirection direction = exit.getExitDirection();
+        if ( direction != null )
+        {
+            ArrayList<GameExit> exits = this.exitsByDirection.get( direction );
+            if ( exits == null )
+            {
+                exits = new ArrayList<GameExit>( 1 );
+                this.exitsByDirection.put( direction, exits );
+            }
+            exits.add( exit );
+
+            String directionKey = nameKey( direction.getName() );
+            exits = this.exitsByDirectionName.get( directionKey );
+            if ( exits == null )
+            {
+                exits = new ArrayList<GameExit>( 1 );
+                this.exitsByDirectionName.put( directionKey, exits );
+            }
+            exits.add( exit );
+        }
+
+        String exitKey = nameKey( exit.getName() );
+        if ( !this.exitsByName.containsKey( exitKey ) )
+        {
+            this.exitsByName.put( exitKey, exit );
+        }
+    }
+
+    /**
+     * This helper method adds a new exit to the end of the exit list, and to the maps if they have been built.
+     *
+     * @param exit The GameExit object to be added.
+     */
+    private void appendExit( GameExit exit )
+    {
+        this.exitList.add( exit );
+        if ( this.exitsByDirection != null && this.indexVersion == GameSession.current().getExitVersion() )
+        {
+            this.indexExit( exit );
+        }
+        Engine.stateChanged( this.location );
+    }
+
+    /**
+     * This helper method removes an exit from the exit list. Removing exits is rare, so the maps are simply built again
+     * the next time they are needed.
+     *
+     * @param exit The GameExit object to be removed.
+     */
+    private void dropExit( GameExit exit )
+    {
+        this.exitList.remove( exit );
+        this.exitsByDirection = null;
+        Engine.stateChanged( this.location );
+    }
+
+    /**
+     * This helper method finds the first exit in a list that can be used.
+     *
+     * @param exits The list of exits to search, which may be null.
+     * @param includeHidden True if hidden exits can be used, false otherwise.
+     * @return The first exit in the list that can be used, or null if there is none.
+     */
+    private static GameExit firstExit( ArrayList<GameExit> exits, boolean includeHidden )
+    {
+        if ( exits != null )
+        {
+            for ( int i = 0; i < exits.size(); i++ )
+            {
+                GameExit exit = exits.get( i );
+                if ( includeHidden || !exit.isHidden() )
+                {
+                    return exit;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * This helper method is used to get the exits in this location in a direction.
+     *
+     * @param direction The GameDirection object to look for.
+     * @return The list of exits in the direction, or null if there are none.
+     */
+    private ArrayList<GameExit> exitsInDirection( GameDirection direction )
+    {
+        this.indexExits();
+        return this.exitsByDirection.get( direction );
+    }
+
+    /**
+     * This helper method is used to get the exits in this location in the direction with a given name.
+     *
+     * @param directionName The String name of the direction, which is not case sensitive.
+     * @return The list of exits in the direction, or null if there are none.
+     */
+    private ArrayList<GameExit> exitsInDirection( String directionName )
+    {
+        if ( directionName == null )
+        {
+            return null;
+        }
+        this.indexExits();
+        return this.exitsByDirectionName.get( nameKey( directionName ) );
+    }
+
     /**
      * @return
      */
@@ -54,7 +232,7 @@ public class LocationExitUtility
         {
             return false;
         }
-        this.exitList.add( new Exit( direction, location ) );
+        this.appendExit( new Exit( direction, location ) );
         return true;
     }
 
@@ -68,7 +246,7 @@ public class LocationExitUtility
         {
             return false;
         }
-        this.exitList.add( newExit );
+        this.appendExit( newExit );
         return true;
     }
 
@@ -78,12 +256,10 @@ public class LocationExitUtility
      */
     public boolean addExit( String exitName )
     {
-        for ( GameComponent component : Engine.componentList() )
+        GameExit exit = Engine.getExit( exitName );
+        if ( exit != null )
         {
-            if ( component instanceof GameExit && component.getName().equalsIgnoreCase( exitName ) )
-            {
-                return this.addExit( ( GameExit ) component );
-            }
+            return this.addExit( exit );
         }
         return false;
     }
@@ -100,25 +276,9 @@ public class LocationExitUtility
             return false;
         }
 
-        GameDirection direction = null;
-        GameLocation location = null;
-
-        for ( GameComponent component : Engine.componentList() )
-        {
+        GameDirection direction = Engine.getDirection( directionName );
+        GameLocation location = Engine.getLocation( locationName );
 
-            if ( component.getName().equalsIgnoreCase( directionName ) ||
-                 component.getName().equalsIgnoreCase( locationName ) )
-            {
-                if ( component instanceof GameDirection && direction == null )
-                {
-                    direction = ( GameDirection ) component;
-                }
-                else if ( component instanceof GameLocation && location == null )
-                {
-                    location = ( GameLocation ) component;
-                }
-            }
-        }
         if ( direction == null || location == null )
         {
             return false;
@@ -132,14 +292,12 @@ public class LocationExitUtility
      */
     public GameExit getExit( String exitName )
     {
-        for ( GameExit exit : this.exitList() )
+        if ( exitName == null )
         {
-            if ( exit.getName().equalsIgnoreCase( exitName ) )
-            {
-                return exit;
-            }
+            return null;
         }
-        return null;
+        this.indexExits();
+        return this.exitsByName.get( nameKey( exitName ) );
     }
 
     /**
@@ -148,14 +306,27 @@ public class LocationExitUtility
      */
     public GameExit getExitByDirection( String directionName )
     {
-        for ( GameExit exit : this.exitList() )
-        {
-            if ( exit.getExitDirection().getName().equalsIgnoreCase( directionName ) )
-            {
-                return exit;
-            }
-        }
-        return null;
+        return this.getExitByDirection( directionName, true );
+    }
+
+    /**
+     * @param directionName
+     * @param includeHidden
+     * @return
+     */
+    public GameExit getExitByDirection( String directionName, boolean includeHidden )
+    {
+        return firstExit( this.exitsInDirection( directionName ), includeHidden );
+    }
+
+    /**
+     * @param direction
+     * @param includeHidden
+     * @return
+     */
+    public GameExit getExitByDirection( GameDirection direction, boolean includeHidden )
+    {
+        return firstExit( this.exitsInDirection( direction ), includeHidden );
     }
 
     /**
@@ -174,17 +345,8 @@ public class LocationExitUtility
      */
     public boolean hasExit( String exitName, boolean includeHidden )
     {
-        for ( GameExit exit : this.exitList() )
-        {
-            if ( exit.getName().equalsIgnoreCase( exitName ) )
-            {
-                if ( includeHidden || !exit.isHidden() )
-                {
-                    return true;
-                }
-            }
-        }
-        return false;
+        GameExit exit = this.getExit( exitName );
+        return exit != null && ( includeHidden || !exit.isHidden() );
     }
 
     /**
@@ -212,7 +374,7 @@ public class LocationExitUtility
      */
     public boolean hasExitDirection( GameDirection direction )
     {
-        return hasExitDirection( direction.getName(), false );
+        return hasExitDirection( direction, false );
     }
 
     /**
@@ -222,7 +384,7 @@ public class LocationExitUtility
      */
     public boolean hasExitDirection( GameDirection direction, boolean includeHidden )
     {
-        return hasExitDirection( direction.getName(), includeHidden );
+        return this.getExitByDirection( direction, includeHidden ) != null;
     }
 
     /**
@@ -241,17 +403,7 @@ public class LocationExitUtility
      */
     public boolean hasExitDirection( String directionName, boolean includeHidden )
     {
-        for ( GameExit exit : this.exitList() )
-        {
-            if ( exit.getExitDirection().getName().equalsIgnoreCase( directionName ) )
-            {
-                if ( includeHidden || !exit.hasStatus( "hidden" ) )
-                {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return this.getExitByDirection( directionName, includeHidden ) != null;
     }
 
     /**
@@ -340,13 +492,11 @@ public class LocationExitUtility
      */
     public boolean removeExit( String exitName )
     {
-        for ( GameExit exit : this.exitList() )
+        GameExit exit = this.getExit( exitName );
+        if ( exit != null )
         {
-            if ( exit.getName().equalsIgnoreCase( exitName ) )
-            {
-                this.exitList.remove( exit );
-                return true;
-            }
+            this.dropExit( exit );
+            return true;
         }
         return false;
     }
@@ -366,13 +516,11 @@ public class LocationExitUtility
      */
     public boolean removeExitByDirection( String directionName )
     {
-        for ( GameExit exit : this.exitList() )
+        GameExit exit = this.getExitByDirection( directionName, true );
+        if ( exit != null )
         {
-            if ( exit.getExitDirection().getName().equalsIgnoreCase( directionName ) )
-            {
-                this.exitList.remove( exit );
-                return true;
-            }
+            this.dropExit( exit );
+            return true;
         }
         return false;
     }
@@ -398,7 +546,7 @@ public class LocationExitUtility
         {
             if ( exit.getExitLocation().getName().equalsIgnoreCase( locationName ) )
             {
-                this.exitList.remove( exit );
+                this.dropExit( exit );
                 removed = true;
             }
         }
@@ -419,12 +567,10 @@ public class LocationExitUtility
      */
     public void setLocationComponent( String locationName )
     {
-        for ( GameComponent component : Engine.componentList() )
+        GameLocation newLocation = Engine.getLocation( locationName );
+        if ( newLocation != null )
         {
-            if ( component instanceof GameLocation && component.getName().equalsIgnoreCase( locationName ) )
-            {
-                setLocationComponent( ( GameLocation ) component );
-            }
+            setLocationComponent( newLocation );
         }
     }
 }
@@ -23,6 +23,65 @@ public class LocationPawnUtility
      */
     protected GameLocation location;
 
+    /**
+     * This field holds every pawn in this location, so that a pawn can be found without searching the pawn list. Along
+     * with the lists and map below, it is not saved with the game, and is built again from the pawn list whenever it is
+     * needed and out of date.
+     */
+    protected transient HashSet<GamePawn> pawnSet;
+
+    /**
+     * This field holds the pawns in this location that are actors, in the order they arrived.
+     */
+    protected transient ArrayList<GameActor> actors;
+
+    /**
+     * This field holds the pawns in this location that are players, in the order they arrived.
+     */
+    protected transient ArrayList<GamePlayer> players;
+
+    /**
+     * This field holds the pawns in this location that are speakers, in the order they arrived.
+     */
+    protected transient ArrayList<GameSpeaker> speakers;
+
+    /**
+     * This field holds the pawns in this location by their case-folded name.
+     */
+    protected transient HashMap<String, GamePawn> pawnsByName;
+
+    /**
+     * This field is true if two pawns in this location have ever had names that differ only by case. Only one of them can
+     * be held in the name map, so the other has to be found by searching when the first leaves.
+     */
+    protected transient boolean sharedNames;
+
+    /**
+     * This field holds a read-only view of the pawn list. The views are kept so that asking for one never creates a new
+     * object.
+     */
+    protected transient List<GamePawn> pawnView;
+
+    /**
+     * This field holds a read-only view of the list of actors.
+     */
+    protected transient List<GameActor> actorView;
+
+    /**
+     * This field holds a read-only view of the list of players.
+     */
+    protected transient List<GamePlayer> playerView;
+
+    /**
+     * This field holds a read-only view of the list of speakers.
+     */
+    protected transient List<GameSpeaker> speakerView;
+
+    /**
+     * This field holds the pawn version of the session when the name map was last built.
+     */
+    protected transient int indexVersion;
+
     /**
      * @param location
      */
@@ -34,19 +93,177 @@ public class LocationPawnUtility
     }
 
     /**
-     * @return
+     * This method must be called whenever a pawn is renamed, so that every location will find its pawns by their new
+     * names. The pawn version of the session is increased, and every location in the session builds its map again the
+     * next time it is needed.
      */
-    public ArrayList<GameActor> actorList()
+    public static void pawnsChanged()
+    {
+        GameSession.current().pawnsChanged();
+    }
+
+    /**
+     * This helper method turns a pawn name into the key it is stored under in the name map. Names are compared without
+     * regard to case everywhere in the engine.
+     *
+     * @param pawnName The String name to be converted.
+     * @return The key for the given name.
+     */
+    private static String nameKey( String pawnName )
+    {
+        return pawnName.toLowerCase( Locale.ROOT );
+    }
+
+    /**
+     * This helper method builds the set, lists and map from the pawn list if they haven't been built yet, or if the name
+     * map is out of date.
+     */
+    private void indexPawns()
+    {
+        int currentVersion = GameSession.current().getPawnVersion();
+        if ( this.pawnSet == null || this.indexVersion != currentVersion )
+        {
+            this.pawnSet = new HashSet<GamePawn>();
+            this.actors = new ArrayList<GameActor>();
+            this.players = new ArrayList<GamePlayer>();
+            this.speakers = new ArrayList<GameSpeaker>();
+            this.pawnsByName = new HashMap<String, GamePawn>();
+            this.sharedNames = false;
+            this.pawnView = Collections.unmodifiableList( this.pawnList );
+            this.actorView = Collections.unmodifiableList( this.actors );
+            this.playerView = Collections.unmodifiableList( this.players );
+            this.speakerView = Collections.unmodifiableList( this.speakers );
+            this.indexVersion = currentVersion;
+            for ( GamePawn pawn : this.pawnList )
+            {
+                this.indexPawn( pawn );
+            }
+        }
+    }
+
+    /**
+     * This helper method adds a single pawn to the set, lists and map.
+     *
+     * @param pawn The GamePawn object to be added.
+     */
+    private void indexPawn( GamePawn pawn )
+    {
+        this.pawnSet.add( pawn );
+        if ( pawn instanceof GameActor )
+        {
+            this.actors.add( ( GameActor ) pawn );
+        }
+        if ( pawn instanceof GamePlayer )
+        {
+            this.players.add( ( GamePlayer ) pawn );
+        }
+        if ( pawn instanceof GameSpeaker )
+        {
+            this.speakers.add( ( GameSpeaker ) pawn );
+        }
+        String key = nameKey( pawn.getName() );
+        GamePawn indexedPawn = this.pawnsByName.get( key );
+        if ( indexedPawn == null )
+        {
+            this.pawnsByName.put( key, pawn );
+        }
+        else if ( indexedPawn != pawn )
+        {
+            this.sharedNames = true;
+        }
+    }
+
+    /**
+     * This helper method removes a single pawn from the set, lists and map. If another pawn in this location has the same
+     * name, it takes the removed pawn's place in the map.
+     *
+     * @param pawn The GamePawn object to be removed.
+     */
+    private void unindexPawn( GamePawn pawn )
     {
-        ArrayList<GameActor> actors = new ArrayList<GameActor>();
-        for ( GamePawn pawn : this.pawnList() )
+        this.pawnSet.remove( pawn );
+        if ( pawn instanceof GameActor )
         {
-            if ( pawn instanceof GameActor )
+            this.actors.remove( pawn );
+        }
+        if ( pawn instanceof GamePlayer )
+        {
+            this.players.remove( pawn );
+        }
+        if ( pawn instanceof GameSpeaker )
+        {
+            this.speakers.remove( pawn );
+        }
+        String key = nameKey( pawn.getName() );
+        if ( this.pawnsByName.get( key ) == pawn )
+        {
+            this.pawnsByName.remove( key );
+            if ( this.sharedNames )
             {
-                actors.add( ( GameActor ) pawn );
+                for ( GamePawn otherPawn : this.pawnList )
+                {
+                    if ( nameKey( otherPawn.getName() ).equals( key ) )
+                    {
+                        this.pawnsByName.put( key, otherPawn );
+                        break;
+                    }
+                }
             }
         }
-        return actors;
+    }
+
+    /**
+     * This helper method finds the pawn in this location with the given name.
+     *
+     * @param pawnName The String name of the pawn, which is not case sensitive.
+     * @return The GamePawn object with the given name, or null if there is none in this location.
+     */
+    private GamePawn findPawn( String pawnName )
+    {
+        if ( pawnName == null )
+        {
+            return null;
+        }
+        this.indexPawns();
+        return this.pawnsByName.get( nameKey( pawnName ) );
+    }
+
+    /**
+     * This helper method checks that a pawn is in this location and can be seen.
+     *
+     * @param pawn The GamePawn object to check, which may be null.
+     * @param includeHidden True if hidden pawns count, false otherwise.
+     * @return True if the pawn is in this location and can be seen, false otherwise.
+     */
+    private boolean isPresent( GamePawn pawn, boolean includeHidden )
+    {
+        if ( pawn == null )
+        {
+            return false;
+        }
+        this.indexPawns();
+        return this.pawnSet.contains( pawn ) && ( includeHidden || !pawn.hasStatus( "hidden" ) );
+    }
+
+    /**
+     * @return
+     */
+    public ArrayList<GameActor> actorList()
+    {
+        this.indexPawns();
+        return new ArrayList<GameActor>( this.actors );
+    }
+
+    /**
+     * This method is used to get a read-only view of the GameActors in this location. Unlike actorList(), this doesn't
+     * make a copy, so the view will change as actors come and go.
+     *
+     * @return A read-only list of the GameActors in this location.
+     */
+    public List<GameActor> actorView()
+    {
+        this.indexPawns();
+        return this.actorView;
     }
 
     /**
@@ -55,13 +272,16 @@ public class LocationPawnUtility
      */
     public boolean addPawn( GamePawn newPawn )
     {
-        if ( !this.pawnList().contains( newPawn ) )
+        this.indexPawns();
+        if ( !this.pawnSet.contains( newPawn ) )
         {
             if ( newPawn.getLocation() != null )
             {
                 newPawn.getLocation().removePawn( newPawn );
             }
             this.pawnList.add( newPawn );
+            this.indexPawn( newPawn );
+            Engine.stateChanged( this.location );
 
             if ( newPawn.getLocation() != this.location )
             {
@@ -78,15 +298,10 @@ public class LocationPawnUtility
      */
     public boolean addPawn( String pawnName )
     {
-        for ( GameComponent component : Engine.componentList() )
+        GamePawn pawn = Engine.getPawn( pawnName );
+        if ( pawn != null && !this.isPresent( pawn, true ) )
         {
-            if ( component instanceof GamePawn && component.getName().equalsIgnoreCase( pawnName ) )
-            {
-                if ( !this.pawnList().contains( component ) )
-                {
-                    return this.addPawn( ( GamePawn ) component );
-                }
-            }
+            return this.addPawn( pawn );
         }
         return false;
     }
@@ -97,12 +312,10 @@ public class LocationPawnUtility
      */
     public GameActor getActor( String actorName )
     {
-        for ( GamePawn pawn : this.pawnList() )
+        GamePawn pawn = this.findPawn( actorName );
+        if ( pawn instanceof GameActor )
         {
-            if ( pawn.getName().equalsIgnoreCase( actorName ) && pawn instanceof GameActor )
-            {
-                return ( GameActor ) pawn;
-            }
+            return ( GameActor ) pawn;
         }
         return null;
     }
@@ -113,14 +326,7 @@ public class LocationPawnUtility
      */
     public GamePawn getPawn( String pawnName )
     {
-        for ( GamePawn pawn : this.pawnList() )
-        {
-            if ( pawn.getName().equalsIgnoreCase( pawnName ) )
-            {
-                return pawn;
-            }
-        }
-        return null;
+        return this.findPawn( pawnName );
     }
 
     /**
@@ -129,12 +335,10 @@ public class LocationPawnUtility
      */
     public GamePlayer getPlayer( String playerName )
     {
-        for ( GamePawn pawn : this.pawnList() )
+        GamePawn pawn = this.findPawn( playerName );
+        if ( pawn instanceof GamePlayer )
         {
-            if ( pawn.getName().equalsIgnoreCase( playerName ) && pawn instanceof GamePlayer )
-            {
-                return ( GamePlayer ) pawn;
-            }
+            return ( GamePlayer ) pawn;
         }
         return null;
     }
@@ -145,7 +349,7 @@ public class LocationPawnUtility
      */
     public boolean hasActor( GameActor actor )
     {
-        return this.hasActor( actor.getName(), false );
+        return this.hasActor( actor, false );
     }
 
     /**
@@ -155,7 +359,7 @@ public class LocationPawnUtility
      */
     public boolean hasActor( GameActor actor, boolean includeHidden )
     {
-        return this.hasActor( actor.getName(), includeHidden );
+        return this.isPresent( actor, includeHidden );
     }
 
     /**
@@ -174,17 +378,7 @@ public class LocationPawnUtility
      */
     public boolean hasActor( String actorName, boolean includeHidden )
     {
-        for ( GamePawn pawn : this.pawnList() )
-        {
-            if ( pawn.getName().equalsIgnoreCase( actorName ) && pawn instanceof GameActor )
-            {
-                if ( includeHidden || !pawn.hasStatus( "hidden" ) )
-                {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return this.isPresent( this.getActor( actorName ), includeHidden );
     }
 
     /**
@@ -203,7 +397,7 @@ public class LocationPawnUtility
      */
     public boolean hasPawn( GamePawn pawn, boolean includeHidden )
     {
-        return this.hasPawn( pawn, includeHidden );
+        return this.isPresent( pawn, includeHidden );
     }
 
     /**
@@ -222,17 +416,7 @@ public class LocationPawnUtility
      */
     public boolean hasPawn( String pawnName, boolean includeHidden )
     {
-        for ( GamePawn pawn : this.pawnList() )
-        {
-            if ( pawn.getName().equalsIgnoreCase( pawnName ) )
-            {
-                if ( includeHidden || !pawn.hasStatus( "hidden" ) )
-                {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return this.isPresent( this.findPawn( pawnName ), includeHidden );
     }
 
     /**
@@ -241,7 +425,7 @@ public class LocationPawnUtility
      */
     public boolean hasPlayer( GamePlayer player )
     {
-        return this.hasPlayer( player.getName(), false );
+        return this.hasPlayer( player, false );
     }
 
     /**
@@ -251,7 +435,7 @@ public class LocationPawnUtility
      */
     public boolean hasPlayer( GamePlayer player, boolean includeHidden )
     {
-        return this.hasPlayer( player.getName(), includeHidden );
+        return this.isPresent( player, includeHidden );
     }
 
     /**
@@ -270,17 +454,7 @@ public class LocationPawnUtility
      */
     public boolean hasPlayer( String playerName, boolean includeHidden )
     {
-        for ( GamePawn pawn : this.pawnList() )
-        {
-            if ( pawn.getName().equalsIgnoreCase( playerName ) && pawn instanceof GamePlayer )
-            {
-                if ( includeHidden || !pawn.hasStatus( "hidden" ) )
-                {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return this.isPresent( this.getPlayer( playerName ), includeHidden );
     }
 
     /**
@@ -291,23 +465,19 @@ public class LocationPawnUtility
     {
         String output = "";
 
-        if ( actorList().size() > 0 )
+        StringBuilder actorList = new StringBuilder();
+        for ( GameActor actor : this.actorView() )
         {
-            
-            String actorList = "";
-            for ( GameActor actor : actorList() )
+            if ( !actor.isHidden() )
             {
-                if ( !actor.isHidden() )
-                {
-                    actorList += actor.getName() + "\n";
-                }
-            }
-            if(actorList != "")
-            {
-                output = initialOutputString + "\n";
-                output += actorList + "\n";
+                actorList.append( actor.getName() ).append( "\n" );
             }
         }
+        if ( actorList.length() > 0 )
+        {
+            output = initialOutputString + "\n";
+            output += actorList + "\n";
+        }
 
         return output;
     }
@@ -320,10 +490,10 @@ public class LocationPawnUtility
     {
         String output = "";
 
-        if ( playerList().size() > 1 )
+        if ( this.playerView().size() > 1 )
         {
             output = initialOutputString + "\n";
-            for ( GamePlayer player : playerList() )
+            for ( GamePlayer player : this.playerView() )
             {
                 if ( !player.hasStatus( "hidden" ) && !player.equals( Engine.currentPlayer() ) )
                 {
@@ -343,20 +513,49 @@ public class LocationPawnUtility
         return ( ArrayList<GamePawn> ) this.pawnList.clone();
     }
 
+    /**
+     * This method is used to get a read-only view of the GamePawns in this location. Unlike pawnList(), this doesn't make
+     * a copy, so the view will change as pawns come and go.
+     *
+     * @return A read-only list of the GamePawns in this location.
+     */
+    public List<GamePawn> pawnView()
+    {
+        this.indexPawns();
+        return this.pawnView;
+    }
+
     /**
      * @return
      */
     public ArrayList<GamePlayer> playerList()
     {
-        ArrayList<GamePlayer> players = new ArrayList<GamePlayer>();
-        for ( GamePawn pawn : this.pawnList() )
-        {
-            if ( pawn instanceof GamePlayer )
-            {
-                players.add( ( GamePlayer ) pawn );
-            }
-        }
-        return players;
+        this.indexPawns();
+        return new ArrayList<GamePlayer>( this.players );
+    }
+
+    /**
+     * This method is used to get a read-only view of the GamePlayers in this location. Unlike playerList(), this doesn't
+     * make a copy, so the view will change as players come and go.
+     *
+     * @return A read-only list of the GamePlayers in this location.
+     */
+    public List<GamePlayer> playerView()
+    {
+        this.indexPawns();
+        return this.playerView;
+    }
+
+    /**
+     * This method is used to get a read-only view of the pawns in this location that are GameSpeakers. The view will
+     * change as speakers come and go.
+     *
+     * @return A read-only list of the GameSpeakers in this location.
+     */
+    public List<GameSpeaker> speakerView()
+    {
+        this.indexPawns();
+        return this.speakerView;
     }
 
     /**
@@ -365,9 +564,12 @@ public class LocationPawnUtility
      */
     public boolean removePawn( GamePawn pawn )
     {
-        if ( this.pawnList.contains( pawn ) )
+        this.indexPawns();
+        if ( this.pawnSet.contains( pawn ) )
         {
             this.pawnList.remove( pawn );
+            this.unindexPawn( pawn );
+            Engine.stateChanged( this.location );
             return true;
         }
         return false;
@@ -379,12 +581,10 @@ public class LocationPawnUtility
      */
     public boolean removePawn( String pawnName )
     {
-        for ( GamePawn pawn : this.pawnList() )
+        GamePawn pawn = this.findPawn( pawnName );
+        if ( pawn != null )
         {
-            if ( pawn.getName().equalsIgnoreCase( pawnName ) )
-            {
-                return this.removePawn( pawn );
-            }
+            return this.removePawn( pawn );
         }
         return false;
     }
@@ -402,12 +602,10 @@ public class LocationPawnUtility
      */
     public void setLocationComponent( String locationName )
     {
-        for ( GameComponent component : Engine.componentList() )
+        GameLocation newLocation = Engine.getLocation( locationName );
+        if ( newLocation != null )
         {
-            if ( component instanceof GameLocation && component.getName().equalsIgnoreCase( locationName ) )
-            {
-                setLocationComponent( ( GameLocation ) component );
-            }
+            setLocationComponent( newLocation );
         }
     }
 }
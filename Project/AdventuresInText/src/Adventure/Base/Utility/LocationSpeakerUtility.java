@@ -42,26 +42,24 @@ public class LocationSpeakerUtility
      */
     public boolean hasSpeaker( GameSpeaker speaker, boolean includeHidden )
     {
-        if ( location.pawnList().contains( speaker ) )
+        boolean present = false;
+        if ( speaker instanceof GamePawn )
         {
-            GameObject containerObject = ( GameObject ) speaker;
-            if ( includeHidden || !containerObject.hasStatus( "hidden" ) )
-            {
-                return true;
-            }
+            present = location.hasPawn( ( GamePawn ) speaker, true );
         }
-        if ( location.exitList().contains( speaker ) )
+        if ( !present && speaker instanceof GameItem )
         {
-            GameObject containerObject = ( GameObject ) speaker;
-            if ( includeHidden || !containerObject.hasStatus( "hidden" ) )
-            {
-                return true;
-            }
+            present = location.hasItem( ( GameItem ) speaker, true );
+        }
+        if ( !present && speaker instanceof GameExit )
+        {
+            GameExit exit = ( GameExit ) speaker;
+            present = location.getExit( exit.getName() ) == exit;
         }
-        if ( location.itemList().contains( speaker ) )
+        if ( present )
         {
-            GameObject containerObject = ( GameObject ) speaker;
-            if ( includeHidden || !containerObject.hasStatus( "hidden" ) )
+            GameObject speakerObject = ( GameObject ) speaker;
+            if ( includeHidden || !speakerObject.hasStatus( "hidden" ) )
             {
                 return true;
             }
@@ -85,32 +83,10 @@ public class LocationSpeakerUtility
      */
     public boolean hasSpeaker( String speakerName, boolean includeHidden )
     {
-        for ( GamePawn pawn : location.pawnList() )
-        {
-            if ( pawn.getName().equalsIgnoreCase( speakerName ) && pawn instanceof GameSpeaker )
-            {
-                return this.hasSpeaker( ( GameSpeaker ) pawn, includeHidden );
-            }
-        }
-        for ( GameItem item : location.itemList() )
-        {
-            if ( item.getName().equalsIgnoreCase( speakerName ) && item instanceof GameSpeaker )
-            {
-                if ( includeHidden || !item.hasStatus( "hidden" ) )
-                {
-                    return this.hasSpeaker( ( GameSpeaker ) item, includeHidden );
-                }
-            }
-        }
-        for ( GameExit exit : location.exitList() )
+        GameObject object = location.getObject( speakerName );
+        if ( object instanceof GameSpeaker )
         {
-            if ( exit.getName().equalsIgnoreCase( speakerName ) && exit instanceof GameSpeaker )
-            {
-                if ( includeHidden || !exit.hasStatus( "hidden" ) )
-                {
-                    return this.hasSpeaker( ( GameSpeaker ) exit, includeHidden );
-                }
-            }
+            return this.hasSpeaker( ( GameSpeaker ) object, includeHidden );
         }
         return false;
     }
@@ -128,12 +104,10 @@ public class LocationSpeakerUtility
      */
     public void setLocationComponent( String locationName )
     {
-        for ( GameComponent component : Engine.componentList() )
+        GameLocation newLocation = Engine.getLocation( locationName );
+        if ( newLocation != null )
         {
-            if ( component instanceof GameLocation && component.getName().equalsIgnoreCase( locationName ) )
-            {
-                setLocationComponent( ( GameLocation ) component );
-            }
+            setLocationComponent( newLocation );
         }
     }
 }
@@ -61,12 +61,10 @@ public class ObjectHideUtility
      */
     public void setObjectComponent( String objectName )
     {
-        for ( GameComponent component : Engine.componentList() )
+        GameObject object = Engine.getObject( objectName );
+        if ( object != null )
         {
-            if ( component instanceof GameContainer && component.getName().equalsIgnoreCase( objectName ) )
-            {
-                setObjectComponent( ( GameObject ) component );
-            }
+            setObjectComponent( object );
         }
     }
 }
@@ -0,0 +1,92 @@
+package Adventure.Base.Utility;
+
+/**
+ * This class is the engine-wide table of status names. Every status name that is ever set on a component is given a
+ * small int id the first time it is seen, so that components can store their statuses by id instead of by name.
+ */
+public class StatusKeys
+{
+    private static final KeyTable keys = new KeyTable();
+
+    /**
+     * This is the id of the "hidden" status, which marks objects that can't be seen by the player.
+     */
+    public static final int HIDDEN = intern( "hidden" );
+
+    /**
+     * This is the id of the "moves" status, which counts the moves made by a pawn.
+     */
+    public static final int MOVES = intern( "moves" );
+
+    /**
+     * This is the id of the "movable" status, which marks items that can be picked up.
+     */
+    public static final int MOVABLE = intern( "movable" );
+
+    /**
+     * This is the id of the "pickedUp" status, which marks items that have been picked up at least once.
+     */
+    public static final int PICKED_UP = intern( "pickedUp" );
+
+    /**
+     * This is the id of the "stackLimit" status, which holds the most of an item that can be stacked together.
+     */
+    public static final int STACK_LIMIT = intern( "stackLimit" );
+
+    /**
+     * This is the id of the "has run" status, which marks dialogs that have already been shown.
+     */
+    public static final int HAS_RUN = intern( "has run" );
+
+    /**
+     * This class is completely static, so we make the constructor private.
+     */
+    private StatusKeys()
+    {
+        super();
+    }
+
+    /**
+     * This method is used to get the id for a status name, giving the name a new id if it doesn't have one yet.
+     *
+     * @param statusName The String name of the status.
+     * @return The int id for the status name.
+     */
+    public static int intern( String statusName )
+    {
+        return keys.intern( statusName );
+    }
+
+    /**
+     * This method is used to get the id for a status name without giving it a new id. It is used when a status is only
+     * being read, since a name that has never been set can't be stored on any component.
+     *
+     * @param statusName The String name of the status.
+     * @return The int id for the status name, or -1 if the name has never been used.
+     */
+    public static int lookup( String statusName )
+    {
+        return keys.lookup( statusName );
+    }
+
+    /**
+     * This method is used to get the status name for an id.
+     *
+     * @param statusId The int id of the status.
+     * @return The String name of the status.
+     */
+    public static String name( int statusId )
+    {
+        return keys.name( statusId );
+    }
+
+    /**
+     * This method is used to get the number of status names that have been given an id.
+     *
+     * @return The number of status names in the table.
+     */
+    public static int size()
+    {
+        return keys.size();
+    }
+}
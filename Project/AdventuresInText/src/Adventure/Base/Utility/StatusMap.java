@@ -0,0 +1,219 @@
+package Adventure.Base.Utility;
+
+/**
+ * This class is a small map from status ids to int values. It is built to use as little memory as possible, since every
+ * component has one. Each entry is stored as a pair of ints in a single array, using open addressing, so there are no
+ * entry objects and no boxed Integers. A map that has never held a status doesn't allocate an array at all.
+ */
+public class StatusMap
+{
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * This array holds the entries, with the key in each even slot and the value in the slot after it. Keys are stored
+     * as the status id plus one, so that a key of 0 marks an empty entry.
+     */
+    private int[] entries;
+
+    private int size;
+
+    /**
+     * This constructor creates a new, empty map.
+     */
+    public StatusMap()
+    {
+        this.entries = null;
+        this.size = 0;
+    }
+
+    /**
+     * This helper method finds the entry that holds a key, or the empty entry where it would go.
+     *
+     * @param table The array of entries to search.
+     * @param key The stored form of the key.
+     * @return The index of the key slot of the entry.
+     */
+    private static int find( int[] table, int key )
+    {
+        // Status ids are handed out in order, so the low bits of the key already spread the entries out evenly.
+        int mask = ( table.length >> 1 ) - 1;
+        int index = key & mask;
+        while ( table[ index << 1 ] != 0 && table[ index << 1 ] != key )
+        {
+            index = ( index + 1 ) & mask;
+        }
+        return index << 1;
+    }
+
+    /**
+     * This method will check if the map holds a value for a status.
+     *
+     * @param statusId The int id of the status.
+     * @return True if the map holds a value for the status, false otherwise.
+     */
+    public boolean containsKey( int statusId )
+    {
+        if ( this.entries == null || statusId < 0 )
+        {
+            return false;
+        }
+        return this.entries[ find( this.entries, statusId + 1 ) ] != 0;
+    }
+
+    /**
+     * This method is used to get the value held for a status.
+     *
+     * @param statusId The int id of the status.
+     * @param defaultValue The value to return if the map holds no value for the status.
+     * @return The value held for the status, or the default value if there is none.
+     */
+    public int get( int statusId, int defaultValue )
+    {
+        if ( this.entries == null || statusId < 0 )
+        {
+            return defaultValue;
+        }
+        int slot = find( this.entries, statusId + 1 );
+        if ( this.entries[ slot ] == 0 )
+        {
+            return defaultValue;
+        }
+        return this.entries[ slot + 1 ];
+    }
+
+    /**
+     * This method will set the value held for a status.
+     *
+     * @param statusId The int id of the status.
+     * @param value The new value for the status.
+     */
+    public void put( int statusId, int value )
+    {
+        if ( this.entries == null )
+        {
+            this.entries = new int[ INITIAL_CAPACITY << 1 ];
+        }
+        int key = statusId + 1;
+        int slot = find( this.entries, key );
+        if ( this.entries[ slot ] == 0 )
+        {
+            // We keep the map at most three quarters full so that searches stay short.
+            if ( ( this.size + 1 ) * 4 > ( this.entries.length >> 1 ) * 3 )
+            {
+                this.resize( this.entries.length );
+                slot = find( this.entries, key );
+            }
+            this.entries[ slot ] = key;
+            this.size++;
+        }
+        this.entries[ slot + 1 ] = value;
+    }
+
+    /**
+     * This method will remove the value held for a status.
+     *
+     * @param statusId The int id of the status.
+     * @return True if there was a value to remove, false otherwise.
+     */
+    public boolean remove( int statusId )
+    {
+        if ( this.entries == null || statusId < 0 )
+        {
+            return false;
+        }
+        int[] table = this.entries;
+        int slot = find( table, statusId + 1 );
+        if ( table[ slot ] == 0 )
+        {
+            return false;
+        }
+
+        // Rather than leaving a marker behind, we move any later entries that were pushed past this one back into the
+        // gap, so that every entry can still be found by searching from where it belongs.
+        int mask = ( table.length >> 1 ) - 1;
+        int gap = slot >> 1;
+        int index = gap;
+        while ( true )
+        {
+            index = ( index + 1 ) & mask;
+            int key = table[ index << 1 ];
+            if ( key == 0 )
+            {
+                break;
+            }
+            int home = key & mask;
+            if ( ( ( index - home ) & mask ) >= ( ( index - gap ) & mask ) )
+            {
+                table[ gap << 1 ] = key;
+                table[ ( gap << 1 ) + 1 ] = table[ ( index << 1 ) + 1 ];
+                gap = index;
+            }
+        }
+        table[ gap << 1 ] = 0;
+        table[ ( gap << 1 ) + 1 ] = 0;
+        this.size--;
+        return true;
+    }
+
+    /**
+     * This helper method moves every entry into a new array of twice the size.
+     *
+     * @param oldLength The length of the current array.
+     */
+    private void resize( int oldLength )
+    {
+        int[] oldEntries = this.entries;
+        int[] newEntries = new int[ oldLength << 1 ];
+        for ( int i = 0; i < oldLength; i += 2 )
+        {
+            if ( oldEntries[ i ] != 0 )
+            {
+                int slot = find( newEntries, oldEntries[ i ] );
+                newEntries[ slot ] = oldEntries[ i ];
+                newEntries[ slot + 1 ] = oldEntries[ i + 1 ];
+            }
+        }
+        this.entries = newEntries;
+    }
+
+    /**
+     * This method will remove every value from the map.
+     */
+    public void clear()
+    {
+        this.entries = null;
+        this.size = 0;
+    }
+
+    /**
+     * This method is used to get the number of statuses that the map holds a value for.
+     *
+     * @return The number of statuses in the map.
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * This method is used to get the ids of every status that the map holds a value for.
+     *
+     * @return An array holding the status ids, in no particular order.
+     */
+    public int[] keys()
+    {
+        int[] keys = new int[ this.size ];
+        if ( this.entries != null )
+        {
+            int next = 0;
+            for ( int i = 0; i < this.entries.length; i += 2 )
+            {
+                if ( this.entries[ i ] != 0 )
+                {
+                    keys[ next++ ] = this.entries[ i ] - 1;
+                }
+            }
+        }
+        return keys;
+    }
+}
@@ -13,10 +13,20 @@ public class SystemIOUtility
 {
     @SuppressWarnings( "compatibility:-2143926047598089381" )
     private static final long serialVersionUID = 1L;
+
+    /**
+     * This is the width that output is wrapped to when the width of the terminal can't be found.
+     */
+    public static final int DEFAULT_WIDTH = 80;
     
     // We make this field static so there are no serialization conflicts.
     private static Scanner in;
 
+    private int width;
+
+    // The wrapped output is built in the same buffer every time, so showing output doesn't have to allocate new strings.
+    private transient StringBuilder wrapped;
+
     /**
      */
     public SystemIOUtility()
@@ -24,6 +34,53 @@ public class SystemIOUtility
         super();
         
         in = new Scanner( System.in );
+        this.width = detectWidth();
+    }
+
+    /**
+     * This helper method finds out how wide the terminal is from the COLUMNS environment variable, which most shells
+     * set. Output that isn't going to a terminal, such as output sent to a file, is always wrapped to the default width.
+     *
+     * @return The width of the terminal, or DEFAULT_WIDTH if it can't be found.
+     */
+    private static int detectWidth()
+    {
+        if ( System.console() != null )
+        {
+            try
+            {
+                int columns = Integer.parseInt( System.getenv( "COLUMNS" ).trim() );
+                if ( columns > 1 )
+                {
+                    return columns;
+                }
+            }
+            catch ( Exception e )
+            {
+                // If COLUMNS isn't set or isn't a number, we just use the default width.
+            }
+        }
+        return DEFAULT_WIDTH;
+    }
+
+    /**
+     * This method is used to set the width that output is wrapped to.
+     *
+     * @param newWidth The number of columns to wrap output to, which must be at least 2.
+     */
+    public void setWidth( int newWidth )
+    {
+        this.width = Math.max( 2, newWidth );
+    }
+
+    /**
+     * This method is used to get the width that output is wrapped to.
+     *
+     * @return The number of columns output is wrapped to.
+     */
+    public int getWidth()
+    {
+        return this.width;
     }
 
     // We use nextLine() instead of using nextInt() so we don't have to clear invalid input.
@@ -62,7 +119,7 @@ public class SystemIOUtility
      */
     public void display( StringBuilder outputBuffer )
     {
-        System.out.println( wordWrap( outputBuffer.toString() ) );
+        this.write( outputBuffer, null );
     }
 
     /**
@@ -71,24 +128,58 @@ public class SystemIOUtility
      */
     public void display( StringBuilder outputBuffer, String prompt )
     {
-        this.display( outputBuffer );
-        System.out.println( prompt );
+        this.write( outputBuffer, prompt );
+    }
+
+    /**
+     * This helper method wraps the output buffer straight into the reused buffer, adds the prompt if there is one, and
+     * then writes it all to the console in one go.
+     *
+     * @param outputBuffer The output buffer passed in from the IO class.
+     * @param prompt The string prompt to display after the output, or null if there is no prompt.
+     */
+    private void write( StringBuilder outputBuffer, String prompt )
+    {
+        if ( this.wrapped == null )
+        {
+            this.wrapped = new StringBuilder( 4096 );
+        }
+        this.wrapped.setLength( 0 );
+
+        wordWrap( outputBuffer, this.wrapped, this.width );
+        this.wrapped.append( System.lineSeparator() );
+        if ( prompt != null )
+        {
+            this.wrapped.append( prompt ).append( System.lineSeparator() );
+        }
+
+        System.out.print( this.wrapped );
+        System.out.flush();
+
+        // A very long output shouldn't keep a large buffer around for the rest of the game.
+        if ( this.wrapped.capacity() > 1 << 20 )
+        {
+            this.wrapped = null;
+        }
     }
 
     /**
      */
     public void clearScreen()
     {
+        StringBuilder screen = new StringBuilder( 80 + 24 * System.lineSeparator().length() );
         int i = 0;
         while ( i < 80 )
         {
-            System.out.print( "-" );
+            screen.append( '-' );
             i++;
         }
         for ( i = 0; i < 24; i++ )
         {
-            System.out.println();
+            screen.append( System.lineSeparator() );
         }
+        System.out.print( screen );
+        System.out.flush();
     }
 
     /**
@@ -97,30 +188,108 @@ public class SystemIOUtility
      */
     public String wordWrap( String text )
     {
-        int width = 80;
+        StringBuilder result = new StringBuilder( text.length() + text.length() / 16 + 1 );
+        wordWrap( text, result, this.width );
+        return result.toString();
+    }
 
-        String result = "";
-        String[] lines = text.split( "\n" );
+    /**
+     * This method wraps text to a width in a single pass, adding it to the end of a buffer without splitting it into
+     * separate strings first. Each line of the text has its words written with a space after each one, and a new line
+     * is started before any word that would reach the last column. Empty lines at the end of the text are dropped, as
+     * are spaces at the end of each line.
+     *
+     * @param text The text to be wrapped.
+     * @param result The StringBuilder that the wrapped text is added to.
+     * @param width The number of columns to wrap the text to.
+     */
+    public static void wordWrap( CharSequence text, StringBuilder result, int width )
+    {
+        int length = text.length();
 
-        for ( String line : lines )
+        // Empty lines at the end are dropped, but text with no line breaks at all is always one line, even if it's empty.
+        int textEnd = length;
+        if ( indexOf( text, '\n', 0, length ) >= 0 )
         {
-            int lineLength = 0;
-            String[] words = line.split( " " );
+            while ( textEnd > 0 && text.charAt( textEnd - 1 ) == '\n' )
+            {
+                textEnd--;
+            }
+        }
+
+        int lineStart = 0;
+        while ( lineStart < textEnd || ( lineStart == 0 && textEnd == length ) )
+        {
+            int lineEnd = indexOf( text, '\n', lineStart, textEnd );
+            if ( lineEnd < 0 )
+            {
+                lineEnd = textEnd;
+            }
+
+            // The same goes for spaces at the end of each line.
+            int wordsEnd = lineEnd;
+            if ( indexOf( text, ' ', lineStart, lineEnd ) >= 0 )
+            {
+                while ( wordsEnd > lineStart && text.charAt( wordsEnd - 1 ) == ' ' )
+                {
+                    wordsEnd--;
+                }
+            }
 
-            for ( String word : words )
+            int lineLength = 0;
+            int wordStart = lineStart;
+            while ( wordStart < wordsEnd || ( wordStart == lineStart && wordsEnd == lineEnd ) )
             {
-                if ( word.length() + lineLength >= width - 1 )
+                int wordEnd = indexOf( text, ' ', wordStart, wordsEnd );
+                if ( wordEnd < 0 )
+                {
+                    wordEnd = wordsEnd;
+                }
+
+                int wordLength = wordEnd - wordStart;
+                if ( wordLength + lineLength >= width - 1 )
                 {
-                    result += "\n";
+                    result.append( '\n' );
                     lineLength = 0;
                 }
-                result += word + " ";
-                lineLength += word.length() + 1;
+                result.append( text, wordStart, wordEnd ).append( ' ' );
+                lineLength += wordLength + 1;
+
+                wordStart = wordEnd + 1;
+                if ( wordEnd == wordsEnd )
+                {
+                    break;
+                }
+            }
+            result.append( '\n' );
+
+            lineStart = lineEnd + 1;
+            if ( lineEnd == textEnd )
+            {
+                break;
             }
-            result += "\n";
         }
+    }
 
-        return result;
+    /**
+     * This helper method finds the first place a character appears in part of some text.
+     *
+     * @param text The text to search.
+     * @param c The character to look for.
+     * @param start The index to start looking at.
+     * @param end The index to stop looking before.
+     * @return The index of the character, or -1 if it doesn't appear.
+     */
+    private static int indexOf( CharSequence text, char c, int start, int end )
+    {
+        for ( int i = start; i < end; i++ )
+        {
+            if ( text.charAt( i ) == c )
+            {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -129,11 +298,12 @@ public class SystemIOUtility
      */
     public String underline( String text )
     {
-        String underline = "\n";
+        StringBuilder underline = new StringBuilder( text.length() + 1 );
+        underline.append( '\n' );
         for ( int i = 0; i < text.length(); i++ )
         {
-            underline += "-";
+            underline.append( '-' );
         }
-        return underline;
+        return underline.toString();
     }
 }
@@ -37,13 +37,11 @@ public class Direction
     public void run( Operation operation )
     {
         GamePlayer player = Engine.currentPlayer();
-        for ( GameExit exit : player.getLocation().exitList() )
+        GameExit exit = player.getLocation().getExitByDirection( this, false );
+        if ( exit != null )
         {
-            if ( exit.getExitDirection().equals( this ) && !exit.isHidden() )
-            {
-                player.setLocation( exit.getExitLocation() );
-                player.getLocation().describe();
-            }
+            player.setLocation( exit.getExitLocation() );
+            player.getLocation().describe();
         }
     }
 }
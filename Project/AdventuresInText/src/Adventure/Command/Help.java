@@ -32,40 +32,36 @@ public class Help
     {
         // In future updates, the help system needs to become more robust.
         String output = "";
-        for ( GameComponent component : Engine.componentList() )
+        for ( GameCommand command : Engine.componentView( GameCommand.class ) )
         {
-            if ( component instanceof GameCommand )
+            output += String.format( "%-6s %-20s ", "Command:", command.getName() );
+            output += String.format( "%-7s %-3s \n", "Hotkey:", command.getHotkey() );
+            
+            if ( command instanceof GameAction )
             {
-                GameCommand command = ( GameCommand ) component;                
-                output += String.format( "%-6s %-20s ", "Command:", command.getName() );
-                output += String.format( "%-7s %-3s \n", "Hotkey:", command.getHotkey() );
-                
-                if ( command instanceof GameAction )
+                GameAction action = ( GameAction ) command;
+                if ( action.aliasList().size() > 0 )
                 {
-                    GameAction action = ( GameAction ) command;
-                    if ( action.aliasList().size() > 0 )
-                    {
-                        output += String.format( "%-8s ", "Aliases:" );
+                    output += String.format( "%-8s ", "Aliases:" );
 
-                        int i = 0;
-                        for ( String alias : action.aliasList() )
+                    int i = 0;
+                    for ( String alias : action.aliasList() )
+                    {
+                        i++;
+                        output += String.format( "%s", alias );
+                        if ( i < action.aliasList().size() )
+                        {
+                            output += ", ";
+                        }
+                        else
                         {
-                            i++;
-                            output += String.format( "%s", alias );
-                            if ( i < action.aliasList().size() )
-                            {
-                                output += ", ";
-                            }
-                            else
-                            {
-                                output += "\n";
-                            }
+                            output += "\n";
                         }
                     }
                 }
-
-                output += command.getText( "help" ) + "\n\n";
             }
+
+            output += command.getText( "help" ) + "\n\n";
         }
         IO.addLine( output );
     }
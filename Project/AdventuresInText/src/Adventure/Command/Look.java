@@ -43,25 +43,32 @@ public class Look
         }
         else
         {
-            for ( GameComponent component : Engine.componentList() )
+            // Whether the target is here only depends on its name, so we find out once instead of for every component.
+            GameLocation location = player.getLocation();
+            boolean pawnHere = location.hasPawn( commands[ 2 ], false );
+            boolean containerHere = location.hasContainer( commands[ 2 ] );
+            if ( pawnHere || containerHere )
             {
-                if ( component instanceof GamePawn && component.getName().equalsIgnoreCase( commands[ 2 ] ) &&
-                     player.getLocation().hasPawn( commands[ 2 ], false ) )
+                for ( GameComponent component : Engine.componentView() )
                 {
-                    GameObject object = ( GameObject ) component;
-                    object.describe();
-                    described = true;
-                    break;
-                }
-                if ( component instanceof GameContainer && player.getLocation().hasContainer( commands[ 2 ] ) )
-                {
-                    GameContainer container = ( GameContainer ) component;
-                    if ( container.hasItem( commands[ 2 ] ) )
+                    if ( pawnHere && component instanceof GamePawn &&
+                         component.getName().equalsIgnoreCase( commands[ 2 ] ) )
                     {
-                        container.getItem( commands[ 2 ] ).describe();
+                        GameObject object = ( GameObject ) component;
+                        object.describe();
                         described = true;
                         break;
                     }
+                    if ( containerHere && component instanceof GameContainer )
+                    {
+                        GameContainer container = ( GameContainer ) component;
+                        if ( container.hasItem( commands[ 2 ] ) )
+                        {
+                            container.getItem( commands[ 2 ] ).describe();
+                            described = true;
+                            break;
+                        }
+                    }
                 }
             }
         }
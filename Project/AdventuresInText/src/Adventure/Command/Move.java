@@ -32,13 +32,23 @@ public class Move
     {
         String[] commands = operation.getinputArray();
         GamePlayer player = Engine.currentPlayer();
-        for ( GameExit exit : player.getLocation().exitList() )
+        GameLocation location = player.getLocation();
+        GameExit exit = location.getExitByDirection( commands[ 2 ], false );
+        if ( exit == null )
         {
-            if ( exit.getExitDirection().getHotkey().equalsIgnoreCase( commands[ 2 ] ) ||
-                 exit.getExitDirection().getName().equalsIgnoreCase( commands[ 2 ] ) && !exit.isHidden() )
+            // The player may have typed the hotkey of the direction rather than its name.
+            for ( GameDirection direction : Engine.componentView( GameDirection.class ) )
             {
-                player.setLocation( exit.getExitLocation(), true );
+                if ( direction.getHotkey().equalsIgnoreCase( commands[ 2 ] ) )
+                {
+                    exit = location.getExitByDirection( direction, false );
+                    break;
+                }
             }
         }
+        if ( exit != null )
+        {
+            player.setLocation( exit.getExitLocation(), true );
+        }
     }
 }
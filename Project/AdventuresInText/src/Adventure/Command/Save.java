@@ -13,21 +13,14 @@ public class Save
     @SuppressWarnings( "compatibility:6029799020586678932" )
     private static final long serialVersionUID = 1L;
 
-    private static String mostRecentSaveName;
-
-    static
-    {
-        mostRecentSaveName = "";
-    }
-
     public static void setMostRecentSaveName( String saveName )
     {
-        mostRecentSaveName = saveName;
+        GameSession.current().setMostRecentSaveName( saveName );
     }
 
     public static String getMostRecentSaveName()
     {
-        return mostRecentSaveName;
+        return GameSession.current().getMostRecentSaveName();
     }
 
     /**
@@ -49,7 +42,7 @@ public class Save
         String[] commands = operation.getinputArray();
 
         // The operation's direct object and the mostRecentSaveName cannot both be blank strings.
-        if ( commands[ 2 ].equals( "" ) && mostRecentSaveName.equals( "" ) )
+        if ( commands[ 2 ].equals( "" ) && getMostRecentSaveName().equals( "" ) )
         {
             // If they are, we need to add an error message to the output and return.
             IO.addLine( "You need to supply a name for the game to be saved. Your game was not saved." );
@@ -67,6 +60,6 @@ public class Save
         }
 
         // If no game name is specified, we just use the most recent save game name.
-        Engine.saveGameState( mostRecentSaveName );
+        Engine.saveGameState( getMostRecentSaveName() );
     }
 }
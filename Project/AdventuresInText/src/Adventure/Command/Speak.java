@@ -33,16 +33,11 @@ public class Speak
         String[] commands = operation.getinputArray();
         GamePlayer player = Engine.currentPlayer();
         boolean spoken = false;
-        for ( GameComponent component : Engine.componentList() )
+        GameSpeaker speaker = Engine.getSpeaker( commands[ 2 ] );
+        if ( speaker != null && player.getLocation().hasSpeaker( commands[ 2 ], false ) )
         {
-            if ( component instanceof GameSpeaker && component.getName().equalsIgnoreCase( commands[ 2 ] ) &&
-                 player.getLocation().hasSpeaker( commands[ 2 ], false ) )
-            {
-                GameSpeaker speaker = ( GameSpeaker ) component;
-                speaker.initiateDialog();
-                spoken = true;
-                break;
-            }
+            speaker.initiateDialog();
+            spoken = true;
         }
         if ( !spoken )
         {
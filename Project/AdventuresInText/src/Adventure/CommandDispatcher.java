@@ -0,0 +1,323 @@
+package Adventure;
+
+import Adventure.API.*;
+
+import java.util.*;
+
+/**
+ * This class is a lookup table from everything the player can type to choose a command, which is the command's name,
+ * its hotkey, or one of its aliases, to the GameCommand object itself. It is kept up to date by the Engine as commands
+ * are added and reloaded, so that each line of input can find its command with a single lookup. It can also complete a
+ * command from the start of its name or alias, as long as only one command starts that way.
+ */
+public class CommandDispatcher
+{
+    /**
+     * This is the shortest input that will be completed to a longer command name or alias.
+     */
+    public static final int MIN_PREFIX_LENGTH = 2;
+
+    private final HashMap<String, GameCommand> commandsByKey;
+
+    private final TreeMap<String, GameCommand> completions;
+
+    /*
+     * These maps hold every command that claims a key as its name, hotkey or alias, in the order of the Engine's
+     * command list, so that the next command in line can take over a key when the command holding it lets it go.
+     */
+    private final HashMap<String, ArrayList<GameCommand>> commandsByName;
+
+    private final HashMap<String, ArrayList<GameCommand>> commandsByHotkey;
+
+    private final HashMap<String, ArrayList<GameCommand>> commandsByAlias;
+
+    private final IdentityHashMap<GameCommand, Integer> positions;
+
+    private final IdentityHashMap<GameCommand, ArrayList<String>> claimedKeys;
+
+    private int nextPosition;
+
+    /**
+     * This constructor creates a new, empty dispatcher.
+     */
+    public CommandDispatcher()
+    {
+        this.commandsByKey = new HashMap<String, GameCommand>();
+        this.completions = new TreeMap<String, GameCommand>();
+        this.commandsByName = new HashMap<String, ArrayList<GameCommand>>();
+        this.commandsByHotkey = new HashMap<String, ArrayList<GameCommand>>();
+        this.commandsByAlias = new HashMap<String, ArrayList<GameCommand>>();
+        this.positions = new IdentityHashMap<GameCommand, Integer>();
+        this.claimedKeys = new IdentityHashMap<GameCommand, ArrayList<String>>();
+        this.nextPosition = 0;
+    }
+
+    /**
+     * This helper method turns a string into the key it is stored under, since every comparison is case-insensitive.
+     *
+     * @param string The string to be converted.
+     * @return The key for the given string, or null if the string is null.
+     */
+    private static String key( String string )
+    {
+        if ( string == null )
+        {
+            return null;
+        }
+        return string.toLowerCase( Locale.ROOT );
+    }
+
+    /**
+     * This helper method gets whichever of two commands comes first in the command list, using the first claimant of a
+     * key of one kind as the second command.
+     *
+     * @param earliest The earliest GameCommand object found so far, or null if there is none.
+     * @param key The key to look up.
+     * @param kindMap The map for the kind of string to be checked.
+     * @return The earlier of the two GameCommand objects, or null if there is neither.
+     */
+    private GameCommand earlier( GameCommand earliest, String key, HashMap<String, ArrayList<GameCommand>> kindMap )
+    {
+        ArrayList<GameCommand> claimants = kindMap.get( key );
+        if ( claimants == null ||
+            ( earliest != null && this.positions.get( earliest ) < this.positions.get( claimants.get( 0 ) ) ) )
+        {
+            return earliest;
+        }
+        return claimants.get( 0 );
+    }
+
+    /**
+     * This helper method works out again which command a key leads to, after the commands claiming it have changed. The
+     * earliest command always keeps the key, just like it would if the command list were searched from the start.
+     *
+     * @param key The key to be refreshed.
+     */
+    private void refresh( String key )
+    {
+        GameCommand completion = this.earlier( null, key, this.commandsByName );
+        completion = this.earlier( completion, key, this.commandsByAlias );
+        GameCommand command = this.earlier( completion, key, this.commandsByHotkey );
+        if ( command == null )
+        {
+            this.commandsByKey.remove( key );
+        }
+        else
+        {
+            this.commandsByKey.put( key, command );
+        }
+
+        if ( completion == null )
+        {
+            this.completions.remove( key );
+        }
+        else
+        {
+            this.completions.put( key, completion );
+        }
+    }
+
+    /**
+     * This helper method will record that a command claims a given key, keeping the claimants of the key in the order
+     * of the command list.
+     *
+     * @param string The string the player can type.
+     * @param command The GameCommand object the string leads to.
+     * @param kindMap The map for the kind of string being added.
+     */
+    private void put( String string, GameCommand command, HashMap<String, ArrayList<GameCommand>> kindMap )
+    {
+        if ( string == null )
+        {
+            return;
+        }
+        String key = key( string );
+        ArrayList<GameCommand> claimants = kindMap.get( key );
+        if ( claimants == null )
+        {
+            claimants = new ArrayList<GameCommand>( 1 );
+            kindMap.put( key, claimants );
+        }
+        else if ( claimants.contains( command ) )
+        {
+            return;
+        }
+
+        // Commands are nearly always added at the end of the list, so we look for the place from the back.
+        int position = this.positions.get( command );
+        int index = claimants.size();
+        while ( index > 0 && this.positions.get( claimants.get( index - 1 ) ) > position )
+        {
+            index--;
+        }
+        claimants.add( index, command );
+        this.claimedKeys.get( command ).add( key );
+        this.refresh( key );
+    }
+
+    /**
+     * This helper method will add a command to the table at a given place in the command list.
+     *
+     * @param command The GameCommand object to be added.
+     * @param position The place of the command in the command list.
+     */
+    private void add( GameCommand command, int position )
+    {
+        this.positions.put( command, position );
+        this.claimedKeys.put( command, new ArrayList<String>() );
+        this.put( command.getHotkey(), command, this.commandsByHotkey );
+        this.put( command.getName(), command, this.commandsByName );
+        if ( command instanceof GameAction && ( ( GameAction ) command ).aliasList() != null )
+        {
+            for ( String alias : ( ( GameAction ) command ).aliasList() )
+            {
+                this.put( alias, command, this.commandsByAlias );
+            }
+        }
+    }
+
+    /**
+     * This method will add a command to the table. Commands must be added in the same order they appear in the Engine's
+     * command list.
+     *
+     * @param command The GameCommand object to be added.
+     */
+    public void add( GameCommand command )
+    {
+        this.add( command, this.nextPosition++ );
+    }
+
+    /**
+     * This method will take a command out of the table. Any key the command held passes to the next command that
+     * claims it.
+     *
+     * @param command The GameCommand object to be removed.
+     */
+    public void remove( GameCommand command )
+    {
+        ArrayList<String> keys = this.claimedKeys.remove( command );
+        if ( keys == null )
+        {
+            return;
+        }
+        for ( String key : keys )
+        {
+            this.release( key, command, this.commandsByHotkey );
+            this.release( key, command, this.commandsByName );
+            this.release( key, command, this.commandsByAlias );
+            this.refresh( key );
+        }
+        this.positions.remove( command );
+    }
+
+    /**
+     * This helper method removes a command from the claimants of a key of one kind.
+     *
+     * @param key The key the command claimed.
+     * @param command The GameCommand object giving up the key.
+     * @param kindMap The map for the kind of string being released.
+     */
+    private void release( String key, GameCommand command, HashMap<String, ArrayList<GameCommand>> kindMap )
+    {
+        ArrayList<GameCommand> claimants = kindMap.get( key );
+        if ( claimants != null && claimants.remove( command ) && claimants.isEmpty() )
+        {
+            kindMap.remove( key );
+        }
+    }
+
+    /**
+     * This method must be called when a command in the table has changed its name, hotkey or aliases. Only the keys the
+     * command held before and holds now are looked at again, and the command keeps its place in the command list.
+     *
+     * @param command The GameCommand object that has changed.
+     */
+    public void update( GameCommand command )
+    {
+        Integer position = this.positions.get( command );
+        if ( position != null )
+        {
+            this.remove( command );
+            this.add( command, position );
+        }
+    }
+
+    /**
+     * This method will empty the table and then add every command in a list to it, in order.
+     *
+     * @param commands The list of GameCommand objects the table should hold.
+     */
+    public void rebuild( List<GameCommand> commands )
+    {
+        this.commandsByKey.clear();
+        this.commandsByName.clear();
+        this.commandsByHotkey.clear();
+        this.commandsByAlias.clear();
+        this.completions.clear();
+        this.positions.clear();
+        this.claimedKeys.clear();
+        this.nextPosition = 0;
+        for ( GameCommand command : commands )
+        {
+            this.add( command );
+        }
+    }
+
+    /**
+     * This method will check if a new command would clash with one that is already in the table. A command clashes if
+     * its name matches the name or an alias of an existing command, or if its hotkey matches the hotkey or an alias of an
+     * existing command.
+     *
+     * @param newCommand The GameCommand object to be checked.
+     * @return True if the command clashes with an existing command, false otherwise.
+     */
+    public boolean clashes( GameCommand newCommand )
+    {
+        String name = key( newCommand.getName() );
+        String hotkey = key( newCommand.getHotkey() );
+
+        return this.commandsByName.containsKey( name ) || this.commandsByHotkey.containsKey( hotkey ) ||
+            this.commandsByAlias.containsKey( name ) || this.commandsByAlias.containsKey( hotkey );
+    }
+
+    /**
+     * This method is used to find the command for a string the player typed. An exact name, hotkey or alias is tried
+     * first. If there is none, the string is treated as the start of a name or alias, and the command is returned if it
+     * is the only one that starts that way.
+     *
+     * @param commandString The string the player typed, in any case.
+     * @return The matching GameCommand object, or null if there is none or the string is ambiguous.
+     */
+    public GameCommand find( String commandString )
+    {
+        if ( commandString == null )
+        {
+            return null;
+        }
+        String key = key( commandString );
+        GameCommand command = this.commandsByKey.get( key );
+        if ( command != null || key.length() < MIN_PREFIX_LENGTH )
+        {
+            return command;
+        }
+
+        // Since the completions are sorted, every key that starts with our string sits in one run after it.
+        for ( Map.Entry<String, GameCommand> entry : this.completions.tailMap( key, false ).entrySet() )
+        {
+            if ( !entry.getKey().startsWith( key ) )
+            {
+                break;
+            }
+            if ( command == null )
+            {
+                command = entry.getValue();
+            }
+            else if ( command != entry.getValue() )
+            {
+                // More than one command starts this way, so we can't pick one.
+                return null;
+            }
+        }
+        return command;
+    }
+}
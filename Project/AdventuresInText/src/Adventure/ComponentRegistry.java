@@ -0,0 +1,375 @@
+package Adventure;
+
+import Adventure.API.*;
+
+import Adventure.Validation.*;
+
+import java.util.*;
+
+/**
+ * This class holds every GameComponent that is registered with the Engine. Components are kept in the order they were
+ * registered, and are also indexed by their case-folded name and by each of the API interfaces they implement, so that
+ * looking up a component by name or listing all of the components of a given type does not require scanning every
+ * component in the game.
+ */
+public class ComponentRegistry
+{
+    /**
+     * These are the API types that the registry keeps a separate index for.
+     */
+    private static final Class<?>[] INDEXED_TYPES =
+    { GameAction.class, GameActor.class, GameCommand.class, GameCondition.class, GameContainer.class, GameDialog.class,
+      GameDirection.class, GameEvent.class, GameExit.class, GameHideable.class, GameItem.class, GameLocation.class,
+      GameMap.class, GameMechanic.class, GameObject.class, GamePawn.class, GamePlayer.class, GameSpeaker.class };
+
+    /**
+     * This remembers which of the indexed types each class of component implements, as positions in INDEXED_TYPES, so
+     * that registering a component doesn't have to check it against every indexed type. It is a ClassValue rather than
+     * a map keyed by Class so that it doesn't keep the classes of a map, and their class loader, alive.
+     */
+    private static final ClassValue<int[]> typeIndexes = new ClassValue<int[]>()
+    {
+        @Override
+        protected int[] computeValue( Class<?> componentClass )
+        {
+            int count = 0;
+            int[] found = new int[ INDEXED_TYPES.length ];
+            for ( int i = 0; i < INDEXED_TYPES.length; i++ )
+            {
+                if ( INDEXED_TYPES[ i ].isAssignableFrom( componentClass ) )
+                {
+                    found[ count++ ] = i;
+                }
+            }
+            return Arrays.copyOf( found, count );
+        }
+    };
+
+    private final SnapshotList<GameComponent> components;
+
+    private final HashMap<String, GameComponent> componentsByName;
+
+    private final HashMap<Class<?>, SnapshotList<GameComponent>> componentsByType;
+
+    private final ArrayList<SnapshotList<GameComponent>> typeLists;
+
+    private final ComponentNamespace namespace;
+
+    /**
+     * This constructor creates a new, empty registry.
+     */
+    public ComponentRegistry()
+    {
+        this.components = new SnapshotList<GameComponent>();
+        this.componentsByName = new HashMap<String, GameComponent>();
+        this.componentsByType = new HashMap<Class<?>, SnapshotList<GameComponent>>();
+        this.typeLists = new ArrayList<SnapshotList<GameComponent>>( INDEXED_TYPES.length );
+        this.namespace = new ComponentNamespace();
+
+        for ( Class<?> type : INDEXED_TYPES )
+        {
+            SnapshotList<GameComponent> typeList = new SnapshotList<GameComponent>();
+            this.componentsByType.put( type, typeList );
+            this.typeLists.add( typeList );
+        }
+    }
+
+    /**
+     * This method is used to turn a component name into the key it is stored under. Names are compared without regard to
+     * case everywhere in the engine, so every key is stored in lower case.
+     *
+     * @param componentName The String name to be converted.
+     * @return The key for the given name, or null if the name is null.
+     */
+    static String nameKey( String componentName )
+    {
+        if ( componentName == null )
+        {
+            return null;
+        }
+        return componentName.toLowerCase( Locale.ROOT );
+    }
+
+    /**
+     * This helper method is used to get the positions in INDEXED_TYPES of every indexed type that a class of component
+     * implements. The answer is worked out the first time each class is seen, since loading a saved game registers every
+     * component at once and most of them share a handful of classes.
+     *
+     * @param componentClass The Class of the component.
+     * @return An array holding the positions of the indexed types the class implements.
+     */
+    private static int[] typeIndexes( Class<?> componentClass )
+    {
+        return typeIndexes.get( componentClass );
+    }
+
+    /**
+     * This method will add a component to the registry, as long as there is not already a component with the same name.
+     *
+     * @param newComponent The GameComponent object to be added.
+     * @return True if the component was added, false if its name was already taken.
+     */
+    public boolean add( GameComponent newComponent )
+    {
+        String key = nameKey( newComponent.getName() );
+        if ( this.componentsByName.containsKey( key ) )
+        {
+            return false;
+        }
+
+        this.componentsByName.put( key, newComponent );
+        this.components.add( newComponent );
+        this.namespace.claimAll( newComponent );
+
+        // Now we add the component to the index for every API type that it implements.
+        for ( int typeIndex : typeIndexes( newComponent.getClass() ) )
+        {
+            this.typeLists.get( typeIndex ).add( newComponent );
+        }
+        return true;
+    }
+
+    /**
+     * This method will add every component in a list to the registry, in the order they appear in the list.
+     *
+     * @param newComponents The list of GameComponent objects to be added.
+     */
+    public void addAll( List<GameComponent> newComponents )
+    {
+        for ( GameComponent newComponent : newComponents )
+        {
+            this.add( newComponent );
+        }
+    }
+
+    /**
+     * This method will remove a component from the registry.
+     *
+     * @param component The GameComponent object to be removed.
+     * @return True if the component was found and removed, false otherwise.
+     */
+    public boolean remove( GameComponent component )
+    {
+        if ( !this.components.remove( component ) )
+        {
+            return false;
+        }
+
+        // We only drop the name entry if it still points at this component, in case the name has been reused since.
+        String key = nameKey( component.getName() );
+        if ( this.componentsByName.get( key ) == component )
+        {
+            this.componentsByName.remove( key );
+        }
+        this.namespace.releaseAll( component );
+
+        for ( int typeIndex : typeIndexes( component.getClass() ) )
+        {
+            this.typeLists.get( typeIndex ).remove( component );
+        }
+        return true;
+    }
+
+    /**
+     * This method will remove every component from the registry.
+     */
+    public void clear()
+    {
+        this.components.clear();
+        this.componentsByName.clear();
+        this.namespace.clear();
+        for ( SnapshotList<GameComponent> typeList : this.typeLists )
+        {
+            typeList.clear();
+        }
+    }
+
+    /**
+     * This method must be called whenever a registered component changes its name, so that it can still be found by
+     * its new name.
+     *
+     * @param component The GameComponent object that has been renamed.
+     * @param oldName The String name the component was registered under before it was renamed.
+     */
+    public void rename( GameComponent component, String oldName )
+    {
+        String oldKey = nameKey( oldName );
+        if ( this.componentsByName.get( oldKey ) == component )
+        {
+            this.componentsByName.remove( oldKey );
+            this.componentsByName.put( nameKey( component.getName() ), component );
+
+            this.namespace.release( oldName, component, ComponentNamespace.Kind.NAME );
+            this.namespace.claim( component.getName(), component, ComponentNamespace.Kind.NAME );
+        }
+    }
+
+    /**
+     * This method must be called whenever a registered command changes its hotkey, so that the namespace stays current.
+     *
+     * @param command The GameCommand object whose hotkey has changed.
+     * @param oldHotkey The String hotkey the command had before it was changed.
+     */
+    public void changeHotkey( GameCommand command, String oldHotkey )
+    {
+        if ( this.contains( command ) )
+        {
+            this.namespace.release( oldHotkey, command, ComponentNamespace.Kind.HOTKEY );
+            this.namespace.claim( command.getHotkey(), command, ComponentNamespace.Kind.HOTKEY );
+        }
+    }
+
+    /**
+     * This method must be called whenever a registered action gains an alias, so that the namespace stays current.
+     *
+     * @param action The GameAction object that the alias was added to.
+     * @param alias The String alias that was added.
+     */
+    public void addAlias( GameAction action, String alias )
+    {
+        if ( this.contains( action ) )
+        {
+            this.namespace.claim( alias, action, ComponentNamespace.Kind.ALIAS );
+        }
+    }
+
+    /**
+     * This method must be called whenever a registered action loses an alias, so that the namespace stays current.
+     *
+     * @param action The GameAction object that the alias was removed from.
+     * @param alias The String alias that was removed.
+     */
+    public void removeAlias( GameAction action, String alias )
+    {
+        if ( this.contains( action ) )
+        {
+            this.namespace.release( alias, action, ComponentNamespace.Kind.ALIAS );
+        }
+    }
+
+    /**
+     * This method is used to get the namespace of every name, hotkey and alias used by the registered components.
+     *
+     * @return The ComponentNamespace for this registry.
+     */
+    public ComponentNamespace namespace()
+    {
+        return this.namespace;
+    }
+
+    /**
+     * This method is used to get the component with a given name.
+     *
+     * @param componentName The String name of the component, in any case.
+     * @return The GameComponent with the given name, or null if none is found.
+     */
+    public GameComponent get( String componentName )
+    {
+        if ( componentName == null )
+        {
+            return null;
+        }
+        return this.componentsByName.get( nameKey( componentName ) );
+    }
+
+    /**
+     * This method is used to get the component with a given name, but only if it is an instance of the given type.
+     *
+     * @param componentName The String name of the component, in any case.
+     * @param type The class or interface the component must implement.
+     * @return The GameComponent with the given name and type, or null if none is found.
+     */
+    public <T> T get( String componentName, Class<T> type )
+    {
+        GameComponent component = this.get( componentName );
+        if ( type.isInstance( component ) )
+        {
+            return type.cast( component );
+        }
+        return null;
+    }
+
+    /**
+     * This method will check if a component is currently registered.
+     *
+     * @param component The GameComponent object to check for.
+     * @return True if the component is registered, false otherwise.
+     */
+    public boolean contains( GameComponent component )
+    {
+        return component != null && this.get( component.getName() ) == component;
+    }
+
+    /**
+     * This method is used to get the number of components that are registered.
+     *
+     * @return The number of registered components.
+     */
+    public int size()
+    {
+        return this.components.size();
+    }
+
+    /**
+     * This method is used to get a copy of the list of registered components, in the order they were registered.
+     *
+     * @return A list of every registered GameComponent object.
+     */
+    public ArrayList<GameComponent> list()
+    {
+        return this.components.copy();
+    }
+
+    /**
+     * This method is used to get a read-only snapshot of the registered components, in the order they were registered.
+     * The same snapshot is handed out until a component is added or removed, so looping over it costs no allocation.
+     *
+     * @return An unmodifiable list of every registered GameComponent object.
+     */
+    public List<GameComponent> view()
+    {
+        return this.components.snapshot();
+    }
+
+    /**
+     * This method is used to get a read-only snapshot of every registered component that is an instance of the given
+     * API interface. Types that are not indexed are answered with a new list built by scanning every component.
+     *
+     * @param type The class or interface the components must implement.
+     * @return An unmodifiable list of the matching components.
+     */
+    @SuppressWarnings( "unchecked" )
+    public <T> List<T> view( Class<T> type )
+    {
+        SnapshotList<GameComponent> indexedList = this.componentsByType.get( type );
+        if ( indexedList != null )
+        {
+            // Every component in an indexed list is known to implement the type, so the cast is safe.
+            return ( List<T> ) indexedList.snapshot();
+        }
+        return Collections.unmodifiableList( this.list( type ) );
+    }
+
+    /**
+     * This method is used to get a list of every registered component that is an instance of the given type, in the
+     * order they were registered. Any of the API interfaces is answered from its index; other types are found by
+     * scanning the full list.
+     *
+     * @param type The class or interface the components must implement.
+     * @return A list of the matching components.
+     */
+    public <T> ArrayList<T> list( Class<T> type )
+    {
+        ArrayList<T> typeList = new ArrayList<T>();
+        SnapshotList<GameComponent> indexedList = this.componentsByType.get( type );
+
+        for ( GameComponent component : ( indexedList != null ? indexedList : this.components ).snapshot() )
+        {
+            if ( type.isInstance( component ) )
+            {
+                typeList.add( type.cast( component ) );
+            }
+        }
+        return typeList;
+    }
+}
@@ -1,5 +1,7 @@
 package Adventure.Condition;
 
+import Adventure.*;
+
 import Adventure.API.*;
 
 import Adventure.Base.*;
@@ -57,4 +59,17 @@ public class ComponentHasText
         }
         return false;
     }
+
+    /**
+     * This condition only reads the named status of the GameComponent, so events using it only need to be checked again
+     * when that changes.
+     *
+     * @param tracker The EventTracker to declare the dependencies with.
+     * @return True, since every dependency has been declared.
+     */
+    public boolean declareDependencies( EventTracker tracker )
+    {
+        tracker.dependsOnStatus( this.component, this.textName );
+        return true;
+    }
 }
@@ -1,5 +1,7 @@
 package Adventure.Condition;
 
+import Adventure.*;
+
 import Adventure.API.*;
 
 import Adventure.Base.*;
@@ -57,4 +59,17 @@ public class ComponentNameEquals
         }
         return false;
     }
+
+    /**
+     * This condition only reads the name of the GameComponent, so events using it only need to be checked again when
+     * that changes.
+     *
+     * @param tracker The EventTracker to declare the dependencies with.
+     * @return True, since every dependency has been declared.
+     */
+    public boolean declareDependencies( EventTracker tracker )
+    {
+        tracker.dependsOnName( this.component );
+        return true;
+    }
 }
@@ -1,5 +1,7 @@
 package Adventure.Condition;
 
+import Adventure.*;
+
 import Adventure.API.*;
 
 import Adventure.Base.*;
@@ -119,4 +121,17 @@ public class ComponentStatusComparison
         }
         return result;
     }
+
+    /**
+     * This condition only reads the named status of the GameComponent, so events using it only need to be checked again
+     * when that changes.
+     *
+     * @param tracker The EventTracker to declare the dependencies with.
+     * @return True, since every dependency has been declared.
+     */
+    public boolean declareDependencies( EventTracker tracker )
+    {
+        tracker.dependsOnStatus( this.component, this.statusName );
+        return true;
+    }
 }
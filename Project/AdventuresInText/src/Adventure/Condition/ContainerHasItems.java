@@ -1,5 +1,7 @@
 package Adventure.Condition;
 
+import Adventure.*;
+
 import Adventure.API.*;
 
 import Adventure.Base.*;
@@ -94,4 +96,18 @@ public class ContainerHasItems
         }
         return false;
     }
+
+    /**
+     * This condition only reads the items in the GameContainer and whether the GameItem is hidden, so events using it
+     * only need to be checked again when that changes.
+     *
+     * @param tracker The EventTracker to declare the dependencies with.
+     * @return True, since every dependency has been declared.
+     */
+    public boolean declareDependencies( EventTracker tracker )
+    {
+        tracker.dependsOnItems( this.container );
+        tracker.dependsOnStatus( this.item, "hidden" );
+        return true;
+    }
 }
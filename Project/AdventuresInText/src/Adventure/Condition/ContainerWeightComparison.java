@@ -1,5 +1,7 @@
 package Adventure.Condition;
 
+import Adventure.*;
+
 import Adventure.API.*;
 
 import Adventure.Base.*;
@@ -112,4 +114,17 @@ public class ContainerWeightComparison
         }
         return result;
     }
+
+    /**
+     * This condition only reads the items in the GameContainer, so events using it only need to be checked again when
+     * that changes.
+     *
+     * @param tracker The EventTracker to declare the dependencies with.
+     * @return True, since every dependency has been declared.
+     */
+    public boolean declareDependencies( EventTracker tracker )
+    {
+        tracker.dependsOnItems( this.container );
+        return true;
+    }
 }
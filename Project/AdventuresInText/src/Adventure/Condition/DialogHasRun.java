@@ -1,5 +1,7 @@
 package Adventure.Condition;
 
+import Adventure.*;
+
 import Adventure.API.*;
 
 import Adventure.Base.*;
@@ -53,4 +55,17 @@ public class DialogHasRun
         }
         return false;
     }
+
+    /**
+     * This condition only reads the "has run" status of the GameDialog, so events using it only need to be checked
+     * again when that changes.
+     *
+     * @param tracker The EventTracker to declare the dependencies with.
+     * @return True, since every dependency has been declared.
+     */
+    public boolean declareDependencies( EventTracker tracker )
+    {
+        tracker.dependsOnStatus( this.dialog, "has run" );
+        return true;
+    }
 }
@@ -1,5 +1,7 @@
 package Adventure.Condition;
 
+import Adventure.*;
+
 import Adventure.API.*;
 
 import Adventure.Base.*;
@@ -58,4 +60,17 @@ public class DialogHasRunBranch
         }
         return false;
     }
+
+    /**
+     * This condition only reads the status of the GameDialog for the branch, so events using it only need to be checked
+     * again when that changes.
+     *
+     * @param tracker The EventTracker to declare the dependencies with.
+     * @return True, since every dependency has been declared.
+     */
+    public boolean declareDependencies( EventTracker tracker )
+    {
+        tracker.dependsOnStatus( this.dialog, this.branchName );
+        return true;
+    }
 }
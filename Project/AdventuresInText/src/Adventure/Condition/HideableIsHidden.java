@@ -1,5 +1,7 @@
 package Adventure.Condition;
 
+import Adventure.*;
+
 import Adventure.API.*;
 
 import Adventure.Base.*;
@@ -53,4 +55,21 @@ public class HideableIsHidden
         }
         return false;
     }
+
+    /**
+     * This condition only reads the "hidden" status of the GameHideable, so events using it only need to be checked
+     * again when that changes.
+     *
+     * @param tracker The EventTracker to declare the dependencies with.
+     * @return True if the dependencies could be declared, false if the GameHideable is not a GameComponent.
+     */
+    public boolean declareDependencies( EventTracker tracker )
+    {
+        if ( this.gameHideable instanceof GameComponent )
+        {
+            tracker.dependsOnStatus( ( GameComponent ) this.gameHideable, "hidden" );
+            return true;
+        }
+        return false;
+    }
 }
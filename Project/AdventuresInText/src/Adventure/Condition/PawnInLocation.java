@@ -1,5 +1,7 @@
 package Adventure.Condition;
 
+import Adventure.*;
+
 import Adventure.API.*;
 
 import Adventure.Base.*;
@@ -61,4 +63,17 @@ public class PawnInLocation
         }
         return false;
     }
+
+    /**
+     * This condition only reads the location of the GamePawn, so events using it only need to be checked again when
+     * that changes.
+     *
+     * @param tracker The EventTracker to declare the dependencies with.
+     * @return True, since every dependency has been declared.
+     */
+    public boolean declareDependencies( EventTracker tracker )
+    {
+        tracker.dependsOnLocation( this.pawn );
+        return true;
+    }
 }
@@ -127,4 +127,21 @@ public class PlayerMovesInRange
         }
         return false;
     }
+
+    /**
+     * When a player is given, this condition only reads the "moves" status of that player. When the current player is
+     * used instead, the player can change at any time, so nothing is declared and the condition is checked every turn.
+     *
+     * @param tracker The EventTracker to declare the dependencies with.
+     * @return True if a player is given, false otherwise.
+     */
+    public boolean declareDependencies( EventTracker tracker )
+    {
+        if ( this.player == null )
+        {
+            return false;
+        }
+        tracker.dependsOnStatus( this.player, "moves" );
+        return true;
+    }
 }
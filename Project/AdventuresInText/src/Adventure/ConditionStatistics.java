@@ -0,0 +1,153 @@
+package Adventure;
+
+import Adventure.API.*;
+
+import java.util.*;
+
+/**
+ * This class holds the statistics that have been gathered for a single condition while the game has been running: how
+ * many times it has been checked, how often it passed, and roughly how long each check takes. Events use these numbers
+ * to decide which of their conditions to check first, and map designers can use them to find the conditions that are
+ * costing the most time each turn.
+ */
+public class ConditionStatistics
+{
+    private final GameCondition condition;
+
+    private final long checks;
+
+    private final long passes;
+
+    private final double averageNanos;
+
+    /**
+     * This constructor creates a new set of statistics for a condition.
+     *
+     * @param condition The GameCondition object the statistics are for.
+     * @param checks The number of times the condition has been checked.
+     * @param passes The number of those checks that passed.
+     * @param averageNanos The average time taken by a single check, in nanoseconds.
+     */
+    public ConditionStatistics( GameCondition condition, long checks, long passes, double averageNanos )
+    {
+        this.condition = condition;
+        this.checks = checks;
+        this.passes = passes;
+        this.averageNanos = averageNanos;
+    }
+
+    /**
+     * This method is used to work out where a condition belongs in a list of conditions that must all pass. The best
+     * condition to check first is the one that costs the least for each time it fails, since a failure means the rest
+     * of the list does not need to be checked. Conditions that have never failed are checked last. A condition that has
+     * never been checked has no rank yet, since nothing is known about it.
+     *
+     * @param averageNanos The average time taken by a single check, in nanoseconds.
+     * @param checks The number of times the condition has been checked.
+     * @param passes The number of those checks that passed.
+     * @return The rank of the condition, where conditions with a lower rank should be checked first, or Double.NaN if
+     *         the condition has never been checked.
+     */
+    public static double rank( double averageNanos, long checks, long passes )
+    {
+        if ( checks == 0 )
+        {
+            return Double.NaN;
+        }
+        long failures = checks - passes;
+        if ( failures == 0 )
+        {
+            return Double.MAX_VALUE;
+        }
+        return averageNanos * checks / failures;
+    }
+
+    /**
+     * This method is used to get the condition that these statistics are for.
+     *
+     * @return The GameCondition object these statistics are for.
+     */
+    public GameCondition getCondition()
+    {
+        return this.condition;
+    }
+
+    /**
+     * This method is used to get the number of times the condition has been checked.
+     *
+     * @return The number of checks.
+     */
+    public long getChecks()
+    {
+        return this.checks;
+    }
+
+    /**
+     * This method is used to get the number of times the condition has passed.
+     *
+     * @return The number of checks that passed.
+     */
+    public long getPasses()
+    {
+        return this.passes;
+    }
+
+    /**
+     * This method is used to get the share of checks that passed.
+     *
+     * @return A value from 0.0 to 1.0, or 0.0 if the condition has never been checked.
+     */
+    public double getPassRate()
+    {
+        if ( this.checks == 0 )
+        {
+            return 0.0;
+        }
+        return ( double ) this.passes / this.checks;
+    }
+
+    /**
+     * This method is used to get the average time taken by a single check of the condition. Only some of the checks are
+     * timed, so this is an estimate.
+     *
+     * @return The average time for one check, in nanoseconds.
+     */
+    public double getAverageNanos()
+    {
+        return this.averageNanos;
+    }
+
+    /**
+     * This method is used to get an estimate of the total time that has been spent checking the condition.
+     *
+     * @return The estimated total time, in nanoseconds.
+     */
+    public double getTotalNanos()
+    {
+        return this.averageNanos * this.checks;
+    }
+
+    /**
+     * This method is used to get the rank of the condition, which is used to decide which conditions of an event are
+     * checked first.
+     *
+     * @return The rank of the condition, where conditions with a lower rank are checked first, or Double.NaN if the
+     *         condition has never been checked.
+     */
+    public double getRank()
+    {
+        return rank( this.averageNanos, this.checks, this.passes );
+    }
+
+    /**
+     * This method will return a single line describing these statistics, which is suitable for showing to a map
+     * designer.
+     *
+     * @return A String describing these statistics.
+     */
+    public String toString()
+    {
+        return String.format( Locale.ROOT, "%-30s %10d checks %6.1f%% passed %10.1f ns/check", this.condition.getName(),
+                              this.checks, this.getPassRate() * 100.0, this.averageNanos );
+    }
+}
@@ -2,18 +2,29 @@ package Adventure;
 
 import Adventure.API.*;
 
+import Adventure.Base.*;
+import Adventure.Base.Utility.*;
+
 import Adventure.Command.*;
 
 import Adventure.Demo.*;
 
+import Adventure.Validation.*;
+
 import java.io.*;
 
+import java.nio.*;
+import java.nio.file.*;
+
 import java.util.*;
 
 /**
  * This class represents is the core of the entire application. It handles all of the components for the game, loading and
  * saving game states, gathering input and output, and more. Pretty much everything that happens within the entire application
  * first gets checked through the engine.
+ *
+ * The state of the game is kept in the GameSession of the thread that calls the Engine, so many games can be played at
+ * once, each in its own session.
  */
 public class Engine
     implements Serializable
@@ -23,42 +34,30 @@ public class Engine
 
     public static final String SAVE_EXT = "adv";
 
+    /**
+     * Games are saved in a compact binary format, in files with this extension. Saved games with SAVE_EXT were written
+     * with Java serialization by older versions, and can still be loaded.
+     */
+    public static final String BINARY_SAVE_EXT = "sav";
+
+    /**
+     * When journaling is turned on, the changes made to a saved game after it is saved are kept in a journal file with
+     * this extension, next to the saved game.
+     */
+    public static final String JOURNAL_EXT = "jnl";
+
     private ArrayList<GameComponent> activeComponents;
 
     private GamePlayer activePlayer;
 
     private String saveName;
 
-    private static boolean quit;
-
-    private static boolean gameInProgress;
-
-    private static ArrayList<GameCommand> commands;
-
-    private static ArrayList<GameEvent> events;
-
-    private static ArrayList<GameComponent> masterComponentList;
-
-    private static GamePlayer currentPlayer;
-
     private static Thread mainThread;
 
     static
     {
         // Though unused in the current GUI, we get a handle on the main thread in case future GUI's require it.
         mainThread = Thread.currentThread();
-
-        // Here we initialize our static ArrayList objects
-        commands = new ArrayList<GameCommand>();
-        events = new ArrayList<GameEvent>();
-        masterComponentList = new ArrayList<GameComponent>();
-
-        // We will also explicitly set out marker variables.
-        quit = false;
-        gameInProgress = false;
-
-        // This call to initializeEngine() is used to load in the core commands and to set the game state to its default.
-        initializeEngine();
     }
 
     private Engine()
@@ -69,6 +68,14 @@ public class Engine
         this.saveName = "";
     }
 
+    private Engine( SaveCodec savedGame )
+    {
+        this.activeComponents = savedGame.getComponents();
+        this.activePlayer = savedGame.getActivePlayer();
+
+        this.saveName = savedGame.getSaveName();
+    }
+
     /**
      * This method is used to get an input string from the current IOUtility and passes it to the Processor to be processed.
      */
@@ -86,14 +93,7 @@ public class Engine
      */
     public static GameComponent getComponent( String componentName )
     {
-        for ( GameComponent component : componentList() )
-        {
-            if ( component.getName().equalsIgnoreCase( componentName ) )
-            {
-                return component;
-            }
-        }
-        return null;
+        return session().registry.get( componentName );
     }
     
     /**
@@ -393,12 +393,7 @@ public class Engine
      */
     public static boolean hasComponent( String componentName )
     {
-        GameComponent component = getComponent( componentName );
-        if ( component.getName().equalsIgnoreCase( componentName ) )
-        {
-            return true;
-        }
-        return false;
+        return getComponent( componentName ) != null;
     }
     
     /**
@@ -410,12 +405,7 @@ public class Engine
      */
     public static boolean hasAction( String actionName )
     {
-        GameComponent component = getComponent( actionName );
-        if ( component.getName().equalsIgnoreCase( actionName ) && component instanceof GameAction )
-        {
-            return true;
-        }
-        return false;
+        return getAction( actionName ) != null;
     }
     
     /**
@@ -427,12 +417,7 @@ public class Engine
      */
     public static boolean hasActor( String actorName )
     {
-        GameComponent component = getComponent( actorName );
-        if ( component.getName().equalsIgnoreCase( actorName ) && component instanceof GameActor )
-        {
-            return true;
-        }
-        return false;
+        return getActor( actorName ) != null;
     }
     
     /**
@@ -444,12 +429,7 @@ public class Engine
      */
     public static boolean hasCommand( String commandName )
     {
-        GameComponent component = getComponent( commandName );
-        if ( component.getName().equalsIgnoreCase( commandName ) && component instanceof GameCommand )
-        {
-            return true;
-        }
-        return false;
+        return getCommand( commandName ) != null;
     }
     
     /**
@@ -461,12 +441,7 @@ public class Engine
      */
     public static boolean hasCondition( String conditionName )
     {
-        GameComponent component = getComponent( conditionName );
-        if ( component.getName().equalsIgnoreCase( conditionName ) && component instanceof GameCondition )
-        {
-            return true;
-        }
-        return false;
+        return getCondition( conditionName ) != null;
     }
     
     /**
@@ -478,12 +453,7 @@ public class Engine
      */
     public static boolean hasContainer( String containerName )
     {
-        GameComponent component = getComponent( containerName );
-        if ( component.getName().equalsIgnoreCase( containerName ) && component instanceof GameContainer )
-        {
-            return true;
-        }
-        return false;
+        return getContainer( containerName ) != null;
     }
     
     /**
@@ -495,12 +465,7 @@ public class Engine
      */
     public static boolean hasDialog( String dialogName )
     {
-        GameComponent component = getComponent( dialogName );
-        if ( component.getName().equalsIgnoreCase( dialogName ) && component instanceof GameDialog )
-        {
-            return true;
-        }
-        return false;
+        return getDialog( dialogName ) != null;
     }
     
     /**
@@ -512,12 +477,7 @@ public class Engine
      */
     public static boolean hasDirection( String directionName )
     {
-        GameComponent component = getComponent( directionName );
-        if ( component.getName().equalsIgnoreCase( directionName ) && component instanceof GameDirection )
-        {
-            return true;
-        }
-        return false;
+        return getDirection( directionName ) != null;
     }
     
     /**
@@ -529,12 +489,7 @@ public class Engine
      */
     public static boolean hasEvent( String eventName )
     {
-        GameComponent component = getComponent( eventName );
-        if ( component.getName().equalsIgnoreCase( eventName ) && component instanceof GameEvent )
-        {
-            return true;
-        }
-        return false;
+        return getEvent( eventName ) != null;
     }
     
     /**
@@ -546,12 +501,7 @@ public class Engine
      */
     public static boolean hasHideable( String hideableName )
     {
-        GameComponent component = getComponent( hideableName );
-        if ( component.getName().equalsIgnoreCase( hideableName ) && component instanceof GameHideable )
-        {
-            return true;
-        }
-        return false;
+        return getHideable( hideableName ) != null;
     }
     
     /**
@@ -563,12 +513,7 @@ public class Engine
      */
     public static boolean hasItem( String itemName )
     {
-        GameComponent component = getComponent( itemName );
-        if ( component.getName().equalsIgnoreCase( itemName ) && component instanceof GameItem )
-        {
-            return true;
-        }
-        return false;
+        return getItem( itemName ) != null;
     }
     
     /**
@@ -580,12 +525,7 @@ public class Engine
      */
     public static boolean hasLocation( String locationName )
     {
-        GameComponent component = getComponent( locationName );
-        if ( component.getName().equalsIgnoreCase( locationName ) && component instanceof GameLocation )
-        {
-            return true;
-        }
-        return false;
+        return getLocation( locationName ) != null;
     }
     
     /**
@@ -597,12 +537,7 @@ public class Engine
      */
     public static boolean hasMap( String mapName )
     {
-        GameComponent component = getComponent( mapName );
-        if ( component.getName().equalsIgnoreCase( mapName ) && component instanceof GameMap )
-        {
-            return true;
-        }
-        return false;
+        return getMap( mapName ) != null;
     }
     
     /**
@@ -614,12 +549,7 @@ public class Engine
      */
     public static boolean hasMechanic( String mechanicName )
     {
-        GameComponent component = getComponent( mechanicName );
-        if ( component.getName().equalsIgnoreCase( mechanicName ) && component instanceof GameMechanic )
-        {
-            return true;
-        }
-        return false;
+        return getMechanic( mechanicName ) != null;
     }
     
     /**
@@ -631,12 +561,7 @@ public class Engine
      */
     public static boolean hasObject( String objectName )
     {
-        GameComponent component = getComponent( objectName );
-        if ( component.getName().equalsIgnoreCase( objectName ) && component instanceof GameObject )
-        {
-            return true;
-        }
-        return false;
+        return getObject( objectName ) != null;
     }
     
     /**
@@ -648,12 +573,7 @@ public class Engine
      */
     public static boolean hasPawn( String pawnName )
     {
-        GameComponent component = getComponent( pawnName );
-        if ( component.getName().equalsIgnoreCase( pawnName ) && component instanceof GamePawn )
-        {
-            return true;
-        }
-        return false;
+        return getPawn( pawnName ) != null;
     }
     
     /**
@@ -665,12 +585,7 @@ public class Engine
      */
     public static boolean hasPlayer( String playerName )
     {
-        GameComponent component = getComponent( playerName );
-        if ( component.getName().equalsIgnoreCase( playerName ) && component instanceof GamePlayer )
-        {
-            return true;
-        }
-        return false;
+        return getPlayer( playerName ) != null;
     }
     
     /**
@@ -682,12 +597,7 @@ public class Engine
      */
     public static boolean hasSpeaker( String speakerName )
     {
-        GameComponent component = getComponent( speakerName );
-        if ( component.getName().equalsIgnoreCase( speakerName ) && component instanceof GameSpeaker )
-        {
-            return true;
-        }
-        return false;
+        return getSpeaker( speakerName ) != null;
     }
     
     /**
@@ -695,7 +605,7 @@ public class Engine
      */
     public static void showOutput()
     {
-        if ( gameInProgress )
+        if ( session().gameInProgress )
         {
             IO.display( "What would you like to do?\n" );
         }
@@ -722,14 +632,20 @@ public class Engine
      */
     public static void initializeEngine()
     {
-        gameInProgress = false;
-        currentPlayer = null;
-        commands.clear();
-        events.clear();
-        if ( !masterComponentList.isEmpty() )
-        {
-            masterComponentList.clear();
-        }
+        GameSession session = session();
+
+        session.gameInProgress = false;
+        session.currentPlayer = null;
+        session.currentMap = null;
+        session.baseline.clear();
+        closeJournal();
+        // The classes of the next map may come from a different JAR archive, so the classes of this one are forgotten.
+        session.savedClasses = new HashMap<String, Class<?>>();
+        session.commands.clear();
+        session.dispatcher.rebuild( session.commands.snapshot() );
+        session.events.clear();
+        session.tracker.clear();
+        session.registry.clear();
         initializeCommands();
     }
 
@@ -743,19 +659,33 @@ public class Engine
         return mainThread;
     }
 
+    /**
+     * This helper method is used to get the session of the thread that is calling the Engine, which holds the state of
+     * the game being played on that thread.
+     *
+     * @return The current GameSession.
+     */
+    private static GameSession session()
+    {
+        return GameSession.current();
+    }
+
     /**
      * This method will clear out the currently active command list and reload it with only the most important system commands.
      */
     private static void initializeCommands()
     {
-        if ( !commands.isEmpty() )
+        GameSession session = session();
+
+        if ( !session.commands.isEmpty() )
         {
-            commands.clear();
+            session.commands.clear();
         }
-        commands.add( new Help() );
-        commands.add( new Quit() );
-        commands.add( new New() );
-        commands.add( new Load() );
+        session.commands.add( new Help() );
+        session.commands.add( new Quit() );
+        session.commands.add( new New() );
+        session.commands.add( new Load() );
+        session.dispatcher.rebuild( session.commands.snapshot() );
     }
 
     /**
@@ -808,32 +738,13 @@ public class Engine
      */
     public static void addCommand( GameCommand newCommand )
     {
-        boolean add = true;
-        for ( GameCommand command : commands )
-        {
-            if ( command.getName().equalsIgnoreCase( newCommand.getName() ) ||
-                 command.getHotkey().equalsIgnoreCase( newCommand.getHotkey() ) )
-            {
-                add = false;
-            }
-            if ( command instanceof GameAction )
-            {
-                GameAction action = ( GameAction ) command;
-                for ( String alias : action.aliasList() )
-                {
-                    if ( alias.equalsIgnoreCase( newCommand.getName() ) ||
-                         alias.equalsIgnoreCase( newCommand.getHotkey() ) )
-                    {
-                        add = false;
-                        break;
-                    }
-                }
-            }
-        }
+        GameSession session = session();
 
-        if ( add )
+        // We only add the command if its name and hotkey don't clash with a command that is already in place.
+        if ( !session.dispatcher.clashes( newCommand ) )
         {
-            commands.add( newCommand );
+            session.commands.add( newCommand );
+            session.dispatcher.add( newCommand );
         }
     }
 
@@ -857,18 +768,16 @@ public class Engine
      */
     public static void addEvent( GameEvent newEvent )
     {
-        boolean add = true;
-        for ( GameEvent event : events )
-        {
-            if ( event.getName().equalsIgnoreCase( newEvent.getName() ) )
-            {
-                add = false;
-            }
-        }
+        GameSession session = session();
 
-        if ( add )
+        // Every event in the events list is tracked, and names are unique, so the registry tells us which event already
+        // uses the name without searching the list.
+        GameEvent namedEvent = session.registry.get( newEvent.getName(), GameEvent.class );
+        if ( !session.tracker.isTracking( newEvent ) &&
+            ( namedEvent == null || !session.tracker.isTracking( namedEvent ) ) )
         {
-            events.add( newEvent );
+            session.events.add( newEvent );
+            session.tracker.track( newEvent );
         }
     }
 
@@ -896,7 +805,7 @@ public class Engine
         IO.addLine( endingText );
 
         // If there is not a game in progress we will exit the application entirely.
-        if ( !gameInProgress )
+        if ( !session().gameInProgress )
         {
             // Here will prompt the player to press enter before quitting.
             IO.add( "Press enter to close this window..." );
@@ -925,7 +834,7 @@ public class Engine
      */
     public static boolean gameOver()
     {
-        if ( quit )
+        if ( session().quit )
         {
             return true;
         }
@@ -939,9 +848,51 @@ public class Engine
      */
     protected static ArrayList<GameEvent> eventList()
     {
-        ArrayList<GameEvent> eventList = new ArrayList<GameEvent>();
-        eventList.addAll( events );
-        return eventList;
+        return session().events.copy();
+    }
+
+    /**
+     * This method will get a read-only view of the GameEvents that are currently in place. The view is only rebuilt when
+     * an event is added or the events are reloaded, so it can be looped over every turn without making a copy.
+     *
+     * @return An unmodifiable list of GameEvent objects
+     */
+    public static List<GameEvent> eventView()
+    {
+        return session().events.snapshot();
+    }
+
+    /**
+     * This method is used by map designers to find the conditions that have cost the most time since the game started.
+     * The time for each condition is estimated from its average cost and the number of times it has been checked.
+     *
+     * @param count The largest number of conditions to return.
+     * @return A list of statistics for the most expensive conditions, starting with the most expensive.
+     */
+    public static ArrayList<ConditionStatistics> hotConditions( int count )
+    {
+        ArrayList<ConditionStatistics> statistics = new ArrayList<ConditionStatistics>();
+        for ( GameCondition condition : componentView( GameCondition.class ) )
+        {
+            if ( condition instanceof BaseCondition )
+            {
+                statistics.add( ( ( BaseCondition ) condition ).getStatistics() );
+            }
+        }
+
+        Collections.sort( statistics, new Comparator<ConditionStatistics>()
+        {
+            public int compare( ConditionStatistics first, ConditionStatistics second )
+            {
+                return Double.compare( second.getTotalNanos(), first.getTotalNanos() );
+            }
+        } );
+
+        while ( statistics.size() > Math.max( count, 0 ) )
+        {
+            statistics.remove( statistics.size() - 1 );
+        }
+        return statistics;
     }
 
     /**
@@ -951,18 +902,35 @@ public class Engine
      */
     protected static ArrayList<GameCommand> commandList()
     {
-        ArrayList<GameCommand> commandList = new ArrayList<GameCommand>();
-        commandList.addAll( commands );
-        return commands;
+        return session().commands.copy();
+    }
+
+    /**
+     * This method will get a read-only view of the GameCommand objects that are currently in place. The view is only
+     * rebuilt when a command is added or the commands are reloaded, so it can be looped over without making a copy.
+     *
+     * @return An unmodifiable list of GameCommand objects
+     */
+    public static List<GameCommand> commandView()
+    {
+        return session().commands.snapshot();
     }
 
     /**
-     * This method is used to mark the game as quit.
+     * This method is used to mark the game as quit. When the game is being played in the default session the whole
+     * application is closed, otherwise gameOver() will return true and the game loop of the session can finish.
      */
     public static final void quit()
     {
-        quit = true;
-        System.exit( 0 );
+        session().quit = true;
+        closeJournal();
+        closeAutoSave();
+
+        // Only the default session owns the whole application. Any other session just stops its game loop.
+        if ( session().isDefault() )
+        {
+            System.exit( 0 );
+        }
     }
 
     /**
@@ -972,7 +940,16 @@ public class Engine
      */
     public static void removeComponent( GameComponent component )
     {
-        masterComponentList.remove( component );
+        GameSession session = session();
+
+        if ( session.registry.remove( component ) )
+        {
+            session.baseline.removed( component );
+            if ( session.journal != null )
+            {
+                session.journal.removed( component );
+            }
+        }
     }
 
     /**
@@ -982,12 +959,10 @@ public class Engine
      */
     public static void removeComponent( String componentName )
     {
-        for ( GameComponent component : componentList() )
+        GameComponent component = session().registry.get( componentName );
+        if ( component != null )
         {
-            if ( component.getName().equalsIgnoreCase( componentName ) )
-            {
-                masterComponentList.remove( component );
-            }
+            removeComponent( component );
         }
     }
 
@@ -998,128 +973,602 @@ public class Engine
      */
     public static void addComponent( GameComponent newComponent )
     {
-        boolean add = true;
-        for ( GameComponent component : masterComponentList )
+        GameSession session = session();
+
+        // The registry will refuse the component if another one has already been registered with the same name.
+        if ( session.registry.add( newComponent ) )
         {
-            if ( component.getName().equalsIgnoreCase( newComponent.getName() ) )
+            session.baseline.added( newComponent );
+            if ( session.journal != null )
             {
-                add = false;
+                session.journal.added( newComponent );
             }
         }
+    }
+
+    /**
+     * This method must be called when a component that has already been registered changes its name, so that the
+     * master list can still find it by its new name.
+     *
+     * @param component The GameComponent object that has been renamed.
+     * @param oldName The String name the component had before it was renamed.
+     */
+    public static void renameComponent( GameComponent component, String oldName )
+    {
+        session().registry.rename( component, oldName );
+        commandChanged( component );
+        session().tracker.nameChanged( component );
+        trackChange( component );
+
+        // Locations find their exits by the names of the exits and their directions.
+        if ( component instanceof GameExit || component instanceof GameDirection )
+        {
+            LocationExitUtility.exitsChanged();
+        }
+
+        // Locations also find their pawns by name.
+        if ( component instanceof GamePawn )
+        {
+            LocationPawnUtility.pawnsChanged();
+        }
 
-        if ( add )
+        // Containers look up their items by name, so every container holding a renamed item needs to know about it.
+        if ( component instanceof GameItem )
         {
-            masterComponentList.add( newComponent );
+            GameItem item = ( GameItem ) component;
+            for ( GameContainer container : item.getContainerList() )
+            {
+                container.itemRenamed( item, oldName );
+            }
         }
     }
 
     /**
-     * This method is used to get a copy of the master component list.
+     * This method must be called when a command that has already been registered changes its hotkey, so that the new
+     * hotkey is taken into account when validating names.
      *
-     * @return A list of GameComponent objects that are currently available.
+     * @param command The GameCommand object whose hotkey has changed.
+     * @param oldHotkey The String hotkey the command had before it was changed.
      */
-    public static ArrayList<GameComponent> componentList()
+    public static void hotkeyChanged( GameCommand command, String oldHotkey )
     {
-        ArrayList<GameComponent> componentList = new ArrayList<GameComponent>();
-        componentList.addAll( masterComponentList );
-        return componentList;
+        session().registry.changeHotkey( command, oldHotkey );
+        commandChanged( command );
+        trackChange( command );
     }
-    
+
     /**
-     * This method will take a GameMap object and load it into the engine so that the map can be played.
+     * This method must be called when an alias is added to an action that has already been registered, so that the new
+     * alias is taken into account when validating names.
      *
-     * @param newMap The GameMap object to be set up.
+     * @param action The GameAction object that the alias was added to.
+     * @param alias The String alias that was added.
      */
-    public static void setupLevel( GameMap newMap )
+    public static void aliasAdded( GameAction action, String alias )
     {
-        // First we need to load in any commands and directions for the map
-        newMap.buildMapCommands();
-        reloadCommands();
-
-        // Next we need to set up the locations that exist within the map and all of their subcomponents.
-        newMap.buildMapLocations();
-
-        // Now we need to designate who the current player is.
-        switchPlayer( newMap.getCurrentPlayer() );
-
-        // Here we initialize all of the events and conditions for the map.
-        newMap.buildMapMechanics();
-        reloadEvents();
-
-        // After the game loads we run the postProcessEvents method to initialize kick of any initial events.
-        Processor.enginePostProcessing = true;
-        Processor.postProcessEvents( null );
-
-        // Here we mark the game as being in progress.
-        gameInProgress = true;
-
-        // Finally, we describe the player's location to them and the game can begin.
-        currentPlayer.getLocation().describe();
+        session().registry.addAlias( action, alias );
+        commandChanged( action );
+        trackChange( action );
     }
 
     /**
-     * This method is used to get a reference to the current player.
+     * This method must be called when an alias is removed from an action that has already been registered.
      *
-     * @return A reference to the current player.
+     * @param action The GameAction object that the alias was removed from.
+     * @param alias The String alias that was removed.
      */
-    public static GamePlayer currentPlayer()
+    public static void aliasRemoved( GameAction action, String alias )
     {
-        return currentPlayer;
+        session().registry.removeAlias( action, alias );
+        commandChanged( action );
+        trackChange( action );
     }
 
     /**
-     * This method is used to assign a new GamePlayer object as the current player.
+     * This method must be called whenever a status of a component is set, incremented or removed, so that any events
+     * with conditions that read the status will be checked again.
      *
-     * @param newCurrentPlayer The GamePlayer object to mark as the active player.
+     * @param component The GameComponent object whose status has changed.
+     * @param statusName The String name of the status that has changed.
      */
-    public static void switchPlayer( GamePlayer newCurrentPlayer )
+    public static void statusChanged( GameComponent component, String statusName )
     {
-        currentPlayer = newCurrentPlayer;
+        session().tracker.statusChanged( component, statusName );
+        trackChange( component );
     }
 
     /**
-     * This method is used to assign the GamePlayer object with the given name as the current player.
+     * This method must be called whenever an item is added to or removed from a container, or the weight of an item in
+     * a container changes, so that any events with conditions that read the container will be checked again.
      *
-     * @param newCurrentPlayerName The String name of the GamePlayer object to mark as the active player.
+     * @param container The GameContainer object whose items have changed.
      */
-    public static void switchPlayer( String newCurrentPlayerName )
+    public static void itemsChanged( GameContainer container )
     {
-        GameComponent component = getComponent( newCurrentPlayerName );
-        if ( component instanceof GamePlayer )
+        session().tracker.itemsChanged( container );
+        if ( container instanceof GameComponent )
         {
-            currentPlayer = ( GamePlayer ) component;
+            trackChange( ( GameComponent ) container );
         }
     }
 
     /**
-     * When run, this method will load a list of levels that are currently available for the player to choose, then it
-     * will load the initial state for the level that is chosen.
+     * This method must be called whenever a pawn moves to a new location, so that any events with conditions that read
+     * the location of the pawn will be checked again.
+     *
+     * @param pawn The GamePawn object that has moved.
      */
-    public static void beginNewGame( String mapName )
+    public static void locationChanged( GamePawn pawn )
     {
-        // Here we create a variable to store any current game state information.
-        Engine currentGameState = null;
-        if ( gameInProgress )
-        {
-            // We will store the current game state in case of a problem.
-            currentGameState = new Engine();
-
-            // We will also prompt the player to save the current game, in case they forgot.
-            promprForSave();
-        }
+        session().tracker.locationChanged( pawn );
+        trackChange( pawn );
+    }
 
-        // Now we will create an empty list to hold our available maps.
-        ArrayList<GameMap> maps = new ArrayList<GameMap>();
-        // We also need another list variable to store whatever is returned from the Loader.
-        ArrayList<GameMap> mapList = null;
+    /**
+     * This method should be called when a component has changed in a way that the other notification methods do not
+     * cover, such as having one of its utilities replaced. Every event with a condition that reads any part of the
+     * component will be checked again.
+     *
+     * @param component The GameComponent object that has changed.
+     */
+    public static void componentChanged( GameComponent component )
+    {
+        session().tracker.objectChanged( component );
+        trackChange( component );
+    }
 
-        // Since our current game state is backed up, we can reinitialize the engine without worry.
+    /**
+     * This method must be called whenever a component changes in a way that no event can depend on, such as when its
+     * text changes or an exit is added to it, so that the change is kept in delta saves.
+     *
+     * @param component The GameComponent object that has changed.
+     */
+    public static void stateChanged( GameComponent component )
+    {
+        trackChange( component );
+    }
+
+    /**
+     * This helper method records that a component has changed, for delta saves and for the journal.
+     *
+     * @param component The GameComponent object that has changed.
+     */
+    private static void trackChange( GameComponent component )
+    {
+        GameSession session = session();
+
+        session.baseline.changed( component );
+        if ( session.journal != null )
+        {
+            session.journal.changed( component );
+        }
+    }
+
+    /**
+     * This method must be called whenever a condition changes how it is checked, such as when it is negated, so that
+     * every event that uses the condition will be checked again.
+     *
+     * @param condition The GameCondition object that has changed.
+     */
+    public static void conditionChanged( GameCondition condition )
+    {
+        session().tracker.objectChanged( condition );
+        trackChange( condition );
+    }
+
+    /**
+     * This method must be called whenever a condition is added to an event, so that the new condition's dependencies
+     * are tracked.
+     *
+     * @param event The GameEvent object that has changed.
+     */
+    public static void eventConditionsChanged( GameEvent event )
+    {
+        session().tracker.retrack( event );
+        trackChange( event );
+    }
+
+    /**
+     * This method is used to find out if all of the conditions for an active event pass. The conditions are only
+     * checked again if something they depend on has changed since they were last checked.
+     *
+     * @param event The GameEvent object to be checked.
+     * @return True if every condition for the event passes, false otherwise.
+     */
+    static boolean eventConditionsPassed( GameEvent event )
+    {
+        return session().tracker.conditionsPassed( event );
+    }
+
+    /**
+     * This helper method updates the command dispatch table when one of the active commands has changed its name,
+     * hotkey or aliases. Only the keys of that command are looked at again.
+     *
+     * @param component The GameComponent object that has changed.
+     */
+    private static void commandChanged( GameComponent component )
+    {
+        GameSession session = session();
+
+        if ( component instanceof GameCommand )
+        {
+            session.dispatcher.update( ( GameCommand ) component );
+        }
+    }
+
+    /**
+     * This method is used to find the active command that matches a string typed by the player. The string can be the
+     * name, hotkey or alias of a command, or the start of a name or alias that only one command begins with.
+     *
+     * @param commandString The string typed by the player.
+     * @return The matching GameCommand object, or null if none is found.
+     */
+    protected static GameCommand findCommand( String commandString )
+    {
+        return session().dispatcher.find( commandString );
+    }
+
+    /**
+     * This method is used to get the index of every name, hotkey and alias that is in use by the components in the
+     * master list. The ComponentValidator uses it to check new names without scanning the master list.
+     *
+     * @return The ComponentNamespace for the master list.
+     */
+    public static ComponentNamespace componentNamespace()
+    {
+        return session().registry.namespace();
+    }
+
+    /**
+     * This method is used to get a list of every component in the master list that is an instance of the given type.
+     * Lookups for any of the API interfaces, such as GameItem or GameEvent, are answered from an index instead of
+     * scanning the entire master list.
+     *
+     * @param type The class or interface the components must implement.
+     * @return A list of the matching components, in the order they were added.
+     */
+    public static <T> ArrayList<T> componentList( Class<T> type )
+    {
+        return session().registry.list( type );
+    }
+
+    /**
+     * This method is used to get a copy of the master component list.
+     *
+     * @return A list of GameComponent objects that are currently available.
+     */
+    public static ArrayList<GameComponent> componentList()
+    {
+        return session().registry.list();
+    }
+
+    /**
+     * This method is used to get a read-only view of the master component list. The view is only rebuilt when a
+     * component is added or removed, so it can be looped over as often as needed without making a copy. Code that needs
+     * to change the list it gets back should use componentList() instead.
+     *
+     * @return An unmodifiable list of GameComponent objects that are currently available.
+     */
+    public static List<GameComponent> componentView()
+    {
+        return session().registry.view();
+    }
+
+    /**
+     * This method is used to get a read-only view of every component in the master list that is an instance of the given
+     * type. Views of the API interfaces, such as GameItem or GameEvent, are only rebuilt when a component of that type is
+     * added or removed.
+     *
+     * @param type The class or interface the components must implement.
+     * @return An unmodifiable list of the matching components, in the order they were added.
+     */
+    public static <T> List<T> componentView( Class<T> type )
+    {
+        return session().registry.view( type );
+    }
+
+    /**
+     * This method is used to get the number of components in the master list.
+     *
+     * @return The number of components that are currently available.
+     */
+    public static int componentCount()
+    {
+        return session().registry.size();
+    }
+    
+    /**
+     * This method will take a GameMap object and load it into the engine so that the map can be played.
+     *
+     * @param newMap The GameMap object to be set up.
+     */
+    public static void setupLevel( GameMap newMap )
+    {
+        // First we build every component of the map.
+        buildLevel( newMap );
+
+        // After the game loads we run the postProcessEvents method to initialize kick of any initial events.
+        session().enginePostProcessing = true;
+        Processor.postProcessEvents( null );
+
+        // Here we mark the game as being in progress.
+        session().gameInProgress = true;
+
+        // Finally, we describe the player's location to them and the game can begin.
+        session().currentPlayer.getLocation().describe();
+    }
+
+    /**
+     * This helper method builds every component of a map, without running any events or showing any output. Building the
+     * same map always gives the same components in the same order, so the components are remembered as the baseline that
+     * delta saves are made against.
+     *
+     * @param newMap The GameMap object to be built.
+     */
+    private static void buildLevel( GameMap newMap )
+    {
+        // First we need to load in any commands and directions for the map
+        newMap.buildMapCommands();
+        reloadCommands();
+
+        // Next we need to set up the locations that exist within the map and all of their subcomponents.
+        newMap.buildMapLocations();
+
+        // Now we need to designate who the current player is.
+        switchPlayer( newMap.getCurrentPlayer() );
+
+        // Here we initialize all of the events and conditions for the map.
+        newMap.buildMapMechanics();
+        reloadEvents();
+
+        // Everything that happens from here on is a change from the map as it was built.
+        session().currentMap = newMap;
+        session().baseline.reset( componentView() );
+    }
+
+    /**
+     * This method is used to get the map that the current game was started from.
+     *
+     * @return The GameMap object for the current game, or null if it is not known, such as after a full save is loaded.
+     */
+    public static GameMap currentMap()
+    {
+        return session().currentMap;
+    }
+
+    /**
+     * This method is used to turn delta saves on or off. A delta save only holds what has changed since the map was
+     * built, so it is much smaller and faster than a full save on a large map, but it can only be loaded if the same map
+     * can still be built. Games are always saved in full when the map they came from is not known.
+     *
+     * @param newDeltaSaves True if games should be saved as deltas, false if they should be saved in full.
+     */
+    public static void setDeltaSaves( boolean newDeltaSaves )
+    {
+        session().deltaSaves = newDeltaSaves;
+    }
+
+    /**
+     * This method is used to find out if delta saves are turned on.
+     *
+     * @return True if games are saved as deltas when possible, false otherwise.
+     */
+    public static boolean isDeltaSaves()
+    {
+        return session().deltaSaves;
+    }
+
+    /**
+     * This method is used to turn journaling on or off. When journaling is on, saving a game writes a full save as a
+     * checkpoint, and every turn after that adds the changes made during the turn to a journal next to it, so the game
+     * can be loaded again as it was at the end of the last turn, even if the game crashed. Loading a saved game carries
+     * on with its journal.
+     *
+     * @param newJournaling True if saved games should be journaled, false otherwise.
+     */
+    public static void setJournaling( boolean newJournaling )
+    {
+        session().journaling = newJournaling;
+        if ( !session().journaling )
+        {
+            closeJournal();
+        }
+    }
+
+    /**
+     * This method is used to find out if journaling is turned on.
+     *
+     * @return True if saved games are journaled, false otherwise.
+     */
+    public static boolean isJournaling()
+    {
+        return session().journaling;
+    }
+
+    /**
+     * This method is used to turn autosaving on or off. When autosaving is on, the game is saved in the background at
+     * the end of a turn whenever the autosave interval of the session has passed.
+     *
+     * @param newAutosaving True if the game should be autosaved, false otherwise.
+     */
+    public static void setAutosaving( boolean newAutosaving )
+    {
+        if ( newAutosaving && session().autosave == null && session().savingAllowed )
+        {
+            session().autosave = new AutoSave( session() );
+        }
+        else if ( !newAutosaving )
+        {
+            closeAutoSave();
+        }
+    }
+
+    /**
+     * This method is used to find out if autosaving is turned on.
+     *
+     * @return True if the game is autosaved, false otherwise.
+     */
+    public static boolean isAutosaving()
+    {
+        return session().autosave != null;
+    }
+
+    /**
+     * This method is called by the Processor at the end of every turn, once every event has been run, so that the
+     * changes made during the turn can be added to the journal and the game can be autosaved.
+     */
+    static void turnEnded()
+    {
+        GameSession session = session();
+
+        if ( session.journal != null )
+        {
+            try
+            {
+                session.journal.endTurn( componentView(), session.currentPlayer );
+            }
+            catch ( IOException e )
+            {
+                IO.addLine( "There was an error writing to the journal of your saved game. Your game is no longer being "
+                            + "journaled.\n" );
+                closeJournal();
+            }
+        }
+        if ( session.autosave != null && session.gameInProgress )
+        {
+            try
+            {
+                if ( session.autosave.isDue() )
+                {
+                    // The snapshot is encoded now, while nothing is changing, and only written in the background.
+                    ByteBuffer[] snapshot;
+                    if ( session.deltaSaves && session.baseline.isTracking() )
+                    {
+                        snapshot = SaveCodec.encodeDelta( "Autosave", session.baseline, session.currentMap,
+                                                          session.currentPlayer );
+                    }
+                    else
+                    {
+                        snapshot = SaveCodec.encode( "Autosave", componentView(), session.currentPlayer );
+                    }
+                    session.autosave.save( snapshot );
+                }
+            }
+            catch ( IOException e )
+            {
+                IO.addLine( "There was an error autosaving your game. Your game is no longer being autosaved.\n" );
+                closeAutoSave();
+            }
+        }
+    }
+
+    /**
+     * This helper method stops autosaving, once an autosave that is being written has been finished.
+     */
+    private static void closeAutoSave()
+    {
+        GameSession session = session();
+
+        if ( session.autosave != null )
+        {
+            AutoSave closingAutoSave = session.autosave;
+            session.autosave = null;
+            try
+            {
+                closingAutoSave.close();
+            }
+            catch ( IOException e )
+            {
+                IO.addLine( "There was an error autosaving your game.\n" );
+            }
+        }
+    }
+
+    /**
+     * This helper method stops the journal of the current game, if there is one, once everything has been written.
+     */
+    private static void closeJournal()
+    {
+        GameSession session = session();
+
+        if ( session.journal != null )
+        {
+            SaveJournal closingJournal = session.journal;
+            session.journal = null;
+            try
+            {
+                closingJournal.close();
+            }
+            catch ( IOException e )
+            {
+                IO.addLine( "There was an error writing to the journal of your saved game.\n" );
+            }
+        }
+    }
+
+    /**
+     * This method is used to get a reference to the current player.
+     *
+     * @return A reference to the current player.
+     */
+    public static GamePlayer currentPlayer()
+    {
+        return session().currentPlayer;
+    }
+
+    /**
+     * This method is used to assign a new GamePlayer object as the current player.
+     *
+     * @param newCurrentPlayer The GamePlayer object to mark as the active player.
+     */
+    public static void switchPlayer( GamePlayer newCurrentPlayer )
+    {
+        session().currentPlayer = newCurrentPlayer;
+    }
+
+    /**
+     * This method is used to assign the GamePlayer object with the given name as the current player.
+     *
+     * @param newCurrentPlayerName The String name of the GamePlayer object to mark as the active player.
+     */
+    public static void switchPlayer( String newCurrentPlayerName )
+    {
+        GameComponent component = getComponent( newCurrentPlayerName );
+        if ( component instanceof GamePlayer )
+        {
+            session().currentPlayer = ( GamePlayer ) component;
+        }
+    }
+
+    /**
+     * When run, this method will load a list of levels that are currently available for the player to choose, then it
+     * will load the initial state for the level that is chosen.
+     */
+    public static void beginNewGame( String mapName )
+    {
+        // Here we create a variable to store any current game state information.
+        Engine currentGameState = null;
+        if ( session().gameInProgress )
+        {
+            // We will store the current game state in case of a problem.
+            currentGameState = new Engine();
+
+            // We will also prompt the player to save the current game, in case they forgot.
+            promprForSave();
+        }
+
+        // Now we will create an empty list to hold the names of our available maps.
+        ArrayList<String> mapNames = new ArrayList<String>();
+        // We also need another list variable to store whatever is returned from the Loader.
+        ArrayList<Loader.MapEntry> mapList = null;
+
+        // Since our current game state is backed up, we can reinitialize the engine without worry.
         initializeEngine();
 
         // Now we need to scan for any external level maps with out Loader class.
         try
         {
-            mapList = Loader.loadMaps();
+            mapList = Loader.findMaps();
         }
         catch ( Exception e )
         {
@@ -1132,12 +1581,15 @@ public class Engine
         // We will mark the path to our demo map's file since it never gets marked elsewhere.
         demoMap.setMapPath( Loader.getMapPath() );
         // Now we add the bemo map to our available maps list.
-        maps.add( demoMap );
+        mapNames.add( demoMap.getName() );
 
-        // If the Loader was able to find any maps, we add them to our list as well.
+        // If the Loader was able to find any maps, we add them to our list as well. They aren't created until chosen.
         if ( mapList != null && !mapList.isEmpty() )
         {
-            maps.addAll( mapList );
+            for ( Loader.MapEntry mapEntry : mapList )
+            {
+                mapNames.add( mapEntry.getName() );
+            }
         }
 
         // Here we will initialize a variable to store our selected map.
@@ -1149,7 +1601,7 @@ public class Engine
         if ( mapName.equals( "" ) )
         {
             // Now we will start a loop to output all of the available map choices.
-            while ( choiceInt < 0 || choiceInt > maps.size() )
+            while ( choiceInt < 0 || choiceInt > mapNames.size() )
             {
                 // First we add a prompt to output.
                 IO.addLine( "Choose a Level:" );
@@ -1158,12 +1610,12 @@ public class Engine
 
                 // TODO: Add the ability to breal long lists into multiple pages.
                 // Now we can loop through each of the maps in our list and add a choice for it to the output.
-                for ( GameMap map : maps )
+                for ( String name : mapNames )
                 {
                     // First increment our counter.
                     i++;
                     // Now add our choice to output.
-                    IO.addLine( i + ": " + map.getName() );
+                    IO.addLine( i + ": " + name );
                 }
                 // We also add a choice to just end the game completely.
                 IO.addLine( "0: Quit Game" );
@@ -1176,7 +1628,7 @@ public class Engine
                     choiceInt = IO.getChoice();
 
                     // If the choice is greater than the number of maps, it must be invalid.
-                    if ( choiceInt > maps.size() )
+                    if ( choiceInt > mapNames.size() )
                     {
                         // We throw a generic exception, which will cause the loop to start over.
                         throw new Exception();
@@ -1198,46 +1650,50 @@ public class Engine
                 endGame( "Thank you for playing Adventures in Text." );
                 return;
             }
-            else
-            {
-                // Otherwise we set the chosen map to the map that corresponds to the player's input.
-                chosenMap = maps.get( choiceInt - 1 );
-            }
         }
         // If we have been provided the name of a map already we don't need to get a new selection.
         else
         {
             // We loop through our available maps to find the correct one to load.
-            for ( GameMap map : maps )
+            for ( int i = 0; i < mapNames.size(); i++ )
             {
-                if ( map.getName().equalsIgnoreCase( mapName ) )
+                if ( mapNames.get( i ).equalsIgnoreCase( mapName ) )
                 {
-                    chosenMap = map;
+                    choiceInt = i + 1;
                     break;
                 }
             }
 
-            if ( chosenMap == null )
+            if ( choiceInt < 0 )
             {
                 // If there is still no map found with the given name, we will add a message to output to tell the player.
                 IO.addLine( "The map with the name " + mapName + " could not be found." );
-                // We will loop through and remove all of the maps from our component lists as cleanup.
-                for ( GameMap map : maps )
-                {
-                    removeComponent( map );
-                }
+                // We will remove the demo map from our component lists as cleanup.
+                removeComponent( demoMap );
                 // Now we can call the beginNewGame() method again without supplying a name so the list is presented instead.
                 beginNewGame( "" );
                 return;
             }
         }
 
-        // We will loop through and remove all of the maps except the chosen one from our component lists as cleanup.
-        for ( GameMap map : maps )
+        // Now we set the chosen map to the map that corresponds to the choice, which is only created now if it is in a
+        // .jar file.
+        if ( choiceInt == 1 )
+        {
+            chosenMap = demoMap;
+        }
+        else
         {
-            if ( !map.equals( chosenMap ) )
+            removeComponent( demoMap );
+            try
             {
-                removeComponent( map );
+                chosenMap = mapList.get( choiceInt - 2 ).create();
+            }
+            catch ( Exception e )
+            {
+                IO.addLine( "There was an error while loading a map from a .jar file. " );
+                beginNewGame( "" );
+                return;
             }
         }
 
@@ -1251,7 +1707,7 @@ public class Engine
 
     public static void promprForSave()
     {
-        if ( gameInProgress )
+        if ( session().gameInProgress )
         {
             int choiceInt = -1;
 
@@ -1319,31 +1775,34 @@ public class Engine
      */
     public static void saveGameState( String saveName )
     {
-        if ( !gameInProgress )
+        GameSession session = session();
+
+        if ( !session.savingAllowed )
+        {
+            IO.addLine( "Games can't be saved here. Your game has not been saved.\n" );
+            return;
+        }
+        if ( !session.gameInProgress )
         {
             IO.addLine( "There is no game in progress to save." );
             return;
         }
 
-        // First we will instantiate a new Engine object to store the state of the game.
-        Engine gameState = new Engine();
-
-        // Here we will create a couple output stream objects needed to save our game.
-        FileOutputStream saveGameFileOutputStream;
-        ObjectOutputStream saveGameObjectOutputStream;
-
-        // We also need a file object that represents our saved game file.
+        // We also need file objects that represent our saved game file, and the file it would have in the older format.
         File saveGameFile;
+        File legacySaveGameFile;
+        File replacedFile;
 
-        // Now we will store the unsanitized name for the saved game in the Engine object.
-        gameState.saveName = saveName;
+        // Now we will keep the unsanitized name for the saved game, since it is stored in the file.
+        String displayName = saveName;
 
         // Here we sanitize our name so that it is acceptable for use as a file name.
         saveName = sanitizeFileName( saveName );
 
-        // If our saved game file already exists, we must prompt the player before overwriting it.
-        saveGameFile = new File( saveName + "." + SAVE_EXT );
-        if ( saveGameFile.exists() )
+        // If our saved game file already exists in either format, we must prompt the player before overwriting it.
+        saveGameFile = new File( saveName + "." + BINARY_SAVE_EXT );
+        legacySaveGameFile = new File( saveName + "." + SAVE_EXT );
+        if ( saveGameFile.exists() || legacySaveGameFile.exists() )
         {
             int choiceInt = -1;
 
@@ -1386,15 +1845,49 @@ public class Engine
         // If we have made it this far, then we can just go ahead and perform the save.
         try
         {
-            // First we open a FileOutputStream for our saved game.
-            saveGameFileOutputStream = new FileOutputStream( saveName + "." + SAVE_EXT );
-            // Now we open an ObjectOutputStream to record our save data.
-            saveGameObjectOutputStream = new ObjectOutputStream( saveGameFileOutputStream );
-            // Next we record our GameState to the file.
-            saveGameObjectOutputStream.writeObject( gameState );
-            // When our data has been recorded, we can close our OutputStreams.
-            saveGameObjectOutputStream.close();
-            saveGameFileOutputStream.close();
+            // We record our GameState to the file, which is replaced if it already exists.
+            if ( session.serializationAllowed && !SaveCodec.canEncode( componentView() ) )
+            {
+                // A component that reads or writes itself can only be saved with Java serialization, as older versions
+                // of the game did, so the game is saved in the older format.
+                closeJournal();
+                Engine gameState = new Engine();
+                gameState.saveName = displayName;
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try ( ObjectOutputStream saveGameObjectOutputStream = new ObjectOutputStream( bytes ) )
+                {
+                    saveGameObjectOutputStream.writeObject( gameState );
+                }
+                SaveCodec.replaceFile( legacySaveGameFile, new ByteBuffer[] { ByteBuffer.wrap( bytes.toByteArray() ) } );
+                replacedFile = saveGameFile;
+            }
+            else if ( session.journaling )
+            {
+                // A journaled game is saved in full as the checkpoint that its journal starts from.
+                closeJournal();
+                session.journal = SaveJournal.create( saveGameFile, new File( saveName + "." + JOURNAL_EXT ),
+                                                      displayName, componentView(), currentPlayer() );
+                replacedFile = legacySaveGameFile;
+            }
+            else if ( session.deltaSaves && session.baseline.isTracking() )
+            {
+                // A delta save only needs the parts of the game that have changed since the map was built.
+                SaveCodec.writeDelta( saveGameFile, displayName, session.baseline, session.currentMap,
+                                      currentPlayer() );
+                replacedFile = legacySaveGameFile;
+            }
+            else
+            {
+                // Otherwise we instantiate a new Engine object to store the full state of the game.
+                Engine gameState = new Engine();
+                gameState.saveName = displayName;
+                SaveCodec.write( saveGameFile, gameState.saveName, gameState.activeComponents, gameState.activePlayer );
+                replacedFile = legacySaveGameFile;
+            }
+
+            // The player has agreed to replace the saved game with this name, so a copy of it in the other format is
+            // removed as well. Otherwise the new file would either be hidden behind it or be loaded instead of it.
+            Files.deleteIfExists( replacedFile.toPath() );
         }
         catch ( Exception e )
         {
@@ -1413,14 +1906,24 @@ public class Engine
      */
     public static void loadGameState( String saveName )
     {
+        GameSession session = session();
+
+        if ( !session.savingAllowed )
+        {
+            IO.addLine( "Saved games can't be loaded here. Your game was not loaded.\n" );
+            return;
+        }
+
         promprForSave();
 
         // First we will initialize a couple of InputStreams we will need to load our game state.
         FileInputStream saveGameFileInputStream = null;
         ObjectInputStream saveGameObjectInputStream = null;
 
-        // We also need a file object that represents our saved game file.
+        // We also need file objects that represent our saved game file, and the file it would have had in older versions.
         File saveGameFile;
+        File legacySaveGameFile;
+        File journalFile;
 
         // We will also initialize an object to store the data read in from our saved game file.
         Object engineObject = null;
@@ -1433,13 +1936,58 @@ public class Engine
         saveName = sanitizeFileName( saveName );
 
         // We need to make sure our saved game file exists before it can be loaded.
-        saveGameFile = new File( saveName + "." + SAVE_EXT );
+        saveGameFile = new File( saveName + "." + BINARY_SAVE_EXT );
+        legacySaveGameFile = new File( saveName + "." + SAVE_EXT );
+        journalFile = new File( saveName + "." + JOURNAL_EXT );
         if ( saveGameFile.exists() )
+        {
+            try
+            {
+                // We read our game state from the file, along with any changes kept in its journal.
+                closeJournal();
+                SaveCodec savedGame = SaveJournal.read( saveGameFile, journalFile );
+                if ( savedGame.isDelta() )
+                {
+                    // A delta save is applied on top of a freshly built copy of the map it was made from.
+                    rebuildLevel( savedGame );
+                }
+                else
+                {
+                    // A full save can't be turned back into the map it came from, so there is nothing to compare with.
+                    session.currentMap = null;
+                    session.baseline.clear();
+                }
+
+                // A journaled game carries on adding to the journal it was loaded from.
+                gameState = new Engine( savedGame );
+                if ( session.journaling )
+                {
+                    session.journal = SaveJournal.resume( saveGameFile, journalFile, gameState.saveName,
+                                                          gameState.activeComponents, gameState.activePlayer );
+                }
+
+                // Now we reload all of the components into the Engine.
+                gameState.loadActiveComponents();
+
+                // Since we were successful, we mark the game as being in progress.
+                session.gameInProgress = true;
+            }
+            catch ( Exception e )
+            {
+                // If there are any errors, we will just output an error message and return.
+                IO.addLine( "There was an error loading the game state. Your game has not been loaded.\n" );
+                return;
+            }
+            // If we have made it to this point, then we have loaded our game, so we output a success message.
+            IO.addLine( "The game state has been reloaded from the file on disk.\n" );
+        }
+        // If there is no saved game in the current format, we can still import one saved by an older version.
+        else if ( session.serializationAllowed && legacySaveGameFile.exists() )
         {
             try
             {
                 // First we open a FileInputStream for our saved game.
-                saveGameFileInputStream = new FileInputStream( saveGameFile );
+                saveGameFileInputStream = new FileInputStream( legacySaveGameFile );
                 // Now we open an ObjectInputStream to read in our save data.
                 saveGameObjectInputStream = new ObjectInputStream( saveGameFileInputStream );
 
@@ -1451,11 +1999,21 @@ public class Engine
                 {
                     // Now we can cast our object as an Engine since we know it is valid.
                     gameState = ( Engine ) engineObject;
+                    // Older saved games don't know which map they came from, so there is nothing to compare with.
+                    session.currentMap = null;
+                    session.baseline.clear();
+                    // A journaled game needs a checkpoint in the current format for its journal to start from.
+                    if ( session.journaling )
+                    {
+                        closeJournal();
+                        session.journal = SaveJournal.create( saveGameFile, journalFile, gameState.saveName,
+                                                              gameState.activeComponents, gameState.activePlayer );
+                    }
                     // Finally, we reload all of the components into the Engine.
                     gameState.loadActiveComponents();
                 }
                 // Since we were successful, we mark the game as being in progress.
-                gameInProgress = true;
+                session.gameInProgress = true;
 
                 // When our data has been loaded, we can close our InputStreams.
                 saveGameFileInputStream.close();
@@ -1502,16 +2060,106 @@ public class Engine
         return fileName;
     }
 
+    /**
+     * This helper method builds a fresh copy of the map that a delta save was made from, and applies the delta save to
+     * it. The map is built in a scratch session, and the game in progress is only replaced once the whole delta save
+     * has been applied, so a damaged saved game leaves the game in progress untouched. No events are run and nothing is
+     * shown to the player.
+     *
+     * @param savedGame The SaveCodec holding the start of the delta save.
+     * @throws IOException Thrown if the map can't be found, or the delta save doesn't match it.
+     */
+    private static void rebuildLevel( final SaveCodec savedGame )
+        throws IOException
+    {
+        final GameSession scratch = new GameSession( session().io );
+        final IOException[] failure = new IOException[ 1 ];
+        scratch.run( new Runnable()
+        {
+            public void run()
+            {
+                try
+                {
+                    buildLevel( findSavedMap( savedGame.getMapClassName(), savedGame.getMapPath() ) );
+                    savedGame.applyDelta( scratch.baseline );
+
+                    // The components that changed have new utilities, so every location has to find its exits and
+                    // pawns again.
+                    LocationExitUtility.exitsChanged();
+                    LocationPawnUtility.pawnsChanged();
+                }
+                catch ( IOException e )
+                {
+                    failure[ 0 ] = e;
+                }
+            }
+        } );
+        if ( failure[ 0 ] != null )
+        {
+            throw failure[ 0 ];
+        }
+        session().takeGame( scratch );
+    }
+
+    /**
+     * This helper method creates a new copy of the map that a delta save was made from. The names come from the saved
+     * game, so the class is only initialized and created once it is known to be a GameMap, and a JAR archive is only
+     * looked in if it is in the "Maps" directory.
+     *
+     * @param mapClassName The String name of the class of the map.
+     * @param mapPath The String path to the JAR archive the map came from, which may be null.
+     * @return The new GameMap object, which has not been built yet.
+     * @throws IOException Thrown if the map can't be found.
+     */
+    private static GameMap findSavedMap( String mapClassName, String mapPath )
+        throws IOException
+    {
+        GameMap map = null;
+        try
+        {
+            Class<?> type = Class.forName( mapClassName, false, Engine.class.getClassLoader() );
+            if ( GameMap.class.isAssignableFrom( type ) )
+            {
+                map = ( GameMap ) type.getDeclaredConstructor().newInstance();
+            }
+        }
+        catch ( ReflectiveOperationException e )
+        {
+            // The map isn't part of the game itself, so it may be in a JAR archive.
+            map = null;
+        }
+
+        // Maps from a JAR archive can only be found through the class loader the Loader keeps for that archive.
+        if ( map == null && mapPath != null )
+        {
+            File mapFile = new File( mapPath ).getAbsoluteFile();
+            if ( mapFile.isFile() && new File( Loader.getMapPath() ).equals( mapFile.getParentFile() ) )
+            {
+                map = Loader.loadMap( mapFile.getPath(), mapClassName );
+            }
+        }
+        if ( map == null )
+        {
+            throw new InvalidClassException( mapClassName, "the map for the saved game can't be found" );
+        }
+
+        map.setMapPath( mapPath );
+        return map;
+    }
+
     /**
      * This instance method is used durring loading to restore the static state of the Engine back to the state stored
      * within the Engine object instance.
      */
     private void loadActiveComponents()
     {
-        currentPlayer = null;
-        masterComponentList.clear();
+        GameSession session = session();
+
+        session.currentPlayer = null;
+        session.registry.clear();
 
-        masterComponentList.addAll( this.activeComponents );
+        // Saved games store the master list as a plain list, so we rebuild the registry's indexes from it here.
+        session.registry.addAll( this.activeComponents );
 
         reloadCommands();
         reloadEvents();
@@ -1525,13 +2173,16 @@ public class Engine
      */
     private static void reloadEvents()
     {
-        events.clear();
-        for ( GameComponent component : componentList() )
+        GameSession session = session();
+
+        session.events.clear();
+        session.events.addAll( componentView( GameEvent.class ) );
+
+        // Every event starts out dirty, so all of their conditions will be checked the next time events are processed.
+        session.tracker.clear();
+        for ( GameEvent event : session.events.snapshot() )
         {
-            if ( component instanceof GameEvent && !events.contains( component ) )
-            {
-                events.add( ( GameEvent ) component );
-            }
+            session.tracker.track( event );
         }
     }
 
@@ -1540,13 +2191,10 @@ public class Engine
      */
     private static void reloadCommands()
     {
-        commands.clear();
-        for ( GameComponent component : componentList() )
-        {
-            if ( component instanceof GameCommand && !commands.contains( component ) )
-            {
-                commands.add( ( GameCommand ) component );
-            }
-        }
+        GameSession session = session();
+
+        session.commands.clear();
+        session.commands.addAll( componentView( GameCommand.class ) );
+        session.dispatcher.rebuild( session.commands.snapshot() );
     }
 }
@@ -0,0 +1,361 @@
+package Adventure;
+
+import Adventure.API.*;
+
+import Adventure.Base.*;
+
+import java.util.*;
+
+/**
+ * This class keeps track of what each of the active events depends on, so that the conditions of an event only need to
+ * be checked again after something they read has changed. When an event is tracked, each of its conditions is asked to
+ * declare the statuses, item lists, locations and names that it reads. The base utilities report every change to these
+ * through the Engine, which marks only the events that depend on the changed thing as dirty. An event that is not dirty
+ * simply reuses the result from the last time its conditions were checked.
+ *
+ * Any event that has a condition which does not declare its dependencies is checked every turn, just like before.
+ */
+public class EventTracker
+{
+    /**
+     * These are the parts of a component, other than its statuses, that a condition can depend on.
+     */
+    private enum Aspect
+    {
+        ITEMS,
+        LOCATION,
+        NAME
+    }
+
+    /**
+     * This class holds what the tracker knows about a single event.
+     */
+    private static class EventState
+    {
+        private boolean dirty;
+
+        private boolean alwaysCheck;
+
+        private boolean passed;
+
+        private final ArrayList<ArrayList<GameEvent>> watchLists;
+
+        private EventState()
+        {
+            this.dirty = true;
+            this.alwaysCheck = false;
+            this.passed = false;
+            this.watchLists = new ArrayList<ArrayList<GameEvent>>();
+        }
+    }
+
+    private final IdentityHashMap<Object, HashMap<Object, ArrayList<GameEvent>>> watchers;
+
+    private final IdentityHashMap<GameEvent, EventState> states;
+
+    private GameEvent declaringEvent;
+
+    /**
+     * This constructor creates a new tracker that is not tracking any events.
+     */
+    public EventTracker()
+    {
+        this.watchers = new IdentityHashMap<Object, HashMap<Object, ArrayList<GameEvent>>>();
+        this.states = new IdentityHashMap<GameEvent, EventState>();
+        this.declaringEvent = null;
+    }
+
+    /**
+     * This method will start tracking an event. Each of the event's conditions is asked to declare what it depends on,
+     * and the event is marked as dirty so that its conditions are checked the next time they are needed. If the event
+     * was already being tracked, its old dependencies are dropped first.
+     *
+     * @param event The GameEvent object to be tracked.
+     */
+    public void track( GameEvent event )
+    {
+        this.untrack( event );
+
+        EventState state = new EventState();
+        this.states.put( event, state );
+
+        this.declaringEvent = event;
+        try
+        {
+            for ( GameCondition condition : event.conditionList() )
+            {
+                // The conditions themselves can change if they are negated, so the event always depends on them.
+                this.watch( condition, Aspect.NAME );
+
+                if ( !( condition instanceof BaseCondition ) || !( ( BaseCondition ) condition ).declareDependencies( this ) )
+                {
+                    state.alwaysCheck = true;
+                    break;
+                }
+            }
+        }
+        finally
+        {
+            this.declaringEvent = null;
+        }
+    }
+
+    /**
+     * This method will stop tracking an event and forget everything that it depended on.
+     *
+     * @param event The GameEvent object to stop tracking.
+     */
+    public void untrack( GameEvent event )
+    {
+        EventState state = this.states.remove( event );
+        if ( state != null )
+        {
+            for ( ArrayList<GameEvent> watchList : state.watchLists )
+            {
+                watchList.remove( event );
+            }
+        }
+    }
+
+    /**
+     * This method will track an event again if it is already being tracked. It should be called whenever the list of
+     * conditions for an event changes.
+     *
+     * @param event The GameEvent object that has changed.
+     */
+    public void retrack( GameEvent event )
+    {
+        if ( this.states.containsKey( event ) )
+        {
+            this.track( event );
+        }
+    }
+
+    /**
+     * This method will check if an event is being tracked.
+     *
+     * @param event The GameEvent object to check for.
+     * @return True if the event is being tracked, false otherwise.
+     */
+    public boolean isTracking( GameEvent event )
+    {
+        return this.states.containsKey( event );
+    }
+
+    /**
+     * This method will stop tracking every event.
+     */
+    public void clear()
+    {
+        this.watchers.clear();
+        this.states.clear();
+    }
+
+    /**
+     * This method is used to find out if all of the conditions for an event pass. The conditions are only checked again
+     * if the event is dirty, or if it has a condition that did not declare its dependencies. Events that are not being
+     * tracked are always checked.
+     *
+     * @param event The GameEvent object to be checked.
+     * @return True if every condition for the event passes, false otherwise.
+     */
+    public boolean conditionsPassed( GameEvent event )
+    {
+        EventState state = this.states.get( event );
+        if ( state == null )
+        {
+            return event.checkEventConditions();
+        }
+        if ( state.dirty || state.alwaysCheck )
+        {
+            state.passed = event.checkEventConditions();
+            state.dirty = false;
+        }
+        return state.passed;
+    }
+
+    /**
+     * This helper method records that the event whose conditions are being declared depends on part of an object.
+     *
+     * @param owner The object that is depended on.
+     * @param key The status name or Aspect of the object that is depended on.
+     */
+    private void watch( Object owner, Object key )
+    {
+        EventState state = this.states.get( this.declaringEvent );
+        if ( state == null )
+        {
+            return;
+        }
+        if ( owner == null )
+        {
+            // We can't be told about changes to something that isn't there, so the event has to be checked every turn.
+            state.alwaysCheck = true;
+            return;
+        }
+
+        HashMap<Object, ArrayList<GameEvent>> ownerWatchers = this.watchers.get( owner );
+        if ( ownerWatchers == null )
+        {
+            ownerWatchers = new HashMap<Object, ArrayList<GameEvent>>();
+            this.watchers.put( owner, ownerWatchers );
+        }
+        ArrayList<GameEvent> watchList = ownerWatchers.get( key );
+        if ( watchList == null )
+        {
+            watchList = new ArrayList<GameEvent>( 2 );
+            ownerWatchers.put( key, watchList );
+        }
+        watchList.add( this.declaringEvent );
+        state.watchLists.add( watchList );
+    }
+
+    /**
+     * This helper method marks every event in a list as dirty.
+     *
+     * @param watchList The list of events to be marked, which may be null.
+     */
+    private void markDirty( ArrayList<GameEvent> watchList )
+    {
+        if ( watchList == null )
+        {
+            return;
+        }
+        for ( int i = 0; i < watchList.size(); i++ )
+        {
+            EventState state = this.states.get( watchList.get( i ) );
+            if ( state != null )
+            {
+                state.dirty = true;
+            }
+        }
+    }
+
+    /**
+     * This helper method marks every event that depends on part of an object as dirty.
+     *
+     * @param owner The object that has changed.
+     * @param key The status name or Aspect of the object that has changed.
+     */
+    private void changed( Object owner, Object key )
+    {
+        HashMap<Object, ArrayList<GameEvent>> ownerWatchers = this.watchers.get( owner );
+        if ( ownerWatchers != null )
+        {
+            this.markDirty( ownerWatchers.get( key ) );
+        }
+    }
+
+    /**
+     * Conditions call this method to declare that they read a status of a component.
+     *
+     * @param component The GameComponent object that is read.
+     * @param statusName The String name of the status that is read.
+     */
+    public void dependsOnStatus( GameComponent component, String statusName )
+    {
+        this.watch( component, statusName );
+    }
+
+    /**
+     * Conditions call this method to declare that they read the items held by a container, including their quantities
+     * and weights.
+     *
+     * @param container The GameContainer object that is read.
+     */
+    public void dependsOnItems( GameContainer container )
+    {
+        this.watch( container, Aspect.ITEMS );
+    }
+
+    /**
+     * Conditions call this method to declare that they read the location of a pawn.
+     *
+     * @param pawn The GamePawn object that is read.
+     */
+    public void dependsOnLocation( GamePawn pawn )
+    {
+        this.watch( pawn, Aspect.LOCATION );
+    }
+
+    /**
+     * Conditions call this method to declare that they read the name of a component.
+     *
+     * @param component The GameComponent object that is read.
+     */
+    public void dependsOnName( GameComponent component )
+    {
+        this.watch( component, Aspect.NAME );
+    }
+
+    /**
+     * This method marks every event that reads the given status of a component as dirty.
+     *
+     * @param component The GameComponent object whose status has changed.
+     * @param statusName The String name of the status that has changed.
+     */
+    public void statusChanged( GameComponent component, String statusName )
+    {
+        this.changed( component, statusName );
+    }
+
+    /**
+     * This method marks every event that reads the items held by a container as dirty. If the container is itself an
+     * item, the containers that hold it are marked as well, since their weight has changed too.
+     *
+     * @param container The GameContainer object whose items have changed.
+     */
+    public void itemsChanged( GameContainer container )
+    {
+        this.changed( container, Aspect.ITEMS );
+        if ( container instanceof GameItem )
+        {
+            for ( GameContainer parent : ( ( GameItem ) container ).getContainerList() )
+            {
+                if ( parent != container )
+                {
+                    this.itemsChanged( parent );
+                }
+            }
+        }
+    }
+
+    /**
+     * This method marks every event that reads the location of a pawn as dirty.
+     *
+     * @param pawn The GamePawn object that has moved.
+     */
+    public void locationChanged( GamePawn pawn )
+    {
+        this.changed( pawn, Aspect.LOCATION );
+    }
+
+    /**
+     * This method marks every event that reads the name of a component as dirty.
+     *
+     * @param component The GameComponent object that has been renamed.
+     */
+    public void nameChanged( GameComponent component )
+    {
+        this.changed( component, Aspect.NAME );
+    }
+
+    /**
+     * This method marks every event that depends on any part of an object as dirty. It is used when a component has
+     * changed in a way that can't be narrowed down, such as when one of its utilities is replaced, and when a condition
+     * itself has changed.
+     *
+     * @param owner The object that has changed.
+     */
+    public void objectChanged( Object owner )
+    {
+        HashMap<Object, ArrayList<GameEvent>> ownerWatchers = this.watchers.get( owner );
+        if ( ownerWatchers != null )
+        {
+            for ( ArrayList<GameEvent> watchList : ownerWatchers.values() )
+            {
+                this.markDirty( watchList );
+            }
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package Adventure;
+
+import Adventure.API.*;
+import Adventure.API.Utility.*;
+
+import java.util.*;
+
+/**
+ * This class holds everything that belongs to a single game: its components, commands and events, the player, the
+ * output buffer and the IOUtility that talks to the player. The Engine, IO and Processor classes are still used through
+ * their static methods, but every one of those calls works on the session of the thread that makes it, so many games
+ * can be played in the same application at once without seeing each other. Maps don't need to know about sessions at
+ * all.
+ *
+ * A thread that has not been given a session uses the default session, which is created the first time it is needed.
+ * This is the session that the game uses when it is started from the command line or with the Swing GUI, so a single
+ * game works just as it always has.
+ *
+ * A game is played in a session by running its game loop with the run() method, which gives the session to the thread
+ * that calls it until the loop is finished. A session must only be used by one thread at a time.
+ */
+public class GameSession
+{
+    private static final ThreadLocal<GameSession> currentSession = new ThreadLocal<GameSession>();
+
+    private static GameSession defaultSession;
+
+    boolean quit;
+
+    boolean gameInProgress;
+
+    SnapshotList<GameCommand> commands;
+
+    CommandDispatcher dispatcher;
+
+    SnapshotList<GameEvent> events;
+
+    EventTracker tracker;
+
+    ComponentRegistry registry;
+
+    GamePlayer currentPlayer;
+
+    GameMap currentMap;
+
+    SaveBaseline baseline;
+
+    HashMap<String, Class<?>> savedClasses;
+
+    boolean savingAllowed;
+
+    boolean serializationAllowed;
+
+    boolean deltaSaves;
+
+    boolean journaling;
+
+    SaveJournal journal;
+
+    AutoSave autosave;
+
+    private long autosaveInterval;
+
+    private int autosaveRetention;
+
+    private String autosaveName;
+
+    final StringBuilder outputBuffer;
+
+    private int exitVersion;
+
+    private int pawnVersion;
+
+    GameIOUtility io;
+
+    boolean enginePostProcessing;
+
+    private String mostRecentSaveName;
+
+    /**
+     * This constructor creates a new session that is ready for a new game to be started or loaded, just as the game is
+     * when it is first started.
+     *
+     * @param ioUtility The GameIOUtility object that the session uses to talk to its player.
+     */
+    public GameSession( GameIOUtility ioUtility )
+    {
+        this.commands = new SnapshotList<GameCommand>();
+        this.dispatcher = new CommandDispatcher();
+        this.events = new SnapshotList<GameEvent>();
+        this.tracker = new EventTracker();
+        this.registry = new ComponentRegistry();
+        this.baseline = new SaveBaseline();
+        this.savedClasses = new HashMap<String, Class<?>>();
+        this.outputBuffer = new StringBuilder();
+        this.io = ioUtility;
+
+        // We will also explicitly set out marker variables.
+        this.quit = false;
+        this.gameInProgress = false;
+        this.savingAllowed = true;
+        this.serializationAllowed = true;
+        this.deltaSaves = false;
+        this.journaling = false;
+        this.journal = null;
+        this.autosave = null;
+        this.autosaveInterval = 5 * 60 * 1000;
+        this.autosaveRetention = 3;
+        this.autosaveName = AutoSave.AUTOSAVE_NAME;
+        this.enginePostProcessing = false;
+        this.mostRecentSaveName = "";
+        this.exitVersion = 0;
+        this.pawnVersion = 0;
+
+        // The core commands are created while the session is current, so that they are registered with this session.
+        this.run( new Runnable()
+        {
+            public void run()
+            {
+                Engine.initializeEngine();
+            }
+        } );
+    }
+
+    /**
+     * This method is used to get the session of the thread that calls it.
+     *
+     * @return The GameSession given to this thread, or the default session if the thread has not been given one.
+     */
+    public static GameSession current()
+    {
+        GameSession session = currentSession.get();
+        if ( session == null )
+        {
+            return defaultSession();
+        }
+        return session;
+    }
+
+    /**
+     * This method is used to get the default session, which is used by every thread that has not been given a session.
+     *
+     * @return The default GameSession.
+     */
+    public static synchronized GameSession defaultSession()
+    {
+        if ( defaultSession == null )
+        {
+            defaultSession = new GameSession( null );
+        }
+        return defaultSession;
+    }
+
+    /**
+     * This method is used to find out if this is the default session. Quitting the default session closes the whole
+     * application, while quitting any other session only ends its game.
+     *
+     * @return True if this is the default session, false otherwise.
+     */
+    public boolean isDefault()
+    {
+        return this == defaultSession;
+    }
+
+    /**
+     * This method runs a task with this session given to the thread that calls it. Every call the task makes to the
+     * Engine, IO and Processor classes works on this session. When the task is finished the thread gets back the
+     * session it had before.
+     *
+     * @param task The Runnable to run in this session, which is usually the game loop.
+     */
+    public void run( Runnable task )
+    {
+        GameSession previous = currentSession.get();
+        currentSession.set( this );
+        try
+        {
+            task.run();
+        }
+        finally
+        {
+            if ( previous == null )
+            {
+                currentSession.remove();
+            }
+            else
+            {
+                currentSession.set( previous );
+            }
+        }
+    }
+
+    /**
+     * This method is used to find out if the game in this session has been marked as quit.
+     *
+     * @return True if the game has been marked as quit, false otherwise.
+     */
+    public boolean isQuit()
+    {
+        return this.quit;
+    }
+
+    /**
+     * This method is used to get the GameIOUtility object that this session uses to talk to its player.
+     *
+     * @return The GameIOUtility object of this session.
+     */
+    public GameIOUtility getIOUtility()
+    {
+        return this.io;
+    }
+
+    /**
+     * This method takes over the game that has been built in another session, which is then no longer used. A saved
+     * game is built in a scratch session first, so that a saved game that turns out to be damaged leaves the game in
+     * this session untouched. Everything that belongs to the player of this session, such as its IOUtility, its output
+     * and its saving settings, is kept.
+     *
+     * @param scratch The GameSession that the game was built in.
+     */
+    void takeGame( GameSession scratch )
+    {
+        this.commands = scratch.commands;
+        this.dispatcher = scratch.dispatcher;
+        this.events = scratch.events;
+        this.tracker = scratch.tracker;
+        this.registry = scratch.registry;
+        this.currentPlayer = scratch.currentPlayer;
+        this.currentMap = scratch.currentMap;
+        this.baseline = scratch.baseline;
+        this.savedClasses = scratch.savedClasses;
+        this.exitVersion = scratch.exitVersion;
+        this.pawnVersion = scratch.pawnVersion;
+    }
+
+    /**
+     * This method is used to allow or forbid saving and loading games in this session. Saved games are kept in the
+     * working directory of the application, so a session whose player shouldn't be able to see or replace the saved
+     * games of other players must not be allowed to save or load. Autosaving can't be turned on either while saving is
+     * forbidden.
+     *
+     * @param newSavingAllowed True if games can be saved and loaded in this session, false otherwise.
+     */
+    public void setSavingAllowed( boolean newSavingAllowed )
+    {
+        this.savingAllowed = newSavingAllowed;
+    }
+
+    /**
+     * This method is used to find out if games can be saved and loaded in this session.
+     *
+     * @return True if games can be saved and loaded, false otherwise.
+     */
+    public boolean isSavingAllowed()
+    {
+        return this.savingAllowed;
+    }
+
+    /**
+     * This method is used to allow or forbid reading anything with Java serialization when a game is loaded in this
+     * session. Java serialization can create an object of any serializable class, so a session that may load a saved
+     * game it didn't write itself should forbid it. Saved games from older versions, and objects that only Java
+     * serialization can load, can't be loaded while it is forbidden.
+     *
+     * @param newSerializationAllowed True if Java serialization can be used to load games, false otherwise.
+     */
+    public void setSerializationAllowed( boolean newSerializationAllowed )
+    {
+        this.serializationAllowed = newSerializationAllowed;
+    }
+
+    /**
+     * This method is used to find out if Java serialization can be used to load games in this session.
+     *
+     * @return True if Java serialization can be used to load games, false otherwise.
+     */
+    public boolean isSerializationAllowed()
+    {
+        return this.serializationAllowed;
+    }
+
+    /**
+     * This method is used to set how often the game in this session is autosaved. The game is autosaved at the end of
+     * the first turn after the interval has passed.
+     *
+     * @param newInterval The number of milliseconds between each autosave.
+     */
+    public void setAutosaveInterval( long newInterval )
+    {
+        this.autosaveInterval = Math.max( 0, newInterval );
+    }
+
+    /**
+     * This method is used to get how often the game in this session is autosaved.
+     *
+     * @return The number of milliseconds between each autosave.
+     */
+    public long getAutosaveInterval()
+    {
+        return this.autosaveInterval;
+    }
+
+    /**
+     * This method is used to set how many autosaves this session keeps. When a new autosave is made, the oldest one is
+     * deleted if there are already this many.
+     *
+     * @param newRetention The number of autosaves to keep, which is at least 1.
+     */
+    public void setAutosaveRetention( int newRetention )
+    {
+        this.autosaveRetention = Math.max( 1, newRetention );
+    }
+
+    /**
+     * This method is used to get how many autosaves this session keeps.
+     *
+     * @return The number of autosaves to keep.
+     */
+    public int getAutosaveRetention()
+    {
+        return this.autosaveRetention;
+    }
+
+    /**
+     * This method is used to set the name of the newest autosave of this session. Older autosaves have their number
+     * added to the end of it. Every session that autosaves at the same time needs a name of its own, or they will
+     * replace each other's autosaves.
+     *
+     * @param newName The String name of the newest autosave, without an extension.
+     * @throws IllegalArgumentException Thrown if the name is null or blank.
+     */
+    public void setAutosaveName( String newName )
+    {
+        if ( newName == null || newName.trim().isEmpty() )
+        {
+            throw new IllegalArgumentException( "The autosave name can't be blank." );
+        }
+        this.autosaveName = newName;
+    }
+
+    /**
+     * This method is used to get the name of the newest autosave of this session.
+     *
+     * @return The String name of the newest autosave, without an extension.
+     */
+    public String getAutosaveName()
+    {
+        return this.autosaveName;
+    }
+
+    /**
+     * This method records that an exit in this session has changed in a way that could leave the exit maps of its
+     * locations out of date. It is called by LocationExitUtility.exitsChanged().
+     */
+    public void exitsChanged()
+    {
+        this.exitVersion++;
+    }
+
+    /**
+     * This method is used to get the exit version of this session, which a location compares with the version its exit
+     * maps were built at to find out if they are out of date.
+     *
+     * @return The number of times the exits of this session have changed.
+     */
+    public int getExitVersion()
+    {
+        return this.exitVersion;
+    }
+
+    /**
+     * This method records that a pawn in this session has been renamed, which could leave the name maps of its locations
+     * out of date. It is called by LocationPawnUtility.pawnsChanged().
+     */
+    public void pawnsChanged()
+    {
+        this.pawnVersion++;
+    }
+
+    /**
+     * This method is used to get the pawn version of this session, which a location compares with the version its name
+     * map was built at to find out if it is out of date.
+     *
+     * @return The number of times the pawns of this session have been renamed.
+     */
+    public int getPawnVersion()
+    {
+        return this.pawnVersion;
+    }
+
+    /**
+     * This method is used to set the name that the game in this session was most recently saved or loaded with.
+     *
+     * @param saveName The String name of the saved game.
+     */
+    public void setMostRecentSaveName( String saveName )
+    {
+        this.mostRecentSaveName = saveName;
+    }
+
+    /**
+     * This method is used to get the name that the game in this session was most recently saved or loaded with.
+     *
+     * @return The String name of the saved game, or a blank string if it hasn't been saved or loaded yet.
+     */
+    public String getMostRecentSaveName()
+    {
+        return this.mostRecentSaveName;
+    }
+}
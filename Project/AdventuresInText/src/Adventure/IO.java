@@ -4,22 +4,11 @@ import Adventure.API.Utility.*;
 
 /**
  * This class is used to handle gathering input and output for the game. It utilizes a GameIOUtility object which can be
- * changed out to allow for customization to the interface.
+ * changed out to allow for customization to the interface. The output buffer and the GameIOUtility object belong to
+ * the GameSession of the thread that is calling, so every session talks to its own player.
  */
 public class IO
 {
-    private static StringBuilder outputBuffer;
-
-    private static GameIOUtility io;
-    
-    /**
-     * Here we initialize our static output buffer.
-     */
-    static
-    {
-        outputBuffer = new StringBuilder();
-    }
-
     /**
      * This class is completely static, so we make the constructor private.
      */
@@ -34,7 +23,7 @@ public class IO
      */
     public static void add( String text )
     {
-        outputBuffer.append( text );
+        GameSession.current().outputBuffer.append( text );
     }
 
     /**
@@ -44,7 +33,7 @@ public class IO
      */
     public static void addLine( String text )
     {
-        outputBuffer.append( text + "\n" );
+        GameSession.current().outputBuffer.append( text + "\n" );
     }
 
     /**
@@ -53,8 +42,9 @@ public class IO
      */
     public static void display()
     {
+        GameSession session = GameSession.current();
         clearScreen();
-        io.display( outputBuffer );
+        session.io.display( session.outputBuffer );
         clearBuffer();
     }
 
@@ -66,8 +56,9 @@ public class IO
      */
     public static void display( String prompt )
     {
+        GameSession session = GameSession.current();
         clearScreen();
-        io.display( outputBuffer, prompt );
+        session.io.display( session.outputBuffer, prompt );
         clearBuffer();        
     }
 
@@ -76,7 +67,7 @@ public class IO
      */
     public static void clearScreen()
     {
-        io.clearScreen();
+        GameSession.current().io.clearScreen();
     }
 
     /**
@@ -86,7 +77,7 @@ public class IO
      */
     public static String getInput()
     {
-        return io.getInput();
+        return GameSession.current().io.getInput();
     }
 
     /**
@@ -97,7 +88,7 @@ public class IO
      */
     public static int getChoice()
     {
-        return io.getChoice();
+        return GameSession.current().io.getChoice();
     }
 
     /**
@@ -107,7 +98,7 @@ public class IO
      */
     public static void setIOUtility( GameIOUtility newIOUtility )
     {
-        io = newIOUtility;
+        GameSession.current().io = newIOUtility;
     }
 
     /**
@@ -117,7 +108,7 @@ public class IO
      */
     static final GameIOUtility getIOUtility()
     {
-        return io;
+        return GameSession.current().io;
     }
     
     /**
@@ -125,6 +116,7 @@ public class IO
      */
     public static void clearBuffer()
     {
+        StringBuilder outputBuffer = GameSession.current().outputBuffer;
         outputBuffer.delete( 0, outputBuffer.length() );
     }
 
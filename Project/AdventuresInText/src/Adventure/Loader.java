@@ -4,8 +4,12 @@ import Adventure.API.*;
 
 import java.io.*;
 
+import java.lang.reflect.*;
+
 import java.net.*;
 
+import java.nio.charset.*;
+
 import java.util.*;
 import java.util.jar.*;
 
@@ -13,13 +17,154 @@ import java.util.jar.*;
  * This class is responsible for loading in GameMap objects from .jar files stored in the "Maps" directory. Though this is
  * working, it should be noted that this feature is not complete, nor is it completely tested. In future updates to the
  * Adventures in Text game, this class will be completely revamped, but for now it is here on an experimental only basis.
+ *
+ * Every .jar file that is scanned is given a single class loader, and the maps found in it are kept in a catalog along
+ * with the size and modification time of the file. The catalog is also written to the "Maps" directory, so a .jar file
+ * only has to be scanned again when it changes. A .jar file can list its maps in a "META-INF/services/Adventure.API.GameMap"
+ * file, one class name per line, in which case only those classes are looked at.
+ *
+ * A class loader is never closed, even when its .jar file changes or is removed, since a session may still be playing
+ * a map that was loaded with it. A changed .jar file is simply given a new class loader, and the old one is left for the
+ * garbage collector once no session uses any of its classes.
  */
 public class Loader
 {
+    /**
+     * This is the name of the file in the "Maps" directory that the catalog is kept in.
+     */
+    public static final String CATALOG_FILE_NAME = "maps.catalog";
+
+    /**
+     * This is the name of the file a .jar file can use to list its maps, in the same way as a ServiceLoader.
+     */
+    private static final String SERVICE_FILE_NAME = "META-INF/services/" + GameMap.class.getName();
+
+    private static final int CATALOG_VERSION = 1;
+
     private static File gameDirectory;
 
     private static File mapDirectory;
-    
+
+    private static HashMap<String, MapArchive> catalog;
+
+    /**
+     * This class holds what is known about a single map that can be loaded from a .jar file, without the map having to
+     * be created.
+     */
+    public static class MapEntry
+    {
+        private final MapArchive archive;
+
+        private final String className;
+
+        private final String name;
+
+        /**
+         * This constructor creates a new catalog entry for a map.
+         *
+         * @param archive The MapArchive the map was found in.
+         * @param className The String name of the class of the map.
+         * @param name The String name of the map.
+         */
+        private MapEntry( MapArchive archive, String className, String name )
+        {
+            this.archive = archive;
+            this.className = className;
+            this.name = name;
+        }
+
+        /**
+         * This method is used to get the name of the map, as it is shown to the player.
+         *
+         * @return The String name of the map.
+         */
+        public String getName()
+        {
+            return this.name;
+        }
+
+        /**
+         * This method is used to get the name of the class of the map.
+         *
+         * @return The String name of the class.
+         */
+        public String getClassName()
+        {
+            return this.className;
+        }
+
+        /**
+         * This method is used to get the absolute path to the .jar file the map was found in.
+         *
+         * @return The String absolute path to the .jar file.
+         */
+        public String getMapPath()
+        {
+            return this.archive.path;
+        }
+
+        /**
+         * This method will create the map. The map is registered with the Engine like any other component.
+         *
+         * @return The new GameMap object, with its map path set.
+         * @throws ReflectiveOperationException Thrown if the map can't be created.
+         */
+        public GameMap create()
+            throws ReflectiveOperationException
+        {
+            GameMap map = newMap( this.archive.classLoader().loadClass( this.className ) );
+            map.setMapPath( this.archive.path );
+            return map;
+        }
+    }
+
+    /**
+     * This helper class holds the catalog entry for a single .jar file, along with the class loader used for it.
+     */
+    private static class MapArchive
+    {
+        private final String path;
+
+        private final long size;
+
+        private final long lastModified;
+
+        private final ArrayList<MapEntry> maps;
+
+        private URLClassLoader classLoader;
+
+        private MapArchive( String path, long size, long lastModified )
+        {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.maps = new ArrayList<MapEntry>();
+        }
+
+        private boolean matches( File file )
+        {
+            return file.length() == this.size && file.lastModified() == this.lastModified;
+        }
+
+        private synchronized URLClassLoader classLoader()
+            throws ClassNotFoundException
+        {
+            if ( this.classLoader == null )
+            {
+                try
+                {
+                    this.classLoader = new URLClassLoader( new URL[] { new File( this.path ).toURI().toURL() },
+                                                           Loader.class.getClassLoader() );
+                }
+                catch ( MalformedURLException e )
+                {
+                    throw new ClassNotFoundException( this.path, e );
+                }
+            }
+            return this.classLoader;
+        }
+    }
+
     /**
      * Here we initialize all of the static File objects that we need for keeping track of map locations.
      */
@@ -38,6 +183,7 @@ public class Loader
          */
         
         mapDirectory = new File( getPathForFile( "Maps", true ) );
+        catalog = null;
     }
 
     /**
@@ -48,128 +194,339 @@ public class Loader
     }
 
     /**
-     * This method will return a list of all the GameMap objects it was able to locate in the .jar files it finds in the
-     * "Maps" directory.
-     * 
-     * @return A list of GameMap objects that can be loaded.
+     * This method will return the catalog entries for all of the maps it was able to locate in the .jar files it finds in
+     * the "Maps" directory. Only .jar files that are new or have changed since they were last scanned are opened, and no
+     * map is created until create() is called on its entry. The catalog is shared by every session, so only one session
+     * can look through the "Maps" directory at a time.
+     *
+     * @return A list of the MapEntry objects for the maps that can be loaded.
      */
-    public static ArrayList<GameMap> loadMaps()
+    public static synchronized ArrayList<MapEntry> findMaps()
     {
-        ArrayList<GameMap> availableMaps = new ArrayList<GameMap>();
-        File files[] = mapDirectory.listFiles();
+        HashMap<String, MapArchive> knownArchives = catalog();
+        HashMap<String, MapArchive> currentArchives = new HashMap<String, MapArchive>();
+        ArrayList<MapEntry> availableMaps = new ArrayList<MapEntry>();
+        boolean catalogChanged = false;
 
-        //Iterate over files in the maps directory
+        File files[] = mapDirectory.listFiles();
         if ( files != null )
         {
+            // The files are sorted so that the maps are always listed in the same order.
+            Arrays.sort( files );
             for ( File file : files )
             {
-                if ( file.isFile() && file.getName().endsWith( ".jar" ) )
-                {
-                    // Now we can load all the levels within the jar file
-                    availableMaps.addAll( loadMapsFromJar( file.getAbsolutePath() ) );
-                }
-                else
+                if ( !file.isFile() || !file.getName().endsWith( ".jar" ) )
                 {
                     //skip folders & non-jar files
                     continue;
                 }
+
+                String path = file.getAbsolutePath();
+                MapArchive archive = knownArchives.get( path );
+                if ( archive == null || !archive.matches( file ) )
+                {
+                    // The class loader of the old archive is left open, since another session may still be using it.
+                    archive = scanJar( file );
+                    catalogChanged = true;
+                }
+                currentArchives.put( path, archive );
+                availableMaps.addAll( archive.maps );
             }
         }
+
+        // Any .jar file that has been removed since the last scan is dropped from the catalog.
+        for ( MapArchive archive : knownArchives.values() )
+        {
+            if ( !currentArchives.containsKey( archive.path ) )
+            {
+                catalogChanged = true;
+            }
+        }
+        catalog = currentArchives;
+        if ( catalogChanged )
+        {
+            writeCatalog();
+        }
         return availableMaps;
     }
 
     /**
-     * This method will scan through a .jar file looking for classes to load. If they are GameMap classes, they are loaded
-     * and added to a list to be returned.
-     * 
+     * This method will create a single map from a .jar file, using the class loader of the .jar file from the catalog.
+     *
+     * @param pathToJarFile This is the absolute path to the .jar file the map is in.
+     * @param className This is the String name of the class of the map.
+     * @return The new GameMap object, or null if the .jar file has no map with that class.
+     */
+    public static GameMap loadMap( String pathToJarFile, String className )
+    {
+        File file = new File( pathToJarFile );
+        if ( !file.isFile() )
+        {
+            return null;
+        }
+
+        MapArchive archive = archiveFor( file );
+        for ( MapEntry entry : archive.maps )
+        {
+            if ( entry.className.equals( className ) )
+            {
+                try
+                {
+                    return entry.create();
+                }
+                catch ( ReflectiveOperationException | RuntimeException e )
+                {
+                    IO.addLine( "There was an error while loading a map from a .jar file. " );
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * This method will return a list of all the GameMap objects it was able to locate in the .jar files it finds in the
+     * "Maps" directory. Every map is created, so findMaps() should be used instead when only one of them is needed.
+     *
+     * @return A list of GameMap objects that can be loaded.
+     */
+    public static ArrayList<GameMap> loadMaps()
+    {
+        ArrayList<GameMap> availableMaps = new ArrayList<GameMap>();
+        for ( MapEntry entry : findMaps() )
+        {
+            try
+            {
+                availableMaps.add( entry.create() );
+            }
+            catch ( ReflectiveOperationException | RuntimeException e )
+            {
+                IO.addLine( "There was an error while loading a map from a .jar file. " );
+            }
+        }
+        return availableMaps;
+    }
+
+    /**
+     * This method will create every GameMap object in a .jar file. Every map is created, so loadMap() should be used
+     * instead when only one of them is needed.
+     *
      * @param pathToJarFile This is the absolute path to the .jar file to bve scanned
      * @return A list of GameMap objects that were found durring the scan.
      */
     public static ArrayList<GameMap> loadMapsFromJar( String pathToJarFile )
     {
         ArrayList<GameMap> myMaps = new ArrayList<GameMap>();
+        File file = new File( pathToJarFile );
+        if ( !file.isFile() )
+        {
+            return myMaps;
+        }
 
-        JarInputStream jarStream = null;
-        JarEntry jarEntry = null;
+        MapArchive archive = archiveFor( file );
+        for ( MapEntry entry : archive.maps )
+        {
+            try
+            {
+                myMaps.add( entry.create() );
+            }
+            catch ( ReflectiveOperationException | RuntimeException e )
+            {
+                IO.addLine( "There was an error while loading a map from a .jar file. " );
+            }
+        }
+        return myMaps;
+    }
 
-        try
+    /**
+     * This helper method gets the catalog entry for a .jar file, bringing the catalog up to date first. A .jar file
+     * outside of the "Maps" directory is scanned, but not kept in the catalog.
+     *
+     * @param jarFile This is the File of the .jar file.
+     * @return The MapArchive holding the maps in the .jar file.
+     */
+    private static synchronized MapArchive archiveFor( File jarFile )
+    {
+        findMaps();
+        MapArchive archive = catalog.get( jarFile.getAbsolutePath() );
+        if ( archive == null )
         {
-            jarStream = new JarInputStream( new FileInputStream( pathToJarFile ) );
-            jarEntry = jarStream.getNextJarEntry();
+            archive = scanJar( jarFile );
+        }
+        return archive;
+    }
 
-            while ( jarEntry != null )
+    /**
+     * This helper method scans a .jar file for the classes that implement GameMap. The classes are looked up without
+     * being initialized, and each map is only created long enough to find out its name.
+     *
+     * @param jarFile This is the File of the .jar file to be scanned.
+     * @return The MapArchive holding the maps that were found.
+     */
+    private static MapArchive scanJar( File jarFile )
+    {
+        MapArchive archive = new MapArchive( jarFile.getAbsolutePath(), jarFile.length(), jarFile.lastModified() );
+        try ( JarFile jar = new JarFile( jarFile ) )
+        {
+            ArrayList<String> classNames = new ArrayList<String>();
+            JarEntry serviceEntry = jar.getJarEntry( SERVICE_FILE_NAME );
+            if ( serviceEntry != null )
             {
-                if ( jarEntry.getName().endsWith( ".class" ) )
+                // A .jar file that lists its maps doesn't need to have all of its classes looked at.
+                BufferedReader reader =
+                    new BufferedReader( new InputStreamReader( jar.getInputStream( serviceEntry ), StandardCharsets.UTF_8 ) );
+                for ( String line = reader.readLine(); line != null; line = reader.readLine() )
                 {
-                    String classname = jarEntry.getName().replaceAll( "/", "\\." );
-
-                    classname = classname.substring( 0, classname.length() - 6 );
+                    int commentStart = line.indexOf( '#' );
+                    if ( commentStart >= 0 )
+                    {
+                        line = line.substring( 0, commentStart );
+                    }
+                    line = line.trim();
+                    if ( !line.isEmpty() )
+                    {
+                        classNames.add( line );
+                    }
+                }
+            }
+            else
+            {
+                Enumeration<JarEntry> entries = jar.entries();
+                while ( entries.hasMoreElements() )
+                {
+                    String entryName = entries.nextElement().getName();
+                    if ( entryName.endsWith( ".class" ) && !entryName.contains( "$" ) )
+                    {
+                        classNames.add( entryName.substring( 0, entryName.length() - 6 ).replace( '/', '.' ) );
+                    }
+                }
+            }
 
-                    if ( classname.contains( "$" ) == false )
+            for ( String className : classNames )
+            {
+                try
+                {
+                    Class<?> type = Class.forName( className, false, archive.classLoader() );
+                    if ( !GameMap.class.isAssignableFrom( type ) || type.isInterface() ||
+                         Modifier.isAbstract( type.getModifiers() ) )
                     {
-                        URL url = new URL( "jar:file:" + pathToJarFile + "!/" );
-
-                        URLClassLoader ucl = new URLClassLoader( new URL[] { url } );
-
-                        /* This snippet shows how to obtain a complete JarFile object without a stream.
-                            URL url = new URL( "jar:file:" + pathToJarFile + "!/" );
-                            URLClassLoader ucl = new URLClassLoader( new URL[] { url } );
-                            JarURLConnection jucl = ( JarURLConnection ) url.openConnection();
-                            JarFile jar = jucl.getJarFile();
-                         */
-
-                        // Up to this point, it will be almost the same no matter what Class I am loading
-                        try
-                        {
-                            GameMap myMap = loadMapEntry( ucl, classname );
-                            if ( myMap != null )
-                            {
-                                myMap.setMapPath( pathToJarFile );
-                                myMaps.add( myMap );
-                            }
-                        }
-                        catch ( Exception e )
-                        {
-                            e.printStackTrace();
-                        }
+                        continue;
                     }
+
+                    // A map registers itself when it is created, so it is taken straight back out once we have its name.
+                    GameMap probe = newMap( type );
+                    String mapName = probe.getName();
+                    Engine.removeComponent( probe );
+                    archive.maps.add( new MapEntry( archive, className, mapName ) );
+                }
+                catch ( ReflectiveOperationException | LinkageError | RuntimeException e )
+                {
+                    IO.addLine( "There was an error while loading a map from a .jar file. " );
                 }
-                jarEntry = jarStream.getNextJarEntry();
             }
-            jarStream.close();
         }
-        catch ( Exception e )
+        catch ( IOException e )
         {
-            e.printStackTrace();
+            IO.addLine( "There was an error while reading the .jar file " + jarFile.getName() + ". " );
         }
-        return myMaps;
+        return archive;
     }
-    
+
     /**
-     * This method is a helper for loading GameMap objects from a .jar file.
-     * 
-     * @param ucl This is the URLClassLoader object ti use to load the class.
-     * @param classname This is the String name of the class to be loaded.
-     * @return This will return a GameMap object if one can be loaded, or null if not.
+     * This helper method creates a new instance of a class of map.
+     *
+     * @param type The Class of the map.
+     * @return The new GameMap object.
+     * @throws ReflectiveOperationException Thrown if the map can't be created.
      */
-    private static GameMap loadMapEntry( URLClassLoader ucl, String classname )
+    private static GameMap newMap( Class<?> type )
+        throws ReflectiveOperationException
     {
-        try
+        if ( !GameMap.class.isAssignableFrom( type ) )
         {
-            Class c = ucl.loadClass( classname );
+            throw new ClassNotFoundException( type.getName() + " is not a GameMap" );
+        }
+        return ( GameMap ) type.getDeclaredConstructor().newInstance();
+    }
 
-            // This if statement demonstrates how to figure out if a loaded file implements an interface
-            if ( GameMap.class.isAssignableFrom( c ) )
+    /**
+     * This helper method gets the catalog, reading it from the "Maps" directory the first time it is needed. A catalog
+     * that can't be read is treated as empty, so every .jar file is simply scanned again.
+     *
+     * @return The map of catalog entries, by the absolute path of each .jar file.
+     */
+    private static HashMap<String, MapArchive> catalog()
+    {
+        if ( catalog != null )
+        {
+            return catalog;
+        }
+
+        catalog = new HashMap<String, MapArchive>();
+        File catalogFile = new File( mapDirectory, CATALOG_FILE_NAME );
+        if ( !mapDirectory.isDirectory() || !catalogFile.isFile() )
+        {
+            return catalog;
+        }
+        try ( DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( catalogFile ) ) ) )
+        {
+            if ( in.readInt() != CATALOG_VERSION )
+            {
+                return catalog;
+            }
+            HashMap<String, MapArchive> readArchives = new HashMap<String, MapArchive>();
+            int archiveCount = in.readInt();
+            for ( int i = 0; i < archiveCount; i++ )
             {
-                GameMap myMap = ( GameMap ) c.newInstance();
-                return myMap;
+                MapArchive archive = new MapArchive( in.readUTF(), in.readLong(), in.readLong() );
+                int mapCount = in.readInt();
+                for ( int j = 0; j < mapCount; j++ )
+                {
+                    archive.maps.add( new MapEntry( archive, in.readUTF(), in.readUTF() ) );
+                }
+                readArchives.put( archive.path, archive );
             }
+            catalog = readArchives;
         }
-        catch ( Exception e )
+        catch ( IOException e )
         {
-            IO.addLine( "There was an error while loading a map from a .jar file. " );
+            // A damaged catalog is thrown away, and is written again once the .jar files have been scanned.
+        }
+        return catalog;
+    }
+
+    /**
+     * This helper method writes the catalog to the "Maps" directory. The catalog only saves time, so it is not an error
+     * if it can't be written.
+     */
+    private static void writeCatalog()
+    {
+        if ( !mapDirectory.isDirectory() )
+        {
+            return;
+        }
+        File catalogFile = new File( mapDirectory, CATALOG_FILE_NAME );
+        try ( DataOutputStream out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( catalogFile ) ) ) )
+        {
+            out.writeInt( CATALOG_VERSION );
+            out.writeInt( catalog.size() );
+            for ( MapArchive archive : catalog.values() )
+            {
+                out.writeUTF( archive.path );
+                out.writeLong( archive.size );
+                out.writeLong( archive.lastModified );
+                out.writeInt( archive.maps.size() );
+                for ( MapEntry entry : archive.maps )
+                {
+                    out.writeUTF( entry.className );
+                    out.writeUTF( entry.name );
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            catalogFile.delete();
         }
-        return null;
     }
 
     /**
@@ -2,6 +2,8 @@ package Adventure;
 
 import Adventure.API.*;
 
+import java.util.*;
+
 /**
  * This class represents a single operation that can be performed by the game engine. It will take a line of string input
  * from the player and parse it into its component parts, which are "commandName", "quantity", "directObjectName",
@@ -65,94 +67,174 @@ public class Operation
         String[] commands = new String[]
             { "", "", "", "", "" };
         /*
-         * In order to parse the input string into an array of commands, the first thing
-         * we need to do is break apart the string into individual words that we can
-         * loop through.
+         * Rather than breaking the string apart into an array of words, we walk through it once and only keep track of
+         * where each word starts and ends. Words are separated by single spaces, so two spaces in a row count as an
+         * empty word between them, and any spaces at the very end of the line are ignored.
          */
-        String[] words = lineInput.split( " " );
+        int end = lineInput.length();
+        while ( end > 0 && lineInput.charAt( end - 1 ) == ' ' )
+        {
+            end--;
+        }
+        // If there is nothing but spaces, there is nothing to parse.
+        if ( end == 0 )
+        {
+            return commands;
+        }
+
         // The first word is always the command, so it goes into the array
-        commands[ 0 ] = words[ 0 ];
+        int wordEnd = lineInput.indexOf( ' ' );
         // If there are no more words, we just return our array.
-        if ( words.length == 1 )
+        if ( wordEnd < 0 || wordEnd >= end )
         {
+            commands[ 0 ] = lineInput.substring( 0, end );
             return commands;
         }
+        commands[ 0 ] = lineInput.substring( 0, wordEnd ).trim();
 
         // If there is more than just a command name, we need to load the command object
-        Object[] prepositions = new Object[ 0 ];
+        ArrayList<String> prepositions = null;
         if ( this.command instanceof GameAction )
         {
             GameAction action = ( GameAction ) command;
-            prepositions = action.prepositionList().toArray();
+            prepositions = action.prepositionList();
         }
 
-        int index = 1;
-        String temp = words[ 1 ];
-        try
+        // If the second word is a whole number, it is the quantity.
+        int wordStart = wordEnd + 1;
+        wordEnd = nextSpace( lineInput, wordStart, end );
+        if ( isInteger( lineInput, wordStart, wordEnd ) )
         {
-            Integer.parseInt( temp );
-            commands[ 1 ] = words[ 1 ];
-            index = 2;
-        }
-        catch ( Exception e )
-        {
-            // TODO: Implement error handling here.
+            commands[ 1 ] = lineInput.substring( wordStart, wordEnd );
+            wordStart = wordEnd + 1;
         }
 
-        // Here we initialize an index for keeping track of any prepositions.
-        int preposition = -1;
+        // Here we keep track of where the direct object words start and end, and then the same for the indirect object.
+        int directStart = wordStart;
+        int directEnd = -1;
+        int indirectStart = -1;
 
-        for ( int i = index; i < words.length; i++ )
+        while ( wordStart <= end )
         {
-            if ( preposition == -1 )
+            wordEnd = nextSpace( lineInput, wordStart, end );
+            if ( indirectStart < 0 && prepositions != null )
             {
-                for ( int j = 0; j < prepositions.length; j++ )
+                String preposition = matchPreposition( prepositions, lineInput, wordStart, wordEnd );
+                if ( preposition != null )
                 {
-                    if ( prepositions[ j ].equals( words[ i ] ) )
-                    {
-                        preposition = i;
-                        commands[ 3 ] = prepositions[ j ].toString();
-                    }
+                    commands[ 3 ] = preposition.trim();
+                    directEnd = wordStart - 1;
+                    indirectStart = wordEnd + 1;
                 }
             }
-            if ( preposition == -1 || i < preposition )
+            wordStart = wordEnd + 1;
+        }
+
+        if ( indirectStart < 0 )
+        {
+            directEnd = end;
+        }
+        if ( directEnd > directStart )
+        {
+            commands[ 2 ] = lineInput.substring( directStart, directEnd ).trim();
+        }
+        if ( indirectStart >= 0 && indirectStart < end )
+        {
+            commands[ 4 ] = lineInput.substring( indirectStart, end ).trim();
+        }
+        return commands;
+    }
+
+    /**
+     * This helper method finds the end of the word that starts at the given position.
+     *
+     * @param lineInput The line of input being parsed.
+     * @param start The position the word starts at.
+     * @param end The position the line ends at.
+     * @return The position of the space after the word, or the end of the line if it is the last word.
+     */
+    private static int nextSpace( String lineInput, int start, int end )
+    {
+        int space = lineInput.indexOf( ' ', start );
+        if ( space < 0 || space > end )
+        {
+            return end;
+        }
+        return space;
+    }
+
+    /**
+     * This helper method checks if a word is a whole number that fits in an int, accepting exactly what
+     * Integer.parseInt() would accept, without having to catch an exception when it is not.
+     *
+     * @param lineInput The line of input being parsed.
+     * @param start The position the word starts at.
+     * @param end The position the word ends at.
+     * @return True if the word is a whole number, false otherwise.
+     */
+    private static boolean isInteger( String lineInput, int start, int end )
+    {
+        if ( start >= end )
+        {
+            return false;
+        }
+        long limit = Integer.MAX_VALUE;
+        char first = lineInput.charAt( start );
+        if ( first == '-' || first == '+' )
+        {
+            if ( first == '-' )
             {
-                commands[ 2 ] += words[ i ] + " ";
+                limit++;
             }
-            else if ( i > preposition )
+            start++;
+            if ( start == end )
             {
-                commands[ 4 ] += words[ i ] + " ";
+                return false;
             }
         }
-        for ( int j = 0; j < commands.length; j++ )
+        long value = 0;
+        for ( int i = start; i < end; i++ )
         {
-            commands[ j ] = commands[ j ].trim();
+            int digit = Character.digit( lineInput.charAt( i ), 10 );
+            if ( digit < 0 )
+            {
+                return false;
+            }
+            value = value * 10 + digit;
+            if ( value > limit )
+            {
+                return false;
+            }
         }
-        return commands;
+        return true;
     }
 
-    private GameCommand findCommand( String commandString )
+    /**
+     * This helper method checks if a word is one of the prepositions for the current command.
+     *
+     * @param prepositions The list of prepositions to check against.
+     * @param lineInput The line of input being parsed.
+     * @param start The position the word starts at.
+     * @param end The position the word ends at.
+     * @return The matching preposition, or null if the word is not a preposition.
+     */
+    private static String matchPreposition( ArrayList<String> prepositions, String lineInput, int start, int end )
     {
-        for ( GameCommand command : Engine.commandList() )
+        String match = null;
+        for ( int j = 0; j < prepositions.size(); j++ )
         {
-            if ( command.getHotkey().equalsIgnoreCase( commandString ) ||
-                 command.getName().equalsIgnoreCase( commandString ) )
+            String preposition = prepositions.get( j );
+            if ( preposition.length() == end - start && lineInput.regionMatches( start, preposition, 0, end - start ) )
             {
-                return command;
-            }
-            if ( command instanceof GameAction )
-            {
-                GameAction action = ( GameAction ) command;
-                for ( String alias : action.aliasList() )
-                {
-                    if ( alias.equalsIgnoreCase( commandString ) )
-                    {
-                        return action;
-                    }
-                }
+                match = preposition;
             }
         }
-        return null;
+        return match;
+    }
+
+    private GameCommand findCommand( String commandString )
+    {
+        return Engine.findCommand( commandString );
     }
 
     private GameObject findObject( String objectName )
@@ -8,16 +8,6 @@ import Adventure.API.*;
  */
 public class Processor
 {
-    static boolean enginePostProcessing;
-
-    /**
-     * Here we set the static field for enginePostProcessing to false.
-     */
-    static
-    {
-        enginePostProcessing = false;
-    }
-
     /**
      * This class is completely static, so we make the constructor private.
      */
@@ -35,28 +25,35 @@ public class Processor
     {
         Operation operation = new Operation( lineInput );
         operation.run();
-        if ( enginePostProcessing )
+
+        // The flag belongs to the session, since every session processes its own commands.
+        GameSession session = GameSession.current();
+        if ( session.enginePostProcessing )
         {
-            enginePostProcessing = false;
+            session.enginePostProcessing = false;
         }
         else
         {
             postProcessEvents( operation );
         }
+
+        // The turn is over, so everything it changed can be journaled.
+        Engine.turnEnded();
     }
     
     /**
      * This method will loop through each of the registered events, check the conditions for each, and fire
-     * off any of them that have conditions that have been met.
+     * off any of them that have conditions that have been met. The conditions of an event are only checked
+     * again if something they depend on has changed since the last time, otherwise the last result is used.
      * 
      * @param operation The current operation that caused the events to be fired.
      */
     static void postProcessEvents( Operation operation )
     {
-        for ( GameEvent event : Engine.eventList() )
+        for ( GameEvent event : Engine.eventView() )
         {
             boolean conditionsPassed = false;
-            if ( ( event.hasEventConditions() && event.checkEventConditions() ) )
+            if ( ( event.hasEventConditions() && Engine.eventConditionsPassed( event ) ) )
             {
                 conditionsPassed = true;
             }
@@ -0,0 +1,333 @@
+package Adventure;
+
+import Adventure.API.*;
+
+import java.util.*;
+
+/**
+ * This class remembers the components of a map as they were when the map was first built, and keeps track of every
+ * component that has changed since then. A delta save only needs to hold the components that have changed, along with
+ * the components that have been added to or removed from the registry, since everything else can be rebuilt by building
+ * the map again.
+ *
+ * Components that are added after the map is built always go at the end of the registry, and removing a component
+ * doesn't change the order of the rest, so the registry is always the components of the baseline that have not been
+ * removed, in their original order, followed by the added components in the order they were added.
+ */
+public class SaveBaseline
+{
+    private GameComponent[] components;
+
+    private IdentityHashMap<GameComponent, Integer> baselineIds;
+
+    private int checksum;
+
+    private final BitSet removed;
+
+    private final ArrayList<GameComponent> added;
+
+    private final IdentityHashMap<GameComponent, Boolean> changed;
+
+    /**
+     * This constructor creates a new baseline that is not tracking anything yet.
+     */
+    public SaveBaseline()
+    {
+        this.components = null;
+        this.baselineIds = null;
+        this.checksum = 0;
+        this.removed = new BitSet();
+        this.added = new ArrayList<GameComponent>();
+        this.changed = new IdentityHashMap<GameComponent, Boolean>();
+    }
+
+    /**
+     * This method will make the given components the new baseline and forget every change that has been tracked. It
+     * should be called as soon as a map has been built, before anything in the game has happened.
+     *
+     * @param baselineComponents Every registered component, in registry order.
+     */
+    public void reset( List<GameComponent> baselineComponents )
+    {
+        this.components = baselineComponents.toArray( new GameComponent[ baselineComponents.size() ] );
+        this.baselineIds = new IdentityHashMap<GameComponent, Integer>( this.components.length );
+        int hash = this.components.length;
+        for ( int i = 0; i < this.components.length; i++ )
+        {
+            this.baselineIds.put( this.components[ i ], i );
+            hash = 31 * hash + this.components[ i ].getClass().getName().hashCode();
+            hash = 31 * hash + ComponentRegistry.nameKey( this.components[ i ].getName() ).hashCode();
+        }
+        this.checksum = hash;
+        this.removed.clear();
+        this.added.clear();
+        this.changed.clear();
+    }
+
+    /**
+     * This method will stop tracking changes and forget the baseline. It is used when there is no map that the current
+     * game could be rebuilt from, such as when the Engine is started again.
+     */
+    public void clear()
+    {
+        this.components = null;
+        this.baselineIds = null;
+        this.checksum = 0;
+        this.removed.clear();
+        this.added.clear();
+        this.changed.clear();
+    }
+
+    /**
+     * This method is used to find out if changes are being tracked, which is only the case after a map has been built.
+     *
+     * @return True if there is a baseline to save the changes against, false otherwise.
+     */
+    public boolean isTracking()
+    {
+        return this.components != null;
+    }
+
+    /**
+     * This method records that a component has changed.
+     *
+     * @param component The GameComponent object that has changed.
+     */
+    public void changed( GameComponent component )
+    {
+        if ( this.components != null && component != null )
+        {
+            this.changed.put( component, Boolean.TRUE );
+        }
+    }
+
+    /**
+     * This method records that a component has been added to the registry.
+     *
+     * @param component The GameComponent object that has been added.
+     */
+    public void added( GameComponent component )
+    {
+        if ( this.components != null )
+        {
+            this.added.add( component );
+        }
+    }
+
+    /**
+     * This method records that a component has been removed from the registry.
+     *
+     * @param component The GameComponent object that has been removed.
+     */
+    public void removed( GameComponent component )
+    {
+        if ( this.components == null )
+        {
+            return;
+        }
+        // A component that was removed after being added again only needs to come out of the added list.
+        int addedIndex = this.indexOfAdded( component );
+        if ( addedIndex >= 0 )
+        {
+            this.added.remove( addedIndex );
+            return;
+        }
+        Integer baselineId = this.baselineIds.get( component );
+        if ( baselineId != null )
+        {
+            this.removed.set( baselineId );
+        }
+    }
+
+    /**
+     * This method is used to find out if anything has changed since the baseline was made.
+     *
+     * @return True if a component has changed, or has been added or removed, false otherwise.
+     */
+    public boolean hasChanges()
+    {
+        return !this.changed.isEmpty() || !this.added.isEmpty() || !this.removed.isEmpty();
+    }
+
+    /**
+     * This method will move the baseline forward to the current components, so that only the changes made from now on
+     * are tracked. The baseline only has to be made again if a component was added or removed, so this is cheap for the
+     * usual case of a few components changing.
+     *
+     * @param currentComponents Every registered component, in registry order.
+     */
+    public void rebase( List<GameComponent> currentComponents )
+    {
+        if ( this.added.isEmpty() && this.removed.isEmpty() )
+        {
+            this.changed.clear();
+        }
+        else
+        {
+            this.reset( currentComponents );
+        }
+    }
+
+    /**
+     * This method is used when a delta save is loaded to restore the changes that had been tracked when it was saved.
+     * The baseline itself must already have been reset by building the map.
+     *
+     * @param removedIds The baseline ids of the components that had been removed.
+     * @param addedComponents The components that had been added, in registry order.
+     * @param changedComponents The components that had changed.
+     */
+    void restore( BitSet removedIds, List<GameComponent> addedComponents, List<GameComponent> changedComponents )
+    {
+        this.removed.clear();
+        this.removed.or( removedIds );
+        this.added.clear();
+        this.added.addAll( addedComponents );
+        this.changed.clear();
+        for ( GameComponent component : changedComponents )
+        {
+            this.changed.put( component, Boolean.TRUE );
+        }
+    }
+
+    /**
+     * This helper method finds a component in the list of added components. It is compared by identity, since two
+     * different components are never the same component even if they look alike.
+     *
+     * @param component The GameComponent object to look for.
+     * @return The position of the component in the added list, or -1 if it isn't there.
+     */
+    private int indexOfAdded( Object component )
+    {
+        for ( int i = this.added.size() - 1; i >= 0; i-- )
+        {
+            if ( this.added.get( i ) == component )
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * This method is used to get the position a component has in the registry, worked out from the baseline and the
+     * tracked changes instead of by searching the registry.
+     *
+     * @param component The object to look for.
+     * @return The position of the component in the registry, or -1 if it isn't registered.
+     */
+    public int indexOf( Object component )
+    {
+        Integer baselineId = this.baselineIds.get( component );
+        if ( baselineId != null && !this.removed.get( baselineId ) )
+        {
+            // Only a few components are ever removed, so we count the ones before this one instead of copying the set.
+            int index = baselineId;
+            for ( int i = this.removed.nextSetBit( 0 ); i >= 0 && i < baselineId; i = this.removed.nextSetBit( i + 1 ) )
+            {
+                index--;
+            }
+            return index;
+        }
+        int addedIndex = this.indexOfAdded( component );
+        if ( addedIndex >= 0 )
+        {
+            return this.components.length - this.removed.cardinality() + addedIndex;
+        }
+        return -1;
+    }
+
+    /**
+     * This method is used to get the number of components in the baseline.
+     *
+     * @return The number of components the map had when it was built.
+     */
+    public int size()
+    {
+        return this.components.length;
+    }
+
+    /**
+     * This method is used to get a number that is worked out from the class and name of every component in the
+     * baseline. Building the same map always gives the same number, so it is used to check that a delta save is being
+     * applied to the map it was made from.
+     *
+     * @return The checksum of the baseline.
+     */
+    public int checksum()
+    {
+        return this.checksum;
+    }
+
+    /**
+     * This method is used to get a component from the baseline.
+     *
+     * @param baselineId The position of the component in the baseline.
+     * @return The GameComponent object at that position.
+     */
+    public GameComponent get( int baselineId )
+    {
+        return this.components[ baselineId ];
+    }
+
+    /**
+     * This method is used to get the baseline id of a component.
+     *
+     * @param component The GameComponent object to look for.
+     * @return The position of the component in the baseline, or -1 if it was not part of the baseline.
+     */
+    public int baselineId( GameComponent component )
+    {
+        Integer baselineId = this.baselineIds.get( component );
+        if ( baselineId == null )
+        {
+            return -1;
+        }
+        return baselineId;
+    }
+
+    /**
+     * This method is used to get the baseline ids of the components that have been removed.
+     *
+     * @return A copy of the set of removed ids.
+     */
+    public BitSet removedIds()
+    {
+        return ( BitSet ) this.removed.clone();
+    }
+
+    /**
+     * This method is used to get the components that have been added, in registry order.
+     *
+     * @return A copy of the list of added components.
+     */
+    public ArrayList<GameComponent> addedComponents()
+    {
+        return new ArrayList<GameComponent>( this.added );
+    }
+
+    /**
+     * This method is used to get every registered component that has to be saved in full, in registry order. This is
+     * every component that has changed, along with every added component, since there is nothing to rebuild those from.
+     * Components that have been removed are left out, since they aren't saved at all.
+     *
+     * @return A list of the changed components.
+     */
+    public ArrayList<GameComponent> changedComponents()
+    {
+        TreeMap<Integer, GameComponent> sorted = new TreeMap<Integer, GameComponent>();
+        for ( GameComponent component : this.changed.keySet() )
+        {
+            int index = this.indexOf( component );
+            if ( index >= 0 )
+            {
+                sorted.put( index, component );
+            }
+        }
+        int firstAdded = this.components.length - this.removed.cardinality();
+        for ( int i = 0; i < this.added.size(); i++ )
+        {
+            sorted.put( firstAdded + i, this.added.get( i ) );
+        }
+        return new ArrayList<GameComponent>( sorted.values() );
+    }
+}
@@ -0,0 +1,1764 @@
+package Adventure;
+
+import Adventure.API.*;
+
+import Adventure.Base.Utility.*;
+
+import java.io.*;
+
+import java.lang.reflect.*;
+
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+
+import java.util.*;
+
+/**
+ * This class reads and writes saved games in a compact binary format. Every registered component is written once, in
+ * registry order, and is referred to everywhere else by its position in the registry, so references between components
+ * cost a few bytes instead of a whole object. Every string is written once into a table at the start of the file and is
+ * referred to by its position in the table, and the fields of each class are also written once into a table, so that the
+ * values of an object can be written without any names at all.
+ *
+ * The fields of each component are found the same way Java serialization finds them: every field that is not static
+ * and not transient is saved, and a loaded object is created the way Java serialization creates it, without running
+ * any of its own constructors. This means components from maps outside of this project can be saved too. The statuses
+ * and text of each component are written as tables of name and value pairs. Any other object whose class reads or
+ * writes itself with methods such as readObject() and writeObject() is written with Java serialization, so that those
+ * methods are still used, and a game with a component of such a class can't be saved in this format at all.
+ *
+ * A saved game starts with a magic number and a version number. Fields are matched by name when a game is loaded, so a
+ * saved game can still be loaded after fields have been added to or removed from a class.
+ *
+ * A delta save starts with a different magic number and only holds the components that have changed since the map was
+ * built, as tracked by a SaveBaseline. It names the map it was made from, so that the map can be built again when the
+ * game is loaded, and the changes are then applied on top of the freshly built components. Components that haven't
+ * changed are referred to by their position in the registry just like in a full save, since the map always builds them
+ * in the same order.
+ */
+public class SaveCodec
+{
+    /**
+     * This is the number that every saved game starts with. It is the characters "AITS" as ASCII.
+     */
+    private static final int MAGIC = 0x41495453;
+
+    /**
+     * This is the number that every delta save starts with. It is the characters "AITD" as ASCII.
+     */
+    private static final int DELTA_MAGIC = 0x41495444;
+
+    /**
+     * This is the version of the format that is written by this class.
+     */
+    public static final int VERSION = 1;
+
+    private static final byte NULL = 0;
+
+    private static final byte COMPONENT = 1;
+
+    private static final byte STRING = 2;
+
+    private static final byte INT = 3;
+
+    private static final byte LONG = 4;
+
+    private static final byte DOUBLE = 5;
+
+    private static final byte FLOAT = 6;
+
+    private static final byte TRUE = 7;
+
+    private static final byte FALSE = 8;
+
+    private static final byte SHORT = 9;
+
+    private static final byte BYTE = 10;
+
+    private static final byte CHAR = 11;
+
+    private static final byte ENUM = 12;
+
+    private static final byte REFERENCE = 13;
+
+    private static final byte OBJECT = 14;
+
+    private static final byte COLLECTION = 15;
+
+    private static final byte MAP = 16;
+
+    private static final byte ARRAY = 17;
+
+    private static final byte SERIALIZED = 18;
+
+    private static final int INITIAL_BUFFER = 1 << 16;
+
+    /**
+     * This class holds what the codec knows about one class of object: the fields that are saved for it, and the
+     * serialized form of a blank object that new instances of it are created from when a game is loaded.
+     */
+    private static class ClassInfo
+    {
+        private Class<?> type;
+
+        private final int id;
+
+        private Field[] fields;
+
+        private String typeName;
+
+        private String[] fieldNames;
+
+        private byte[] blankObject;
+
+        private ClassInfo( Class<?> type, int id )
+        {
+            this.type = type;
+            this.id = id;
+        }
+
+        private ClassInfo( String typeName, String[] fieldNames, int id )
+        {
+            this.typeName = typeName;
+            this.fieldNames = fieldNames;
+            this.id = id;
+        }
+
+        private Object newInstance()
+            throws IOException
+        {
+            if ( this.blankObject == null )
+            {
+                this.blankObject = blankObject( this.type );
+            }
+            final Class<?> blankType = this.type;
+            try ( ObjectInputStream objectIn =
+                  new ObjectInputStream( new ByteArrayInputStream( this.blankObject ) )
+                  {
+                      protected Class<?> resolveClass( ObjectStreamClass desc )
+                      {
+                          // The class may come from a map, so it is used directly rather than looked up again.
+                          return blankType;
+                      }
+                  } )
+            {
+                return objectIn.readObject();
+            }
+            catch ( ClassNotFoundException e )
+            {
+                throw new InvalidClassException( this.type.getName(), e.toString() );
+            }
+        }
+    }
+
+    /*
+     * These caches are ClassValues rather than maps keyed by Class, so that they don't keep the classes of a map alive
+     * after every session using them has ended, and its class loader can be collected.
+     */
+    private static final ClassValue<Field[]> savedFields = new ClassValue<Field[]>()
+    {
+        @Override
+        protected Field[] computeValue( Class<?> type )
+        {
+            ArrayList<Field> fieldList = new ArrayList<Field>();
+            if ( type.getSuperclass() != null )
+            {
+                fieldList.addAll( Arrays.asList( this.get( type.getSuperclass() ) ) );
+            }
+            for ( Field field : type.getDeclaredFields() )
+            {
+                int modifiers = field.getModifiers();
+                if ( !Modifier.isStatic( modifiers ) && !Modifier.isTransient( modifiers ) )
+                {
+                    field.setAccessible( true );
+                    fieldList.add( field );
+                }
+            }
+            return fieldList.toArray( new Field[ fieldList.size() ] );
+        }
+    };
+
+    private static final ClassValue<Boolean> plainCollections = new ClassValue<Boolean>()
+    {
+        @Override
+        protected Boolean computeValue( Class<?> type )
+        {
+            try
+            {
+                return Modifier.isPublic( type.getModifiers() ) && type.getConstructor() != null;
+            }
+            catch ( NoSuchMethodException e )
+            {
+                return false;
+            }
+        }
+    };
+
+    private static final ClassValue<Boolean> serializationMethods = new ClassValue<Boolean>()
+    {
+        @Override
+        protected Boolean computeValue( Class<?> type )
+        {
+            boolean hasMethods = Externalizable.class.isAssignableFrom( type );
+            for ( Class<?> declaring = type; declaring != null && !hasMethods; declaring = declaring.getSuperclass() )
+            {
+                if ( declaring == ComponentStatusUtility.class || declaring == ComponentTextUtility.class )
+                {
+                    continue;
+                }
+                hasMethods = declaresMethod( declaring, "writeObject", ObjectOutputStream.class ) ||
+                    declaresMethod( declaring, "readObject", ObjectInputStream.class ) ||
+                    declaresMethod( declaring, "readObjectNoData" ) ||
+                    declaresMethod( declaring, "writeReplace" ) || declaresMethod( declaring, "readResolve" );
+            }
+            return hasMethods;
+        }
+    };
+
+    /**
+     * This map holds every class that the session has written or read, by name, so that a saved game can be read on
+     * another thread without looking through the registry for the class loaders of maps. It belongs to the session,
+     * since the same name can be a different class in the map of another session.
+     */
+    private final HashMap<String, Class<?>> knownClasses;
+
+    private boolean serializationAllowed;
+
+    private List<ClassLoader> classLoaders;
+
+    private ByteBuffer out;
+
+    private ByteBuffer in;
+
+    private IdentityHashMap<Object, Integer> componentIds;
+
+    private SaveBaseline baseline;
+
+    private IdentityHashMap<Object, Integer> objectIds;
+
+    private final HashMap<String, Integer> stringIds;
+
+    private final ArrayList<String> strings;
+
+    private final HashMap<Class<?>, ClassInfo> classInfos;
+
+    private final ArrayList<ClassInfo> classes;
+
+    private final ArrayList<Object> objects;
+
+    private int[] statusIds;
+
+    private ArrayList<GameComponent> components;
+
+    private GamePlayer activePlayer;
+
+    private String saveName;
+
+    private boolean delta;
+
+    private String mapClassName;
+
+    private String mapPath;
+
+    /**
+     * This constructor creates a new codec. Each codec is used for a single saved game.
+     *
+     * @param knownClasses The map of the classes that the session has written or read, by name.
+     */
+    private SaveCodec( HashMap<String, Class<?>> knownClasses )
+    {
+        this.knownClasses = knownClasses;
+        this.stringIds = new HashMap<String, Integer>();
+        this.strings = new ArrayList<String>();
+        this.classInfos = new HashMap<Class<?>, ClassInfo>();
+        this.classes = new ArrayList<ClassInfo>();
+        this.objects = new ArrayList<Object>();
+    }
+
+    /**
+     * This method will write a saved game to a file, replacing the file if it already exists.
+     *
+     * @param file The File to write the saved game to.
+     * @param saveName The human readable name of the saved game.
+     * @param components The list of every registered component, in registry order.
+     * @param activePlayer The GamePlayer object that is being played.
+     * @throws IOException Thrown if the saved game can't be written.
+     */
+    public static void write( File file, String saveName, List<GameComponent> components, GamePlayer activePlayer )
+        throws IOException
+    {
+        replaceFile( file, encode( saveName, components, activePlayer ) );
+    }
+
+    /**
+     * This method will write a delta save to a file, replacing the file if it already exists.
+     *
+     * @param file The File to write the saved game to.
+     * @param saveName The human readable name of the saved game.
+     * @param baseline The SaveBaseline that has been tracking the changes to the game.
+     * @param map The GameMap object that the game was started from.
+     * @param activePlayer The GamePlayer object that is being played.
+     * @throws IOException Thrown if the saved game can't be written.
+     */
+    public static void writeDelta( File file, String saveName, SaveBaseline baseline, GameMap map,
+                                   GamePlayer activePlayer )
+        throws IOException
+    {
+        replaceFile( file, encodeDelta( saveName, baseline, map, activePlayer ) );
+    }
+
+    /**
+     * This method will write the buffers of a saved game to a file without ever leaving a half written file in its
+     * place. The buffers are written to a temporary file and forced to the disk, and the temporary file is then renamed
+     * over the old one, so a crash leaves either the old file or the new one.
+     *
+     * @param file The File to write the saved game to.
+     * @param buffers The buffers that hold the saved game, in order.
+     * @throws IOException Thrown if the file can't be written.
+     */
+    public static void replaceFile( File file, ByteBuffer[] buffers )
+        throws IOException
+    {
+        File tempFile = new File( file.getPath() + ".tmp" );
+        try ( FileChannel channel =
+              FileChannel.open( tempFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                StandardOpenOption.WRITE ) )
+        {
+            while ( buffers[ buffers.length - 1 ].hasRemaining() )
+            {
+                channel.write( buffers );
+            }
+            channel.force( true );
+        }
+        try
+        {
+            Files.move( tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING );
+        }
+        catch ( AtomicMoveNotSupportedException e )
+        {
+            Files.move( tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING );
+        }
+    }
+
+    /**
+     * This method will turn a game into the bytes of a saved game, without writing them anywhere. Everything is read from
+     * the components while this method runs, so the bytes can be written out later from any thread.
+     *
+     * @param saveName The human readable name of the saved game.
+     * @param components The list of every registered component, in registry order.
+     * @param activePlayer The GamePlayer object that is being played.
+     * @return The buffers that hold the saved game, which must be written in order.
+     * @throws IOException Thrown if one of the components can't be saved.
+     */
+    public static ByteBuffer[] encode( String saveName, List<GameComponent> components, GamePlayer activePlayer )
+        throws IOException
+    {
+        return encode( saveName, components, activePlayer, GameSession.current().savedClasses );
+    }
+
+    /**
+     * This method will turn a game into the bytes of a saved game for a session, from any thread.
+     *
+     * @param saveName The human readable name of the saved game.
+     * @param components The list of every registered component, in registry order.
+     * @param activePlayer The GamePlayer object that is being played.
+     * @param knownClasses The map of the classes that the session has written or read, by name.
+     * @return The buffers that hold the saved game, which must be written in order.
+     * @throws IOException Thrown if one of the components can't be saved.
+     */
+    static ByteBuffer[] encode( String saveName, List<GameComponent> components, GamePlayer activePlayer,
+                                HashMap<String, Class<?>> knownClasses )
+        throws IOException
+    {
+        SaveCodec codec = new SaveCodec( knownClasses );
+        ByteBuffer body = codec.writeBody( saveName, components, activePlayer );
+        ByteBuffer head = codec.writeHead();
+        return new ByteBuffer[] { head, body };
+    }
+
+    /**
+     * This method will turn the changes to a game into the bytes of a delta save, without writing them anywhere. Like
+     * encode(), everything is read from the components while this method runs.
+     *
+     * @param saveName The human readable name of the saved game.
+     * @param baseline The SaveBaseline that has been tracking the changes to the game.
+     * @param map The GameMap object that the game was started from, or null if the changes are not made against a map.
+     * @param activePlayer The GamePlayer object that is being played.
+     * @return The buffers that hold the delta save, which must be written in order.
+     * @throws IOException Thrown if one of the components can't be saved.
+     */
+    public static ByteBuffer[] encodeDelta( String saveName, SaveBaseline baseline, GameMap map,
+                                           GamePlayer activePlayer )
+        throws IOException
+    {
+        SaveCodec codec = new SaveCodec( GameSession.current().savedClasses );
+        codec.baseline = baseline;
+        ByteBuffer body = codec.writeDeltaBody( saveName, map, activePlayer );
+        ByteBuffer head = codec.writeHead();
+        return new ByteBuffer[] { head, body };
+    }
+
+    /**
+     * This method will read a saved game from a file.
+     *
+     * @param file The File to read the saved game from.
+     * @return A codec holding the components, active player and name of the saved game.
+     * @throws IOException Thrown if the file can't be read or isn't a saved game.
+     */
+    public static SaveCodec read( File file )
+        throws IOException
+    {
+        ByteBuffer buffer;
+        try ( FileChannel channel = FileChannel.open( file.toPath(), StandardOpenOption.READ ) )
+        {
+            long size = channel.size();
+            if ( size > Integer.MAX_VALUE )
+            {
+                throw new IOException( "The saved game is too large to be loaded." );
+            }
+            buffer = ByteBuffer.allocate( ( int ) size );
+            readFully( channel, buffer );
+        }
+        return decode( buffer );
+    }
+
+    /**
+     * This method will read a saved game from a buffer holding its bytes. Only the start of a delta save is read, since
+     * the rest can't be read until the map it was made from has been built again and applyDelta() is called.
+     *
+     * @param buffer The ByteBuffer holding the saved game, from its position to its limit.
+     * @return A codec holding the components, active player and name of the saved game.
+     * @throws IOException Thrown if the bytes aren't a saved game that can be loaded.
+     */
+    public static SaveCodec decode( ByteBuffer buffer )
+        throws IOException
+    {
+        GameSession session = GameSession.current();
+        return decode( buffer, session.savedClasses, session.serializationAllowed, null );
+    }
+
+    /**
+     * This method will read a saved game for a session from a buffer holding its bytes, from any thread. Everything
+     * the codec needs from the session is passed in, since a thread without a session would only see the default one.
+     *
+     * @param buffer The ByteBuffer holding the saved game, from its position to its limit.
+     * @param knownClasses The map of the classes that the session has written or read, by name.
+     * @param serializationAllowed True if objects written with Java serialization can be read, false otherwise.
+     * @param classLoaders The class loaders of the components of the session, from componentClassLoaders(), or null if
+     *                     they should be gathered from the current session whenever a class isn't found.
+     * @return A codec holding the components, active player and name of the saved game.
+     * @throws IOException Thrown if the bytes aren't a saved game that can be loaded.
+     */
+    static SaveCodec decode( ByteBuffer buffer, HashMap<String, Class<?>> knownClasses, boolean serializationAllowed,
+                             List<ClassLoader> classLoaders )
+        throws IOException
+    {
+        SaveCodec codec = new SaveCodec( knownClasses );
+        codec.serializationAllowed = serializationAllowed;
+        codec.classLoaders = classLoaders;
+        codec.in = buffer;
+        try
+        {
+            codec.readHead();
+            if ( codec.delta )
+            {
+                codec.mapClassName = ( String ) codec.readValue();
+                codec.mapPath = ( String ) codec.readValue();
+            }
+            else
+            {
+                codec.readBody();
+            }
+        }
+        catch ( BufferUnderflowException | IndexOutOfBoundsException | ClassCastException e )
+        {
+            throw new StreamCorruptedException( "The saved game is damaged." );
+        }
+        return codec;
+    }
+
+    /**
+     * This method will check if a file starts the way a saved game in this format does.
+     *
+     * @param file The File to check.
+     * @return True if the file is a saved game in this format, false otherwise.
+     */
+    public static boolean isSavedGame( File file )
+    {
+        try ( FileChannel channel = FileChannel.open( file.toPath(), StandardOpenOption.READ ) )
+        {
+            ByteBuffer buffer = ByteBuffer.allocate( 4 );
+            readFully( channel, buffer );
+            if ( buffer.remaining() < 4 )
+            {
+                return false;
+            }
+            int magic = buffer.getInt();
+            return magic == MAGIC || magic == DELTA_MAGIC;
+        }
+        catch ( IOException e )
+        {
+            return false;
+        }
+    }
+
+    /**
+     * This helper method reads from a channel until a buffer is full or the end of the channel is reached, and then
+     * flips the buffer so that it can be read from.
+     *
+     * @param channel The FileChannel to read from.
+     * @param buffer The ByteBuffer to read into.
+     * @throws IOException Thrown if the channel can't be read from.
+     */
+    private static void readFully( FileChannel channel, ByteBuffer buffer )
+        throws IOException
+    {
+        while ( buffer.hasRemaining() )
+        {
+            if ( channel.read( buffer ) < 0 )
+            {
+                break;
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * This method is used to get every component from a saved game that has been read, in registry order.
+     *
+     * @return The list of components from the saved game.
+     */
+    public ArrayList<GameComponent> getComponents()
+    {
+        return this.components;
+    }
+
+    /**
+     * This method is used to get the player that was being played when the game was saved.
+     *
+     * @return The GamePlayer object that was being played.
+     */
+    public GamePlayer getActivePlayer()
+    {
+        return this.activePlayer;
+    }
+
+    /**
+     * This method is used to get the human readable name of a saved game that has been read.
+     *
+     * @return The String name of the saved game.
+     */
+    public String getSaveName()
+    {
+        return this.saveName;
+    }
+
+    /**
+     * This method is used to find out if a saved game that has been read is a delta save.
+     *
+     * @return True if the saved game is a delta save, false if it is a full save.
+     */
+    public boolean isDelta()
+    {
+        return this.delta;
+    }
+
+    /**
+     * This method is used to get the name of the class of the map that a delta save was made from.
+     *
+     * @return The String name of the class of the map, or null if the saved game is a full save.
+     */
+    public String getMapClassName()
+    {
+        return this.mapClassName;
+    }
+
+    /**
+     * This method is used to get the path to the JAR archive that the map of a delta save came from.
+     *
+     * @return The String path to the JAR archive, or null if the map did not come from one.
+     */
+    public String getMapPath()
+    {
+        return this.mapPath;
+    }
+
+    /**
+     * This method will apply a delta save that has been read to the components of a freshly built map. Afterwards the
+     * baseline holds the same changes it did when the game was saved, and the loaded components can be gotten from
+     * getComponents() like those of a full save, so the saved game is no longer treated as a delta.
+     *
+     * @param baseline The SaveBaseline of the map, which must have just been built.
+     * @throws IOException Thrown if the saved game is damaged or was made from a different version of the map.
+     */
+    public void applyDelta( SaveBaseline baseline )
+        throws IOException
+    {
+        try
+        {
+            this.readDeltaBody( baseline );
+            this.delta = false;
+        }
+        catch ( BufferUnderflowException | IndexOutOfBoundsException | ClassCastException e )
+        {
+            throw new StreamCorruptedException( "The saved game is damaged." );
+        }
+    }
+
+    /**
+     * This helper method writes the components and the rest of the game state, collecting every string and class that
+     * is used along the way.
+     *
+     * @param saveName The human readable name of the saved game.
+     * @param components The list of every registered component, in registry order.
+     * @param activePlayer The GamePlayer object that is being played.
+     * @return The buffer holding the body of the saved game.
+     * @throws IOException Thrown if one of the components can't be saved.
+     */
+    private ByteBuffer writeBody( String saveName, List<GameComponent> components, GamePlayer activePlayer )
+        throws IOException
+    {
+        this.out = ByteBuffer.allocate( INITIAL_BUFFER );
+
+        int count = components.size();
+        this.componentIds = new IdentityHashMap<Object, Integer>( count );
+        this.objectIds = new IdentityHashMap<Object, Integer>( count * 2 );
+        for ( int i = 0; i < count; i++ )
+        {
+            this.componentIds.put( components.get( i ), i );
+        }
+
+        // The class of every component comes first, so that every component can be created before any of them are read.
+        this.putVarInt( count );
+        for ( GameComponent component : components )
+        {
+            this.putVarInt( this.classInfo( component.getClass() ).id );
+        }
+        for ( GameComponent component : components )
+        {
+            this.writeFields( component, this.classInfo( component.getClass() ) );
+        }
+
+        this.writeValue( saveName );
+        this.writeValue( activePlayer );
+
+        this.out.flip();
+        return this.out;
+    }
+
+    /**
+     * This helper method writes the body of a delta save: the map it was made from, the components that have been
+     * removed from or added to the registry since the map was built, and the fields of every component that has changed.
+     * Ids are written as the distance from the one before them, since they are in order and usually close together.
+     *
+     * @param saveName The human readable name of the saved game.
+     * @param map The GameMap object that the game was started from.
+     * @param activePlayer The GamePlayer object that is being played.
+     * @return The buffer holding the body of the delta save.
+     * @throws IOException Thrown if one of the components can't be saved.
+     */
+    private ByteBuffer writeDeltaBody( String saveName, GameMap map, GamePlayer activePlayer )
+        throws IOException
+    {
+        this.out = ByteBuffer.allocate( INITIAL_BUFFER );
+        this.objectIds = new IdentityHashMap<Object, Integer>();
+
+        this.writeValue( map == null ? null : map.getClass().getName() );
+        this.writeValue( map == null ? null : map.getMapPath() );
+        this.putVarInt( this.baseline.size() );
+        this.ensure( 4 );
+        this.out.putInt( this.baseline.checksum() );
+
+        BitSet removed = this.baseline.removedIds();
+        this.putVarInt( removed.cardinality() );
+        int previous = 0;
+        for ( int baselineId = removed.nextSetBit( 0 ); baselineId >= 0; baselineId = removed.nextSetBit( baselineId + 1 ) )
+        {
+            this.putVarInt( baselineId - previous );
+            previous = baselineId;
+        }
+
+        // An added component that was part of the baseline is the same object as before, so only new ones need a class.
+        ArrayList<GameComponent> added = this.baseline.addedComponents();
+        this.putVarInt( added.size() );
+        for ( GameComponent component : added )
+        {
+            int baselineId = this.baseline.baselineId( component );
+            this.putVarInt( baselineId + 1 );
+            if ( baselineId < 0 )
+            {
+                this.putVarInt( this.classInfo( component.getClass() ).id );
+            }
+        }
+
+        ArrayList<GameComponent> changed = this.baseline.changedComponents();
+        this.putVarInt( changed.size() );
+        previous = -1;
+        for ( GameComponent component : changed )
+        {
+            int index = this.baseline.indexOf( component );
+            ClassInfo info = this.classInfo( component.getClass() );
+            this.putVarInt( index - previous - 1 );
+            this.putVarInt( info.id );
+            this.writeFields( component, info );
+            previous = index;
+        }
+
+        this.writeValue( saveName );
+        this.writeValue( activePlayer );
+
+        this.out.flip();
+        return this.out;
+    }
+
+    /**
+     * This helper method writes the header, the string table and the class table.
+     *
+     * @return The buffer holding the start of the saved game.
+     */
+    private ByteBuffer writeHead()
+    {
+        this.out = ByteBuffer.allocate( INITIAL_BUFFER );
+        this.out.putInt( this.baseline == null ? MAGIC : DELTA_MAGIC );
+        this.out.putInt( VERSION );
+
+        this.putVarInt( this.strings.size() );
+        for ( String string : this.strings )
+        {
+            byte[] bytes = string.getBytes( StandardCharsets.UTF_8 );
+            this.putVarInt( bytes.length );
+            this.ensure( bytes.length );
+            this.out.put( bytes );
+        }
+
+        // New strings can't be added once the string table is written, so the class table only uses strings that were
+        // added when each class was first seen.
+        this.putVarInt( this.classes.size() );
+        for ( ClassInfo info : this.classes )
+        {
+            this.putVarInt( this.stringIds.get( info.type.getName() ) );
+            this.putVarInt( info.fields.length );
+            for ( Field field : info.fields )
+            {
+                this.putVarInt( this.stringIds.get( field.getDeclaringClass().getName() ) );
+                this.putVarInt( this.stringIds.get( field.getName() ) );
+            }
+        }
+
+        this.out.flip();
+        return this.out;
+    }
+
+    /**
+     * This helper method reads the header, the string table and the class table.
+     *
+     * @throws IOException Thrown if the bytes aren't a saved game that can be loaded.
+     */
+    private void readHead()
+        throws IOException
+    {
+        int magic = this.in.remaining() < 8 ? 0 : this.in.getInt();
+        if ( magic != MAGIC && magic != DELTA_MAGIC )
+        {
+            throw new StreamCorruptedException( "The file is not a saved game." );
+        }
+        this.delta = magic == DELTA_MAGIC;
+        int version = this.in.getInt();
+        if ( version > VERSION )
+        {
+            throw new InvalidObjectException( "The saved game was made by a newer version of the game." );
+        }
+
+        int stringCount = this.getVarInt();
+        for ( int i = 0; i < stringCount; i++ )
+        {
+            int length = this.getVarInt();
+            String string;
+            if ( this.in.hasArray() )
+            {
+                string = new String( this.in.array(), this.in.arrayOffset() + this.in.position(), length,
+                                     StandardCharsets.UTF_8 );
+                this.in.position( this.in.position() + length );
+            }
+            else
+            {
+                byte[] bytes = new byte[ length ];
+                this.in.get( bytes );
+                string = new String( bytes, StandardCharsets.UTF_8 );
+            }
+            this.strings.add( string );
+        }
+
+        // The classes aren't looked up until they are used, since the classes of a delta save may come from a map that
+        // hasn't been loaded yet.
+        int classCount = this.getVarInt();
+        for ( int i = 0; i < classCount; i++ )
+        {
+            String typeName = this.strings.get( this.getVarInt() );
+            String[] fieldNames = new String[ this.getVarInt() ];
+            for ( int j = 0; j < fieldNames.length; j++ )
+            {
+                String declaringClass = this.strings.get( this.getVarInt() );
+                fieldNames[ j ] = declaringClass + "." + this.strings.get( this.getVarInt() );
+            }
+            this.classes.add( new ClassInfo( typeName, fieldNames, i ) );
+        }
+    }
+
+    /**
+     * This helper method gets the information for a class that was saved, finding the class and matching up its fields
+     * the first time it is used.
+     *
+     * @param id The int id of the class in the class table.
+     * @return The ClassInfo for the class.
+     * @throws IOException Thrown if the class can't be found.
+     */
+    private ClassInfo savedClass( int id )
+        throws IOException
+    {
+        ClassInfo info = this.classes.get( id );
+        if ( info.type == null )
+        {
+            Class<?> type = this.findClass( info.typeName );
+            HashMap<String, Field> currentFields = new HashMap<String, Field>();
+            for ( Field field : savedFields( type ) )
+            {
+                currentFields.put( field.getDeclaringClass().getName() + "." + field.getName(), field );
+            }
+
+            // Fields that no longer exist are left as null, and their values are read and thrown away.
+            info.fields = new Field[ info.fieldNames.length ];
+            for ( int i = 0; i < info.fields.length; i++ )
+            {
+                info.fields[ i ] = currentFields.get( info.fieldNames[ i ] );
+            }
+            info.type = type;
+        }
+        return info;
+    }
+
+    /**
+     * This helper method reads the components and the rest of the game state.
+     *
+     * @throws IOException Thrown if the bytes aren't a saved game that can be loaded.
+     */
+    private void readBody()
+        throws IOException
+    {
+        int count = this.getVarInt();
+        ClassInfo[] componentClasses = new ClassInfo[ count ];
+        this.components = new ArrayList<GameComponent>( count );
+        for ( int i = 0; i < count; i++ )
+        {
+            componentClasses[ i ] = this.savedClass( this.getVarInt() );
+            this.components.add( ( GameComponent ) componentClasses[ i ].newInstance() );
+        }
+        for ( int i = 0; i < count; i++ )
+        {
+            this.readFields( this.components.get( i ), componentClasses[ i ] );
+        }
+
+        this.saveName = ( String ) this.readValue();
+        this.activePlayer = ( GamePlayer ) this.readValue();
+    }
+
+    /**
+     * This helper method reads the rest of a delta save and applies it to the components of the baseline.
+     *
+     * @param baseline The SaveBaseline of the freshly built map.
+     * @throws IOException Thrown if the saved game doesn't match the map or can't be loaded.
+     */
+    private void readDeltaBody( SaveBaseline baseline )
+        throws IOException
+    {
+        if ( this.getVarInt() != baseline.size() || this.in.getInt() != baseline.checksum() )
+        {
+            throw new InvalidObjectException( "The saved game was made from a different version of the map." );
+        }
+
+        BitSet removed = new BitSet( baseline.size() );
+        int removedCount = this.getVarInt();
+        int baselineId = 0;
+        for ( int i = 0; i < removedCount; i++ )
+        {
+            baselineId += this.getVarInt();
+            removed.set( baselineId );
+        }
+
+        // The registry is the baseline without the removed components, followed by the added ones.
+        this.components = new ArrayList<GameComponent>( baseline.size() );
+        for ( int i = removed.nextClearBit( 0 ); i < baseline.size(); i = removed.nextClearBit( i + 1 ) )
+        {
+            this.components.add( baseline.get( i ) );
+        }
+        int addedCount = this.getVarInt();
+        ArrayList<GameComponent> added = new ArrayList<GameComponent>( addedCount );
+        for ( int i = 0; i < addedCount; i++ )
+        {
+            baselineId = this.getVarInt() - 1;
+            if ( baselineId >= 0 )
+            {
+                added.add( baseline.get( baselineId ) );
+            }
+            else
+            {
+                added.add( ( GameComponent ) this.savedClass( this.getVarInt() ).newInstance() );
+            }
+        }
+        this.components.addAll( added );
+
+        int changedCount = this.getVarInt();
+        ArrayList<GameComponent> changed = new ArrayList<GameComponent>( changedCount );
+        int index = -1;
+        for ( int i = 0; i < changedCount; i++ )
+        {
+            index += this.getVarInt() + 1;
+            GameComponent component = this.components.get( index );
+            ClassInfo info = this.savedClass( this.getVarInt() );
+            if ( info.type != component.getClass() )
+            {
+                throw new InvalidClassException( info.typeName, "the saved game doesn't match the map" );
+            }
+            this.readFields( component, info );
+            changed.add( component );
+        }
+
+        this.saveName = ( String ) this.readValue();
+        this.activePlayer = ( GamePlayer ) this.readValue();
+
+        baseline.restore( removed, added, changed );
+    }
+
+    /**
+     * This helper method gets every field of a class that is saved, which is every field that is not static and not
+     * transient, including the fields of its superclasses.
+     *
+     * @param type The Class to get the fields of.
+     * @return An array holding the saved fields, with the fields of superclasses first.
+     */
+    private static Field[] savedFields( Class<?> type )
+    {
+        return savedFields.get( type );
+    }
+
+    /**
+     * This helper method writes the Java serialization of a blank object of a class, which names the class but holds
+     * none of its fields. Reading it back with an ObjectInputStream creates a new object the same way Java serialization
+     * does, by only running the constructor of the first superclass that is not serializable, and leaves every saved
+     * field with its default value for the codec to fill in.
+     *
+     * @param type The serializable Class to write a blank object of.
+     * @return The bytes of the blank object.
+     * @throws IOException Thrown if the class can't be serialized.
+     */
+    private static byte[] blankObject( Class<?> type )
+        throws IOException
+    {
+        ObjectStreamClass streamClass = ObjectStreamClass.lookup( type );
+        if ( streamClass == null )
+        {
+            throw new NotSerializableException( type.getName() );
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try ( DataOutputStream data = new DataOutputStream( bytes ) )
+        {
+            data.writeShort( ObjectStreamConstants.STREAM_MAGIC );
+            data.writeShort( ObjectStreamConstants.STREAM_VERSION );
+            data.writeByte( ObjectStreamConstants.TC_OBJECT );
+            data.writeByte( ObjectStreamConstants.TC_CLASSDESC );
+            data.writeUTF( type.getName() );
+            data.writeLong( streamClass.getSerialVersionUID() );
+            data.writeByte( ObjectStreamConstants.SC_SERIALIZABLE );
+            data.writeShort( 0 );
+            data.writeByte( ObjectStreamConstants.TC_ENDBLOCKDATA );
+            data.writeByte( ObjectStreamConstants.TC_NULL );
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * This helper method will check if a class reads or writes itself, through any of the methods that Java
+     * serialization looks for. The codec can't use those methods, so an object of such a class is written with Java
+     * serialization instead. The status and text utilities only have these methods for older saved games, and the codec
+     * writes their statuses and text itself, so they don't count.
+     *
+     * @param type The Class to check.
+     * @return True if the class or one of its superclasses has any of these methods, false otherwise.
+     */
+    private static boolean hasSerializationMethods( Class<?> type )
+    {
+        return serializationMethods.get( type );
+    }
+
+    /**
+     * This helper method will check if a class declares a method itself, whatever its access.
+     *
+     * @param type The Class to check.
+     * @param name The String name of the method.
+     * @param parameterTypes The classes of the parameters of the method.
+     * @return True if the class declares the method, false otherwise.
+     */
+    private static boolean declaresMethod( Class<?> type, String name, Class<?>... parameterTypes )
+    {
+        try
+        {
+            type.getDeclaredMethod( name, parameterTypes );
+            return true;
+        }
+        catch ( NoSuchMethodException e )
+        {
+            return false;
+        }
+    }
+
+    /**
+     * This method will check if a game can be saved in this format. It can't if any of its components reads or writes
+     * itself with methods such as readObject() and writeObject(), since only Java serialization uses those methods.
+     *
+     * @param components The list of every registered component.
+     * @return True if the game can be saved in this format, false if it must be saved with Java serialization.
+     */
+    public static boolean canEncode( List<GameComponent> components )
+    {
+        for ( GameComponent component : components )
+        {
+            if ( hasSerializationMethods( component.getClass() ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This helper method gets the information for a class that is being written, adding the class to the class table the
+     * first time it is seen.
+     *
+     * @param type The Class of an object being written.
+     * @return The ClassInfo for the class.
+     * @throws InvalidClassException Thrown if the class reads or writes itself, so its fields can't be written.
+     */
+    private ClassInfo classInfo( Class<?> type )
+        throws InvalidClassException
+    {
+        ClassInfo info = this.classInfos.get( type );
+        if ( info == null )
+        {
+            if ( hasSerializationMethods( type ) )
+            {
+                throw new InvalidClassException( type.getName(), "the class can only be saved with Java serialization" );
+            }
+            info = new ClassInfo( type, this.classes.size() );
+            info.fields = savedFields( type );
+            this.stringId( type.getName() );
+            for ( Field field : info.fields )
+            {
+                this.stringId( field.getDeclaringClass().getName() );
+                this.stringId( field.getName() );
+            }
+            this.classInfos.put( type, info );
+            this.classes.add( info );
+            synchronized ( this.knownClasses )
+            {
+                this.knownClasses.put( type.getName(), type );
+            }
+        }
+        return info;
+    }
+
+    /**
+     * This method is used to get the class loader of every class of the components registered with the current session.
+     * It must be called on the thread of the session, and the list can then be used to read its saved games on another
+     * thread.
+     *
+     * @return A list holding each of the class loaders once.
+     */
+    static List<ClassLoader> componentClassLoaders()
+    {
+        LinkedHashSet<ClassLoader> loaders = new LinkedHashSet<ClassLoader>();
+        for ( GameComponent component : Engine.componentView() )
+        {
+            ClassLoader loader = component.getClass().getClassLoader();
+            if ( loader != null )
+            {
+                loaders.add( loader );
+            }
+        }
+        return new ArrayList<ClassLoader>( loaders );
+    }
+
+    /**
+     * This helper method finds a class by name. Classes from maps that were loaded out of a JAR archive can't be found by
+     * the class loader of the Engine, so the class loaders of the components of the session are tried as well.
+     *
+     * @param className The String name of the class.
+     * @return The Class with the given name.
+     * @throws IOException Thrown if the class can't be found.
+     */
+    private Class<?> findClass( String className )
+        throws IOException
+    {
+        synchronized ( this.knownClasses )
+        {
+            Class<?> type = this.knownClasses.get( className );
+            if ( type != null )
+            {
+                return type;
+            }
+        }
+
+        Class<?> type = null;
+        try
+        {
+            type = Class.forName( className, false, SaveCodec.class.getClassLoader() );
+        }
+        catch ( ClassNotFoundException e )
+        {
+            List<ClassLoader> loaders = this.classLoaders != null ? this.classLoaders : componentClassLoaders();
+            for ( ClassLoader loader : loaders )
+            {
+                if ( type == null )
+                {
+                    try
+                    {
+                        type = Class.forName( className, false, loader );
+                    }
+                    catch ( ClassNotFoundException notFound )
+                    {
+                        continue;
+                    }
+                }
+            }
+            if ( type == null )
+            {
+                throw new InvalidClassException( className, "the class can't be found" );
+            }
+        }
+        synchronized ( this.knownClasses )
+        {
+            this.knownClasses.put( className, type );
+        }
+        return type;
+    }
+
+    /**
+     * This helper method gets the class for the elements of an array, which may be one of the primitive types.
+     *
+     * @param className The String name of the class.
+     * @return The Class with the given name.
+     * @throws IOException Thrown if the class can't be found.
+     */
+    private Class<?> findElementClass( String className )
+        throws IOException
+    {
+        switch ( className )
+        {
+        case "int":
+            return int.class;
+        case "long":
+            return long.class;
+        case "double":
+            return double.class;
+        case "float":
+            return float.class;
+        case "boolean":
+            return boolean.class;
+        case "short":
+            return short.class;
+        case "byte":
+            return byte.class;
+        case "char":
+            return char.class;
+        default:
+            return this.findClass( className );
+        }
+    }
+
+    /**
+     * This helper method gets the id of a string in the string table, adding the string the first time it is seen.
+     *
+     * @param string The String to look up.
+     * @return The int id of the string.
+     */
+    private int stringId( String string )
+    {
+        Integer id = this.stringIds.get( string );
+        if ( id == null )
+        {
+            id = this.strings.size();
+            this.stringIds.put( string, id );
+            this.strings.add( string );
+        }
+        return id;
+    }
+
+    /**
+     * This helper method gets the id of a status name in the string table as an id from the StatusKeys table, so that
+     * each status name is only looked up once per saved game.
+     *
+     * @param stringId The int id of the status name in the string table.
+     * @return The int id of the status name in the StatusKeys table.
+     */
+    private int statusId( int stringId )
+    {
+        if ( this.statusIds == null )
+        {
+            this.statusIds = new int[ this.strings.size() ];
+            Arrays.fill( this.statusIds, -1 );
+        }
+        if ( this.statusIds[ stringId ] < 0 )
+        {
+            this.statusIds[ stringId ] = StatusKeys.intern( this.strings.get( stringId ) );
+        }
+        return this.statusIds[ stringId ];
+    }
+
+    /**
+     * This helper method writes the values of every saved field of an object, followed by the statuses or text of any
+     * utility that stores them outside of its saved fields.
+     *
+     * @param object The object to be written.
+     * @param info The ClassInfo for the class of the object.
+     * @throws IOException Thrown if one of the values can't be saved.
+     */
+    private void writeFields( Object object, ClassInfo info )
+        throws IOException
+    {
+        try
+        {
+            for ( Field field : info.fields )
+            {
+                this.writeValue( field.get( object ) );
+            }
+        }
+        catch ( IllegalAccessException e )
+        {
+            throw new InvalidClassException( info.type.getName(), e.toString() );
+        }
+
+        if ( object instanceof ComponentStatusUtility )
+        {
+            HashMap<String, Integer> statusList = ( ( ComponentStatusUtility ) object ).statusList();
+            this.putVarInt( statusList.size() );
+            for ( Map.Entry<String, Integer> status : statusList.entrySet() )
+            {
+                this.putVarInt( this.stringId( status.getKey() ) );
+                this.putSignedVarInt( status.getValue() );
+            }
+        }
+        else if ( object instanceof ComponentTextUtility )
+        {
+            HashMap<String, String> textList = ( ( ComponentTextUtility ) object ).textList();
+            this.putVarInt( textList.size() );
+            for ( Map.Entry<String, String> text : textList.entrySet() )
+            {
+                this.putVarInt( this.stringId( text.getKey() ) );
+                this.putVarInt( this.stringId( text.getValue() ) );
+            }
+        }
+    }
+
+    /**
+     * This helper method reads the values of every saved field of an object, followed by the statuses or text of any
+     * utility that stores them outside of its saved fields.
+     *
+     * @param object The object to be read into.
+     * @param info The ClassInfo for the class the object was saved as.
+     * @throws IOException Thrown if one of the values can't be loaded.
+     */
+    private void readFields( Object object, ClassInfo info )
+        throws IOException
+    {
+        for ( Field field : info.fields )
+        {
+            Object value = this.readValue();
+            if ( field != null )
+            {
+                try
+                {
+                    field.set( object, value );
+                }
+                catch ( IllegalArgumentException | IllegalAccessException e )
+                {
+                    // The type of the field has changed since the game was saved, so it keeps its default value.
+                    continue;
+                }
+            }
+        }
+
+        if ( object instanceof ComponentStatusUtility )
+        {
+            int[] statusIds = new int[ this.getVarInt() ];
+            int[] values = new int[ statusIds.length ];
+            for ( int i = 0; i < statusIds.length; i++ )
+            {
+                statusIds[ i ] = this.statusId( this.getVarInt() );
+                values[ i ] = this.getSignedVarInt();
+            }
+            ( ( ComponentStatusUtility ) object ).restoreStatuses( statusIds, values );
+        }
+        else if ( object instanceof ComponentTextUtility )
+        {
+            String[] textNames = new String[ this.getVarInt() ];
+            String[] texts = new String[ textNames.length ];
+            for ( int i = 0; i < textNames.length; i++ )
+            {
+                textNames[ i ] = this.strings.get( this.getVarInt() );
+                texts[ i ] = this.strings.get( this.getVarInt() );
+            }
+            ( ( ComponentTextUtility ) object ).restoreText( textNames, texts );
+        }
+    }
+
+    /**
+     * This helper method will check if an object can have its fields written directly. Classes from the Java runtime
+     * hide their fields, so they are only written through their public methods or with Java serialization.
+     *
+     * @param type The Class of the object.
+     * @return True if the fields of the object can be written, false otherwise.
+     */
+    private static boolean isPlainClass( Class<?> type )
+    {
+        String className = type.getName();
+        return !( className.startsWith( "java." ) || className.startsWith( "javax." ) || className.startsWith( "jdk." ) ||
+                  className.startsWith( "sun." ) || className.startsWith( "com.sun." ) ) &&
+            Serializable.class.isAssignableFrom( type ) && !type.isAnonymousClass() && !type.isSynthetic() &&
+            !hasSerializationMethods( type );
+    }
+
+    /**
+     * This helper method will check if a collection or map from the Java runtime can be written by its elements, which
+     * is only possible if it can be created again with a public constructor that takes no arguments.
+     *
+     * @param type The Class of the collection or map.
+     * @return True if the elements of the object can be written, false otherwise.
+     */
+    private static boolean isPlainCollection( Class<?> type )
+    {
+        return plainCollections.get( type );
+    }
+
+    /**
+     * This helper method gets the position of a component in the registry. A delta save works it out from the baseline,
+     * since it doesn't look at every component.
+     *
+     * @param component The object to look for.
+     * @return The position of the component in the registry, or -1 if it isn't registered.
+     */
+    private int componentId( Object component )
+    {
+        if ( this.baseline != null )
+        {
+            return this.baseline.indexOf( component );
+        }
+        Integer componentId = this.componentIds.get( component );
+        if ( componentId == null )
+        {
+            return -1;
+        }
+        return componentId;
+    }
+
+    /**
+     * This helper method writes a single value, with a tag in front of it that says what kind of value it is.
+     *
+     * @param value The value to be written, which may be null.
+     * @throws IOException Thrown if the value can't be saved.
+     */
+    private void writeValue( Object value )
+        throws IOException
+    {
+        if ( value == null )
+        {
+            this.putByte( NULL );
+            return;
+        }
+
+        if ( value instanceof GameComponent )
+        {
+            int componentId = this.componentId( value );
+            if ( componentId >= 0 )
+            {
+                this.putByte( COMPONENT );
+                this.putVarInt( componentId );
+                return;
+            }
+        }
+
+        if ( value instanceof String )
+        {
+            this.putByte( STRING );
+            this.putVarInt( this.stringId( ( String ) value ) );
+        }
+        else if ( value instanceof Integer )
+        {
+            this.putByte( INT );
+            this.putSignedVarInt( ( Integer ) value );
+        }
+        else if ( value instanceof Boolean )
+        {
+            this.putByte( ( ( Boolean ) value ) ? TRUE : FALSE );
+        }
+        else if ( value instanceof Double )
+        {
+            this.putByte( DOUBLE );
+            this.ensure( 8 );
+            this.out.putDouble( ( Double ) value );
+        }
+        else if ( value instanceof Long )
+        {
+            this.putByte( LONG );
+            this.putSignedVarLong( ( Long ) value );
+        }
+        else if ( value instanceof Float )
+        {
+            this.putByte( FLOAT );
+            this.ensure( 4 );
+            this.out.putFloat( ( Float ) value );
+        }
+        else if ( value instanceof Short )
+        {
+            this.putByte( SHORT );
+            this.putSignedVarInt( ( Short ) value );
+        }
+        else if ( value instanceof Byte )
+        {
+            this.putByte( BYTE );
+            this.putByte( ( Byte ) value );
+        }
+        else if ( value instanceof Character )
+        {
+            this.putByte( CHAR );
+            this.putVarInt( ( Character ) value );
+        }
+        else if ( value instanceof Enum )
+        {
+            this.putByte( ENUM );
+            this.putVarInt( this.stringId( ( ( Enum<?> ) value ).getDeclaringClass().getName() ) );
+            this.putVarInt( this.stringId( ( ( Enum<?> ) value ).name() ) );
+        }
+        else
+        {
+            this.writeObject( value );
+        }
+    }
+
+    /**
+     * This helper method writes an object that is not a component or a simple value. An object that has already been
+     * written is only written as a reference to the first copy, so objects that are shared stay shared when loaded.
+     *
+     * @param value The object to be written.
+     * @throws IOException Thrown if the object can't be saved.
+     */
+    private void writeObject( Object value )
+        throws IOException
+    {
+        Integer objectId = this.objectIds.get( value );
+        if ( objectId != null )
+        {
+            this.putByte( REFERENCE );
+            this.putVarInt( objectId );
+            return;
+        }
+        this.objectIds.put( value, this.objectIds.size() );
+
+        Class<?> type = value.getClass();
+        ClassInfo info = this.classInfos.get( type );
+        if ( info != null )
+        {
+            // Most objects are of a class that has already been written, so we check for that first.
+            this.putByte( OBJECT );
+            this.putVarInt( info.id );
+            this.writeFields( value, info );
+        }
+        else if ( type.isArray() )
+        {
+            int length = Array.getLength( value );
+            this.putByte( ARRAY );
+            this.putVarInt( this.stringId( type.getComponentType().getName() ) );
+            this.putVarInt( length );
+            for ( int i = 0; i < length; i++ )
+            {
+                this.writeValue( Array.get( value, i ) );
+            }
+        }
+        else if ( value instanceof Collection && isPlainCollection( type ) )
+        {
+            Collection<?> collection = ( Collection<?> ) value;
+            this.putByte( COLLECTION );
+            this.putVarInt( this.stringId( type.getName() ) );
+            this.putVarInt( collection.size() );
+            for ( Object element : collection )
+            {
+                this.writeValue( element );
+            }
+        }
+        else if ( value instanceof Map && isPlainCollection( type ) )
+        {
+            Map<?, ?> map = ( Map<?, ?> ) value;
+            this.putByte( MAP );
+            this.putVarInt( this.stringId( type.getName() ) );
+            this.putVarInt( map.size() );
+            for ( Map.Entry<?, ?> entry : map.entrySet() )
+            {
+                this.writeValue( entry.getKey() );
+                this.writeValue( entry.getValue() );
+            }
+        }
+        else if ( isPlainClass( type ) )
+        {
+            info = this.classInfo( type );
+            this.putByte( OBJECT );
+            this.putVarInt( info.id );
+            this.writeFields( value, info );
+        }
+        else
+        {
+            // Anything else is written with Java serialization, which is slower but can handle any serializable object.
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try ( ObjectOutputStream objectOut = new ObjectOutputStream( bytes ) )
+            {
+                objectOut.writeObject( value );
+            }
+            this.putByte( SERIALIZED );
+            this.putVarInt( bytes.size() );
+            this.ensure( bytes.size() );
+            this.out.put( bytes.toByteArray() );
+        }
+    }
+
+    /**
+     * This helper method reads a single value that was written by writeValue().
+     *
+     * @return The value that was read, which may be null.
+     * @throws IOException Thrown if the value can't be loaded.
+     */
+    @SuppressWarnings( { "unchecked", "rawtypes" } )
+    private Object readValue()
+        throws IOException
+    {
+        byte tag = this.in.get();
+        switch ( tag )
+        {
+        case NULL:
+            return null;
+        case COMPONENT:
+            return this.components.get( this.getVarInt() );
+        case STRING:
+            return this.strings.get( this.getVarInt() );
+        case INT:
+            return this.getSignedVarInt();
+        case TRUE:
+            return Boolean.TRUE;
+        case FALSE:
+            return Boolean.FALSE;
+        case DOUBLE:
+            return this.in.getDouble();
+        case LONG:
+            return this.getSignedVarLong();
+        case FLOAT:
+            return this.in.getFloat();
+        case SHORT:
+            return ( short ) this.getSignedVarInt();
+        case BYTE:
+            return this.in.get();
+        case CHAR:
+            return ( char ) this.getVarInt();
+        case ENUM:
+            {
+                Class enumClass = this.findClass( this.strings.get( this.getVarInt() ) );
+                return Enum.valueOf( enumClass, this.strings.get( this.getVarInt() ) );
+            }
+        case REFERENCE:
+            return this.objects.get( this.getVarInt() );
+        case ARRAY:
+            {
+                Class<?> elementClass = this.findElementClass( this.strings.get( this.getVarInt() ) );
+                Object array = Array.newInstance( elementClass, this.getVarInt() );
+                this.objects.add( array );
+                for ( int i = 0; i < Array.getLength( array ); i++ )
+                {
+                    Array.set( array, i, this.readValue() );
+                }
+                return array;
+            }
+        case COLLECTION:
+            {
+                Collection collection = ( Collection ) this.newPlainCollection();
+                this.objects.add( collection );
+                int size = this.getVarInt();
+                for ( int i = 0; i < size; i++ )
+                {
+                    collection.add( this.readValue() );
+                }
+                return collection;
+            }
+        case MAP:
+            {
+                Map map = ( Map ) this.newPlainCollection();
+                this.objects.add( map );
+                int size = this.getVarInt();
+                for ( int i = 0; i < size; i++ )
+                {
+                    Object key = this.readValue();
+                    map.put( key, this.readValue() );
+                }
+                return map;
+            }
+        case OBJECT:
+            {
+                ClassInfo info = this.savedClass( this.getVarInt() );
+                Object object = info.newInstance();
+                this.objects.add( object );
+                this.readFields( object, info );
+                return object;
+            }
+        case SERIALIZED:
+            {
+                if ( !this.serializationAllowed )
+                {
+                    throw new InvalidObjectException( "The saved game holds an object that can only be loaded with "
+                                                      + "Java serialization, which is not allowed here." );
+                }
+                // The object's id is taken before it is read, to match the order that ids were given out in.
+                int objectId = this.objects.size();
+                this.objects.add( null );
+                byte[] bytes = new byte[ this.getVarInt() ];
+                this.in.get( bytes );
+                try ( ObjectInputStream objectIn = new ObjectInputStream( new ByteArrayInputStream( bytes ) ) )
+                {
+                    this.objects.set( objectId, objectIn.readObject() );
+                }
+                catch ( ClassNotFoundException e )
+                {
+                    throw new InvalidClassException( e.getMessage(), "the class can't be found" );
+                }
+                return this.objects.get( objectId );
+            }
+        default:
+            throw new StreamCorruptedException( "The saved game holds an unknown value." );
+        }
+    }
+
+    /**
+     * This helper method creates an empty collection or map of the class named next in the saved game.
+     *
+     * @return The new, empty collection or map.
+     * @throws IOException Thrown if the class can't be found or created.
+     */
+    private Object newPlainCollection()
+        throws IOException
+    {
+        String className = this.strings.get( this.getVarInt() );
+        try
+        {
+            return this.findClass( className ).getConstructor().newInstance();
+        }
+        catch ( ReflectiveOperationException e )
+        {
+            throw new InvalidClassException( className, e.toString() );
+        }
+    }
+
+    /**
+     * This helper method makes sure there is room in the output buffer for the given number of bytes, moving everything
+     * into a buffer twice as large if there is not.
+     *
+     * @param bytes The number of bytes that are about to be written.
+     */
+    private void ensure( int bytes )
+    {
+        if ( this.out.remaining() < bytes )
+        {
+            ByteBuffer larger = ByteBuffer.allocate( Math.max( this.out.capacity() * 2, this.out.position() + bytes ) );
+            this.out.flip();
+            larger.put( this.out );
+            this.out = larger;
+        }
+    }
+
+    private void putByte( int value )
+    {
+        this.ensure( 1 );
+        this.out.put( ( byte ) value );
+    }
+
+    /**
+     * This helper method writes an int that is never negative, using fewer bytes for smaller values. Seven bits are
+     * stored in each byte, and the high bit of each byte is set if there is another byte to come.
+     *
+     * @param value The int to be written.
+     */
+    private void putVarInt( int value )
+    {
+        this.ensure( 5 );
+        while ( ( value & ~0x7F ) != 0 )
+        {
+            this.out.put( ( byte ) ( ( value & 0x7F ) | 0x80 ) );
+            value >>>= 7;
+        }
+        this.out.put( ( byte ) value );
+    }
+
+    /**
+     * This helper method writes an int that may be negative. The sign is moved into the lowest bit first, so that values
+     * close to zero are small whether they are negative or not.
+     *
+     * @param value The int to be written.
+     */
+    private void putSignedVarInt( int value )
+    {
+        this.putVarInt( ( value << 1 ) ^ ( value >> 31 ) );
+    }
+
+    private void putSignedVarLong( long value )
+    {
+        long bits = ( value << 1 ) ^ ( value >> 63 );
+        this.ensure( 10 );
+        while ( ( bits & ~0x7FL ) != 0 )
+        {
+            this.out.put( ( byte ) ( ( bits & 0x7F ) | 0x80 ) );
+            bits >>>= 7;
+        }
+        this.out.put( ( byte ) bits );
+    }
+
+    private int getVarInt()
+    {
+        int value = 0;
+        for ( int shift = 0; ; shift += 7 )
+        {
+            byte next = this.in.get();
+            value |= ( next & 0x7F ) << shift;
+            if ( next >= 0 )
+            {
+                return value;
+            }
+        }
+    }
+
+    private int getSignedVarInt()
+    {
+        int bits = this.getVarInt();
+        return ( bits >>> 1 ) ^ -( bits & 1 );
+    }
+
+    private long getSignedVarLong()
+    {
+        long bits = 0;
+        for ( int shift = 0; ; shift += 7 )
+        {
+            byte next = this.in.get();
+            bits |= ( long ) ( next & 0x7F ) << shift;
+            if ( next >= 0 )
+            {
+                break;
+            }
+        }
+        return ( bits >>> 1 ) ^ -( bits & 1 );
+    }
+}
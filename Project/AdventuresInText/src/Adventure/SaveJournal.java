@@ -0,0 +1,636 @@
+package Adventure;
+
+import Adventure.API.*;
+
+import java.io.*;
+
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.*;
+
+/**
+ * This class keeps a journal of every change made to a saved game, so that the game can be restored after a crash
+ * without a full save being made every turn. A journal is made of a checkpoint, which is an ordinary full save, and a
+ * journal file next to it that has a frame added to the end of it after every turn that changed something.
+ *
+ * Each frame is a delta save made against the game as it was after the frame before it, so it only holds the components
+ * that changed during that turn. Frames are written and forced to the disk on a background thread, so the player never
+ * waits for the disk. When the journal grows too large, the background thread folds it into a new checkpoint by
+ * loading the checkpoint and every frame into a copy of the game that the running game never sees.
+ *
+ * The journal file starts with the length and CRC-32 of the checkpoint it belongs to, and every frame starts with its
+ * own length and CRC-32. A journal that doesn't belong to the checkpoint is ignored, and a frame that was only partly
+ * written when the game crashed is thrown away along with everything after it.
+ */
+public class SaveJournal
+{
+    /**
+     * This is the number that every journal file starts with. It is the characters "AITJ" as ASCII.
+     */
+    private static final int MAGIC = 0x4149544A;
+
+    /**
+     * This is the version of the format that is written by this class.
+     */
+    public static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 20;
+
+    private static final int FRAME_HEADER_SIZE = 8;
+
+    private static volatile long syncInterval = 1000;
+
+    private static volatile long compactSize = 1 << 20;
+
+    private final File saveFile;
+
+    private final String saveName;
+
+    private final SaveBaseline tracker;
+
+    private final HashMap<String, Class<?>> knownClasses;
+
+    private final boolean serializationAllowed;
+
+    private final ScheduledExecutorService writer;
+
+    private final FileChannel channel;
+
+    private GamePlayer lastPlayer;
+
+    private long journalSize;
+
+    private boolean unsynced;
+
+    private volatile IOException failure;
+
+    /**
+     * This helper class holds a game that has been restored from a checkpoint and its journal.
+     */
+    private static class Restored
+    {
+        private SaveCodec state;
+
+        private long journalEnd;
+
+        private boolean journalMatched;
+    }
+
+    /**
+     * This constructor creates a journal that adds its frames to the end of a journal file that is already open.
+     *
+     * @param saveFile The File of the checkpoint.
+     * @param channel The FileChannel of the journal, positioned where the next frame goes.
+     * @param saveName The human readable name of the saved game.
+     * @param components Every registered component, in registry order.
+     * @param activePlayer The GamePlayer object that is being played.
+     */
+    private SaveJournal( File saveFile, FileChannel channel, String saveName, List<GameComponent> components,
+                         GamePlayer activePlayer )
+    {
+        this.saveFile = saveFile;
+        this.channel = channel;
+        this.saveName = saveName;
+        this.tracker = new SaveBaseline();
+        this.tracker.reset( components );
+        this.knownClasses = GameSession.current().savedClasses;
+        this.serializationAllowed = GameSession.current().serializationAllowed;
+        this.lastPlayer = activePlayer;
+        this.journalSize = 0;
+        this.unsynced = false;
+        this.failure = null;
+
+        this.writer = Executors.newSingleThreadScheduledExecutor( new ThreadFactory()
+        {
+            public Thread newThread( Runnable task )
+            {
+                Thread thread = new Thread( task, "Save Journal" );
+                thread.setDaemon( true );
+                return thread;
+            }
+        } );
+        if ( syncInterval > 0 )
+        {
+            this.writer.scheduleWithFixedDelay( new Runnable()
+            {
+                public void run()
+                {
+                    sync();
+                }
+            }, syncInterval, syncInterval, TimeUnit.MILLISECONDS );
+        }
+    }
+
+    /**
+     * This method is used to set how often the frames of a journal are forced to the disk. Frames that haven't been
+     * forced yet can be lost if the computer loses power, but are kept if only the game crashes. The interval is read
+     * when a journal is started.
+     *
+     * @param newSyncInterval The number of milliseconds between each time the journal is forced to the disk, or 0 to
+     *            force it after every frame.
+     */
+    public static void setSyncInterval( long newSyncInterval )
+    {
+        syncInterval = Math.max( 0, newSyncInterval );
+    }
+
+    /**
+     * This method is used to get how often the frames of a journal are forced to the disk.
+     *
+     * @return The number of milliseconds between each time the journal is forced to the disk.
+     */
+    public static long getSyncInterval()
+    {
+        return syncInterval;
+    }
+
+    /**
+     * This method is used to set how large a journal can grow before it is folded into a new checkpoint.
+     *
+     * @param newCompactSize The number of bytes of frames that can be written before the journal is folded.
+     */
+    public static void setCompactSize( long newCompactSize )
+    {
+        compactSize = Math.max( 1, newCompactSize );
+    }
+
+    /**
+     * This method is used to get how large a journal can grow before it is folded into a new checkpoint.
+     *
+     * @return The number of bytes of frames that can be written before the journal is folded.
+     */
+    public static long getCompactSize()
+    {
+        return compactSize;
+    }
+
+    /**
+     * This method will write a new checkpoint for a game and start an empty journal for it. The checkpoint is written
+     * before this method returns, just like an ordinary save.
+     *
+     * @param saveFile The File to write the checkpoint to.
+     * @param journalFile The File to write the journal to.
+     * @param saveName The human readable name of the saved game.
+     * @param components Every registered component, in registry order.
+     * @param activePlayer The GamePlayer object that is being played.
+     * @return The new SaveJournal.
+     * @throws IOException Thrown if the checkpoint or journal can't be written.
+     */
+    public static SaveJournal create( File saveFile, File journalFile, String saveName, List<GameComponent> components,
+                                      GamePlayer activePlayer )
+        throws IOException
+    {
+        ByteBuffer[] buffers = SaveCodec.encode( saveName, components, activePlayer );
+        long checkpointSize = remaining( buffers );
+        int checkpointCrc = crc( buffers );
+        SaveCodec.replaceFile( saveFile, buffers );
+
+        FileChannel channel =
+            FileChannel.open( journalFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                              StandardOpenOption.WRITE );
+        try
+        {
+            startJournal( channel, checkpointSize, checkpointCrc );
+        }
+        catch ( IOException e )
+        {
+            channel.close();
+            throw e;
+        }
+        return new SaveJournal( saveFile, channel, saveName, components, activePlayer );
+    }
+
+    /**
+     * This method will carry on with the journal of a game that has just been loaded with read(). If the checkpoint has
+     * no journal, which is the case for saved games that were not journaled, a new checkpoint and journal are written.
+     *
+     * @param saveFile The File of the checkpoint.
+     * @param journalFile The File of the journal.
+     * @param saveName The human readable name of the saved game.
+     * @param components Every registered component, in registry order.
+     * @param activePlayer The GamePlayer object that is being played.
+     * @return The SaveJournal for the game.
+     * @throws IOException Thrown if the journal can't be opened or written.
+     */
+    public static SaveJournal resume( File saveFile, File journalFile, String saveName, List<GameComponent> components,
+                                      GamePlayer activePlayer )
+        throws IOException
+    {
+        // read() throws away any journal that doesn't belong to the checkpoint, so a journal that is still there does.
+        if ( !journalFile.exists() )
+        {
+            return create( saveFile, journalFile, saveName, components, activePlayer );
+        }
+        FileChannel channel = FileChannel.open( journalFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE );
+        channel.position( channel.size() );
+        return new SaveJournal( saveFile, channel, saveName, components, activePlayer );
+    }
+
+    /**
+     * This method will read a saved game along with its journal, if it has one. Every frame of the journal is applied
+     * to the checkpoint in order. A frame that was only partly written is cut off the end of the journal, and a journal
+     * that doesn't belong to the checkpoint is deleted.
+     *
+     * @param saveFile The File of the checkpoint.
+     * @param journalFile The File of the journal.
+     * @return A codec holding the components, active player and name of the restored game.
+     * @throws IOException Thrown if the saved game can't be read.
+     */
+    public static SaveCodec read( File saveFile, File journalFile )
+        throws IOException
+    {
+        ByteBuffer checkpoint = readFile( saveFile );
+        if ( !journalFile.exists() )
+        {
+            return SaveCodec.decode( checkpoint );
+        }
+
+        GameSession session = GameSession.current();
+        Restored restored = restore( checkpoint, readFile( journalFile ), session.savedClasses,
+                                     session.serializationAllowed, SaveCodec.componentClassLoaders() );
+        if ( !restored.journalMatched )
+        {
+            Files.delete( journalFile.toPath() );
+        }
+        else if ( restored.journalEnd < journalFile.length() )
+        {
+            try ( FileChannel channel = FileChannel.open( journalFile.toPath(), StandardOpenOption.WRITE ) )
+            {
+                channel.truncate( restored.journalEnd );
+                channel.force( true );
+            }
+        }
+        return restored.state;
+    }
+
+    /**
+     * This method records that a component has changed.
+     *
+     * @param component The GameComponent object that has changed.
+     */
+    public void changed( GameComponent component )
+    {
+        this.tracker.changed( component );
+    }
+
+    /**
+     * This method records that a component has been added to the registry.
+     *
+     * @param component The GameComponent object that has been added.
+     */
+    public void added( GameComponent component )
+    {
+        this.tracker.added( component );
+    }
+
+    /**
+     * This method records that a component has been removed from the registry.
+     *
+     * @param component The GameComponent object that has been removed.
+     */
+    public void removed( GameComponent component )
+    {
+        this.tracker.removed( component );
+    }
+
+    /**
+     * This method must be called at the end of every turn. If anything changed during the turn, a frame holding the
+     * changes is made and handed to the background thread to be written, and the journal is folded into a new
+     * checkpoint once it has grown large enough.
+     *
+     * @param components Every registered component, in registry order.
+     * @param activePlayer The GamePlayer object that is being played.
+     * @throws IOException Thrown if the frame can't be made, or if the background thread has failed to write the journal.
+     */
+    public void endTurn( List<GameComponent> components, GamePlayer activePlayer )
+        throws IOException
+    {
+        if ( this.failure != null )
+        {
+            throw this.failure;
+        }
+        if ( !this.tracker.hasChanges() && activePlayer == this.lastPlayer )
+        {
+            return;
+        }
+
+        final ByteBuffer[] frame = SaveCodec.encodeDelta( this.saveName, this.tracker, null, activePlayer );
+        this.tracker.rebase( components );
+        this.lastPlayer = activePlayer;
+        this.journalSize += FRAME_HEADER_SIZE + remaining( frame );
+        this.writer.execute( new Runnable()
+        {
+            public void run()
+            {
+                append( frame );
+            }
+        } );
+
+        // Every frame handed over so far is written before the journal is folded, and every frame handed over after
+        // this is written to the journal that starts after the fold.
+        if ( this.journalSize >= compactSize )
+        {
+            // The background thread has no session, so the class loaders of the maps are gathered here.
+            final List<ClassLoader> classLoaders = SaveCodec.componentClassLoaders();
+            this.journalSize = 0;
+            this.writer.execute( new Runnable()
+            {
+                public void run()
+                {
+                    compact( classLoaders );
+                }
+            } );
+        }
+    }
+
+    /**
+     * This method will stop the journal, waiting for every frame to be written and forced to the disk.
+     *
+     * @throws IOException Thrown if the journal could not be written.
+     */
+    public void close()
+        throws IOException
+    {
+        this.writer.execute( new Runnable()
+        {
+            public void run()
+            {
+                sync();
+            }
+        } );
+        this.writer.shutdown();
+        try
+        {
+            while ( !this.writer.awaitTermination( 1, TimeUnit.SECONDS ) )
+            {
+                continue;
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            this.channel.close();
+        }
+        if ( this.failure != null )
+        {
+            throw this.failure;
+        }
+    }
+
+    /**
+     * This helper method writes a frame to the end of the journal. It is only run on the background thread.
+     *
+     * @param frame The buffers that hold the frame.
+     */
+    private void append( ByteBuffer[] frame )
+    {
+        if ( this.failure != null )
+        {
+            return;
+        }
+        try
+        {
+            ByteBuffer frameHeader = ByteBuffer.allocate( FRAME_HEADER_SIZE );
+            frameHeader.putInt( ( int ) remaining( frame ) );
+            frameHeader.putInt( crc( frame ) );
+            frameHeader.flip();
+            ByteBuffer[] buffers = new ByteBuffer[] { frameHeader, frame[ 0 ], frame[ 1 ] };
+            while ( buffers[ buffers.length - 1 ].hasRemaining() )
+            {
+                this.channel.write( buffers );
+            }
+            this.unsynced = true;
+            if ( syncInterval == 0 )
+            {
+                this.sync();
+            }
+        }
+        catch ( IOException e )
+        {
+            this.failure = e;
+        }
+    }
+
+    /**
+     * This helper method forces any frames that have been written to the disk. It is only run on the background thread.
+     */
+    private void sync()
+    {
+        if ( this.failure != null || !this.unsynced )
+        {
+            return;
+        }
+        try
+        {
+            this.channel.force( false );
+            this.unsynced = false;
+        }
+        catch ( IOException e )
+        {
+            this.failure = e;
+        }
+    }
+
+    /**
+     * This helper method folds the journal into a new checkpoint. It is only run on the background thread, and works on
+     * a copy of the game loaded from the disk, so the running game is never touched.
+     *
+     * The new checkpoint replaces the old one before the journal is emptied. If the game crashes in between, the journal
+     * no longer matches the checkpoint and is ignored, which is correct since the checkpoint already holds its frames.
+     *
+     * @param classLoaders The class loaders of the components of the session, gathered when the fold was scheduled.
+     */
+    private void compact( List<ClassLoader> classLoaders )
+    {
+        if ( this.failure != null )
+        {
+            return;
+        }
+        try
+        {
+            ByteBuffer journal = ByteBuffer.allocate( ( int ) this.channel.size() );
+            this.channel.position( 0 );
+            while ( journal.hasRemaining() && this.channel.read( journal ) >= 0 )
+            {
+                continue;
+            }
+            journal.flip();
+
+            Restored restored = restore( readFile( this.saveFile ), journal, this.knownClasses,
+                                         this.serializationAllowed, classLoaders );
+            if ( !restored.journalMatched )
+            {
+                throw new StreamCorruptedException( "The save journal doesn't match its checkpoint." );
+            }
+            SaveCodec state = restored.state;
+            ByteBuffer[] buffers = SaveCodec.encode( state.getSaveName(), state.getComponents(),
+                                                     state.getActivePlayer(), this.knownClasses );
+            long checkpointSize = remaining( buffers );
+            int checkpointCrc = crc( buffers );
+            SaveCodec.replaceFile( this.saveFile, buffers );
+
+            startJournal( this.channel, checkpointSize, checkpointCrc );
+            this.unsynced = false;
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            this.failure = e instanceof IOException ? ( IOException ) e : new IOException( e );
+        }
+    }
+
+    /**
+     * This helper method empties a journal and writes the header that ties it to a checkpoint. The journal is emptied
+     * first, so that old frames can never follow a header for a new checkpoint.
+     *
+     * @param channel The FileChannel of the journal.
+     * @param checkpointSize The length of the checkpoint in bytes.
+     * @param checkpointCrc The CRC-32 of the checkpoint.
+     * @throws IOException Thrown if the journal can't be written.
+     */
+    private static void startJournal( FileChannel channel, long checkpointSize, int checkpointCrc )
+        throws IOException
+    {
+        channel.truncate( 0 );
+        channel.force( true );
+
+        ByteBuffer header = ByteBuffer.allocate( HEADER_SIZE );
+        header.putInt( MAGIC );
+        header.putInt( VERSION );
+        header.putLong( checkpointSize );
+        header.putInt( checkpointCrc );
+        header.flip();
+        channel.position( 0 );
+        while ( header.hasRemaining() )
+        {
+            channel.write( header );
+        }
+        channel.force( true );
+    }
+
+    /**
+     * This helper method restores a game from the bytes of a checkpoint and its journal, applying every whole frame of
+     * the journal in order.
+     *
+     * @param checkpoint The ByteBuffer holding the checkpoint.
+     * @param journal The ByteBuffer holding the journal.
+     * @param knownClasses The map of the classes that the session of the game has written or read, by name.
+     * @param serializationAllowed True if objects written with Java serialization can be read, false otherwise.
+     * @param classLoaders The class loaders of the components of the session.
+     * @return The restored game, along with where the last whole frame of the journal ends.
+     * @throws IOException Thrown if the checkpoint or one of the frames can't be loaded.
+     */
+    private static Restored restore( ByteBuffer checkpoint, ByteBuffer journal, HashMap<String, Class<?>> knownClasses,
+                                     boolean serializationAllowed, List<ClassLoader> classLoaders )
+        throws IOException
+    {
+        Restored restored = new Restored();
+        long checkpointSize = checkpoint.remaining();
+        int checkpointCrc = crc( new ByteBuffer[] { checkpoint } );
+        restored.state = SaveCodec.decode( checkpoint, knownClasses, serializationAllowed, classLoaders );
+
+        restored.journalMatched =
+            journal.remaining() >= HEADER_SIZE && journal.getInt() == MAGIC && journal.getInt() <= VERSION &&
+            journal.getLong() == checkpointSize && journal.getInt() == checkpointCrc && !restored.state.isDelta();
+        if ( !restored.journalMatched )
+        {
+            return restored;
+        }
+        restored.journalEnd = HEADER_SIZE;
+
+        SaveBaseline tracker = new SaveBaseline();
+        tracker.reset( restored.state.getComponents() );
+        while ( journal.remaining() >= FRAME_HEADER_SIZE )
+        {
+            int length = journal.getInt();
+            int frameCrc = journal.getInt();
+            if ( length < 0 || length > journal.remaining() )
+            {
+                break;
+            }
+            ByteBuffer payload = journal.slice();
+            payload.limit( length );
+            if ( crc( new ByteBuffer[] { payload } ) != frameCrc )
+            {
+                break;
+            }
+
+            SaveCodec frame = SaveCodec.decode( payload, knownClasses, serializationAllowed, classLoaders );
+            if ( !frame.isDelta() )
+            {
+                throw new StreamCorruptedException( "The save journal is damaged." );
+            }
+            frame.applyDelta( tracker );
+            tracker.rebase( frame.getComponents() );
+            restored.state = frame;
+
+            journal.position( journal.position() + length );
+            restored.journalEnd = journal.position();
+        }
+        return restored;
+    }
+
+    /**
+     * This helper method reads the whole of a file into a buffer.
+     *
+     * @param file The File to read.
+     * @return The ByteBuffer holding the file, ready to be read from.
+     * @throws IOException Thrown if the file can't be read.
+     */
+    private static ByteBuffer readFile( File file )
+        throws IOException
+    {
+        try ( FileChannel channel = FileChannel.open( file.toPath(), StandardOpenOption.READ ) )
+        {
+            if ( channel.size() > Integer.MAX_VALUE )
+            {
+                throw new IOException( "The saved game is too large to be loaded." );
+            }
+            ByteBuffer buffer = ByteBuffer.allocate( ( int ) channel.size() );
+            while ( buffer.hasRemaining() && channel.read( buffer ) >= 0 )
+            {
+                continue;
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    /**
+     * This helper method works out the CRC-32 of the bytes in a set of buffers, without moving their positions.
+     *
+     * @param buffers The buffers to check.
+     * @return The CRC-32 of the buffers, in order.
+     */
+    private static int crc( ByteBuffer[] buffers )
+    {
+        CRC32 crc = new CRC32();
+        for ( ByteBuffer buffer : buffers )
+        {
+            crc.update( buffer.duplicate() );
+        }
+        return ( int ) crc.getValue();
+    }
+
+    /**
+     * This helper method counts the bytes in a set of buffers.
+     *
+     * @param buffers The buffers to count.
+     * @return The number of bytes remaining in all of the buffers.
+     */
+    private static long remaining( ByteBuffer[] buffers )
+    {
+        long remaining = 0;
+        for ( ByteBuffer buffer : buffers )
+        {
+            remaining += buffer.remaining();
+        }
+        return remaining;
+    }
+}
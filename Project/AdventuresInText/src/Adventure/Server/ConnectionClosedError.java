@@ -0,0 +1,32 @@
+package Adventure.Server;
+
+import java.io.*;
+
+/**
+ * This error is thrown by a ConnectionIOUtility when its connection has been closed, or has been closed for being idle
+ * too long, while the game is waiting for input. The game catches any Exception that is thrown while it asks the player
+ * for a choice and simply asks again, so an Error is used to make sure the whole game loop of the session is left.
+ */
+public class ConnectionClosedError
+    extends Error
+{
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * This constructor creates the error for a connection that was closed from the other end.
+     */
+    public ConnectionClosedError()
+    {
+        super( "The connection was closed." );
+    }
+
+    /**
+     * This constructor creates the error for a connection that could no longer be read from.
+     *
+     * @param cause The IOException that was thrown while reading from the connection.
+     */
+    public ConnectionClosedError( IOException cause )
+    {
+        super( "The connection was closed.", cause );
+    }
+}
@@ -0,0 +1,255 @@
+package Adventure.Server;
+
+import Adventure.*;
+
+import Adventure.API.Utility.*;
+
+import Adventure.Base.Utility.*;
+
+import java.io.*;
+
+import java.nio.charset.*;
+
+/**
+ * This class is the GameIOUtility for a single connection to the GameServer. Output is wrapped and written to the
+ * connection as plain UTF-8 text, and every line that is read back from the connection is a line of input.
+ *
+ * A server can have thousands of connections open at once, so this class keeps its buffers small. Output is wrapped
+ * into a buffer that is reused for every display, and then written to the connection in one go.
+ */
+public class ConnectionIOUtility
+    implements GameIOUtility
+{
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * This is the width that output is wrapped to.
+     */
+    public static final int DEFAULT_WIDTH = 80;
+
+    /**
+     * This is the longest line of input that is kept. Anything past it on the same line is thrown away, so a client
+     * can't use up the memory of the server by never ending a line.
+     */
+    public static final int MAX_LINE_LENGTH = 1024;
+
+    private final transient InputStream in;
+
+    private final transient OutputStream out;
+
+    private final transient ByteArrayOutputStream line;
+
+    private int width;
+
+    private transient StringBuilder wrapped;
+
+    private volatile long lastActivity;
+
+    /**
+     * This constructor creates the IOUtility for a connection from the streams of the connection.
+     *
+     * @param input The InputStream that the player's input is read from.
+     * @param output The OutputStream that the game's output is written to.
+     */
+    public ConnectionIOUtility( InputStream input, OutputStream output )
+    {
+        super();
+
+        this.in = new BufferedInputStream( input, 512 );
+        this.out = output;
+        this.line = new ByteArrayOutputStream( 64 );
+        this.width = DEFAULT_WIDTH;
+        this.lastActivity = System.nanoTime();
+    }
+
+    /**
+     * This method is used to set the width that output is wrapped to.
+     *
+     * @param newWidth The number of columns to wrap output to, which must be at least 2.
+     */
+    public void setWidth( int newWidth )
+    {
+        this.width = Math.max( 2, newWidth );
+    }
+
+    /**
+     * This method is used to get the width that output is wrapped to.
+     *
+     * @return The number of columns output is wrapped to.
+     */
+    public int getWidth()
+    {
+        return this.width;
+    }
+
+    /**
+     * This method is used to find out when anything was last read from or written to the connection, so that idle
+     * connections can be closed.
+     *
+     * @return The value of System.nanoTime() when the connection was last used.
+     */
+    public long getLastActivity()
+    {
+        return this.lastActivity;
+    }
+
+    /**
+     * This method reads a line of input from the connection and turns it into a choice.
+     *
+     * @return The integer value that the player entered, or -1 if it was not a number.
+     */
+    public int getChoice()
+    {
+        try
+        {
+            return Integer.parseInt( this.getInput().trim() );
+        }
+        catch ( NumberFormatException e )
+        {
+            IO.addLine( "I don't understand that selection." );
+            return -1;
+        }
+    }
+
+    /**
+     * This method reads a line of input from the connection, waiting until a whole line has been sent.
+     *
+     * @return The String of text that the player input, without the line break.
+     * @throws ConnectionClosedError Thrown if the connection is closed before a line has been read.
+     */
+    public String getInput()
+    {
+        try
+        {
+            String input = this.readLine();
+            if ( input == null )
+            {
+                throw new ConnectionClosedError();
+            }
+            this.lastActivity = System.nanoTime();
+            return input;
+        }
+        catch ( IOException e )
+        {
+            throw new ConnectionClosedError( e );
+        }
+    }
+
+    /**
+     * This method writes the contents of the output buffer to the connection.
+     *
+     * @param outputBuffer The output buffer passed in from the IO class.
+     */
+    public void display( StringBuilder outputBuffer )
+    {
+        this.write( outputBuffer, null );
+    }
+
+    /**
+     * This method writes the contents of the output buffer to the connection, followed by the prompt.
+     *
+     * @param outputBuffer The output buffer passed in from the IO class.
+     * @param prompt The string prompt to display after the output.
+     */
+    public void display( StringBuilder outputBuffer, String prompt )
+    {
+        this.write( outputBuffer, prompt );
+    }
+
+    /**
+     * A connection has no screen to clear, so a line is written to show where the new output starts.
+     */
+    public void clearScreen()
+    {
+        StringBuilder separator = new StringBuilder( this.width + 1 );
+        while ( separator.length() < this.width )
+        {
+            separator.append( '-' );
+        }
+        separator.append( '\n' );
+        this.send( separator );
+    }
+
+    /**
+     * This helper method reads bytes up to the next line break and decodes them as a line of UTF-8 text. A carriage
+     * return before the line break is dropped, since most network clients send one.
+     *
+     * @return The String line that was read, or null if the connection was closed before anything was read.
+     * @throws IOException Thrown if the connection can't be read from.
+     */
+    private String readLine()
+        throws IOException
+    {
+        this.line.reset();
+        int next = this.in.read();
+        if ( next < 0 )
+        {
+            return null;
+        }
+        while ( next >= 0 && next != '\n' )
+        {
+            if ( this.line.size() < MAX_LINE_LENGTH )
+            {
+                this.line.write( next );
+            }
+            next = this.in.read();
+        }
+
+        String input = new String( this.line.toByteArray(), StandardCharsets.UTF_8 );
+        if ( input.endsWith( "\r" ) )
+        {
+            input = input.substring( 0, input.length() - 1 );
+        }
+        return input;
+    }
+
+    /**
+     * This helper method wraps the output buffer straight into the reused buffer, adds the prompt if there is one, and
+     * then writes it all to the connection in one go.
+     *
+     * @param outputBuffer The output buffer passed in from the IO class.
+     * @param prompt The string prompt to display after the output, or null if there is no prompt.
+     */
+    private void write( StringBuilder outputBuffer, String prompt )
+    {
+        if ( this.wrapped == null )
+        {
+            this.wrapped = new StringBuilder( 1024 );
+        }
+        this.wrapped.setLength( 0 );
+
+        SystemIOUtility.wordWrap( outputBuffer, this.wrapped, this.width );
+        this.wrapped.append( '\n' );
+        if ( prompt != null )
+        {
+            this.wrapped.append( prompt ).append( '\n' );
+        }
+        this.send( this.wrapped );
+
+        // Most connections are idle most of the time, so a large buffer isn't kept around after a very long output.
+        if ( this.wrapped.capacity() > 1 << 16 )
+        {
+            this.wrapped = null;
+        }
+    }
+
+    /**
+     * This helper method writes text to the connection. Output that can't be written is dropped, since the next attempt
+     * to read from the connection will find that it has been closed and end the session.
+     *
+     * @param text The text to be written.
+     */
+    private void send( CharSequence text )
+    {
+        try
+        {
+            this.out.write( text.toString().getBytes( StandardCharsets.UTF_8 ) );
+            this.out.flush();
+            this.lastActivity = System.nanoTime();
+        }
+        catch ( IOException e )
+        {
+            // The connection has been closed, which getInput() will find out the next time it is called.
+        }
+    }
+}
@@ -0,0 +1,432 @@
+package Adventure.Server;
+
+import Adventure.*;
+
+import java.io.*;
+
+import java.lang.reflect.*;
+
+import java.net.*;
+
+import java.nio.charset.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * This class runs the game as a headless server. Every player that connects to it plays their own game in their own
+ * GameSession, with a ConnectionIOUtility that reads their input from the connection and writes the output back to it.
+ * Players connect over a plain TCP socket, with any line based client such as telnet or netcat, and other kinds of
+ * connection can be handed to the server with serve().
+ *
+ * Each session runs its game loop on a thread of its own, which spends nearly all of its time waiting for the next
+ * line of input. When the application is run on Java 21 or later these are virtual threads, so a waiting session holds
+ * no platform thread. On older versions of Java they are platform threads with a small stack, and the number of them
+ * is kept in check by the connection limit.
+ *
+ * Connections that have not sent or been sent anything for longer than the idle timeout are closed, which ends their
+ * session the next time it waits for input.
+ */
+public class GameServer
+{
+    /**
+     * This is the port that the server listens on when no other port is given.
+     */
+    public static final int DEFAULT_PORT = 4000;
+
+    /**
+     * This is the largest number of players that can be connected at once by default.
+     */
+    public static final int DEFAULT_CONNECTION_LIMIT = 10000;
+
+    /**
+     * This is the number of milliseconds a connection can be idle for by default before it is closed.
+     */
+    public static final long DEFAULT_IDLE_TIMEOUT = 15 * 60 * 1000;
+
+    private static final int BACKLOG = 1024;
+
+    private static final long SESSION_STACK_SIZE = 256 * 1024;
+
+    private static final byte[] SERVER_FULL =
+        "The server is full right now. Please try again later.\n".getBytes( StandardCharsets.UTF_8 );
+
+    private final int port;
+
+    private volatile int connectionLimit;
+
+    private volatile long idleTimeout;
+
+    private final AtomicInteger connectionCount;
+
+    private final Set<Connection> connections;
+
+    private final ExecutorService sessionThreads;
+
+    private final ScheduledExecutorService idleChecker;
+
+    private ServerSocket serverSocket;
+
+    /**
+     * This helper class holds a single connection, and runs the game loop of its session.
+     */
+    private class Connection
+        implements Runnable
+    {
+        private final ConnectionIOUtility io;
+
+        private final Closeable closeable;
+
+        private Connection( ConnectionIOUtility io, Closeable closeable )
+        {
+            this.io = io;
+            this.closeable = closeable;
+        }
+
+        public void run()
+        {
+            try
+            {
+                GameSession session = new GameSession( this.io );
+
+                // Every player shares the working directory of the server, so nobody can save or load a game, and
+                // nothing sent to the server is ever read with Java serialization.
+                session.setSavingAllowed( false );
+                session.setSerializationAllowed( false );
+                session.run( new Runnable()
+                {
+                    public void run()
+                    {
+                        play();
+                    }
+                } );
+            }
+            finally
+            {
+                close();
+                connections.remove( this );
+                connectionCount.decrementAndGet();
+            }
+        }
+
+        private void play()
+        {
+            try
+            {
+                Engine.showTitleScreen();
+                while ( !Engine.gameOver() )
+                {
+                    Engine.showOutput();
+                    Engine.getInput();
+                }
+            }
+            catch ( ConnectionClosedError e )
+            {
+                // The player has gone, so the game is quit without asking them anything.
+                Engine.quit();
+            }
+        }
+
+        private void close()
+        {
+            try
+            {
+                this.closeable.close();
+            }
+            catch ( IOException e )
+            {
+                // There is nothing left to do with a connection that can't be closed.
+            }
+        }
+    }
+
+    /**
+     * This constructor creates a new server. The server doesn't accept any connections until it is started.
+     *
+     * @param port The port number that the server will listen on.
+     */
+    public GameServer( int port )
+    {
+        this.port = port;
+        this.connectionLimit = DEFAULT_CONNECTION_LIMIT;
+        this.idleTimeout = DEFAULT_IDLE_TIMEOUT;
+        this.connectionCount = new AtomicInteger();
+        this.connections = Collections.newSetFromMap( new ConcurrentHashMap<Connection, Boolean>() );
+        this.sessionThreads = newSessionThreads();
+        this.idleChecker = Executors.newSingleThreadScheduledExecutor( new ThreadFactory()
+        {
+            public Thread newThread( Runnable task )
+            {
+                Thread thread = new Thread( task, "Idle Connections" );
+                thread.setDaemon( true );
+                return thread;
+            }
+        } );
+    }
+
+    /**
+     * This method is used to set the largest number of players that can be connected at once. Anyone who connects while
+     * the server is full is told so and disconnected.
+     *
+     * @param newConnectionLimit The largest number of connections, which is at least 1.
+     */
+    public void setConnectionLimit( int newConnectionLimit )
+    {
+        this.connectionLimit = Math.max( 1, newConnectionLimit );
+    }
+
+    /**
+     * This method is used to get the largest number of players that can be connected at once.
+     *
+     * @return The largest number of connections.
+     */
+    public int getConnectionLimit()
+    {
+        return this.connectionLimit;
+    }
+
+    /**
+     * This method is used to set how long a connection can be idle for before it is closed.
+     *
+     * @param newIdleTimeout The number of milliseconds a connection can be idle for, or 0 to never close idle
+     *                       connections.
+     */
+    public void setIdleTimeout( long newIdleTimeout )
+    {
+        this.idleTimeout = Math.max( 0, newIdleTimeout );
+    }
+
+    /**
+     * This method is used to get how long a connection can be idle for before it is closed.
+     *
+     * @return The number of milliseconds a connection can be idle for, or 0 if idle connections are never closed.
+     */
+    public long getIdleTimeout()
+    {
+        return this.idleTimeout;
+    }
+
+    /**
+     * This method is used to get the number of players that are connected.
+     *
+     * @return The number of open connections.
+     */
+    public int getConnectionCount()
+    {
+        return this.connectionCount.get();
+    }
+
+    /**
+     * This method starts the server listening for connections on its own thread, and returns once it is listening.
+     *
+     * @throws IOException Thrown if the server can't listen on its port.
+     */
+    public void start()
+        throws IOException
+    {
+        this.serverSocket = new ServerSocket( this.port, BACKLOG );
+
+        Thread acceptThread = new Thread( new Runnable()
+        {
+            public void run()
+            {
+                acceptConnections();
+            }
+        }, "Game Server" );
+        acceptThread.start();
+
+        this.idleChecker.scheduleWithFixedDelay( new Runnable()
+        {
+            public void run()
+            {
+                closeIdleConnections();
+            }
+        }, 1, 1, TimeUnit.SECONDS );
+    }
+
+    /**
+     * This method stops the server. No more connections are accepted, and every open connection is closed, which ends
+     * each session the next time it waits for input.
+     */
+    public void stop()
+    {
+        try
+        {
+            if ( this.serverSocket != null )
+            {
+                this.serverSocket.close();
+            }
+        }
+        catch ( IOException e )
+        {
+            // The server socket is no longer needed whether it closed cleanly or not.
+        }
+        this.idleChecker.shutdownNow();
+        for ( Connection connection : this.connections )
+        {
+            connection.close();
+        }
+        this.sessionThreads.shutdown();
+    }
+
+    /**
+     * This method starts a new game for a connection, as long as the server isn't full. The game is played on a thread
+     * of its own, and the connection is closed once the game is over. If the server is full, the player is told so and
+     * the connection is closed straight away.
+     *
+     * @param input The InputStream that the player's input is read from.
+     * @param output The OutputStream that the game's output is written to.
+     * @param closeable The Closeable that closes the connection, such as its Socket.
+     * @return True if a game was started, false if the server was full.
+     */
+    public boolean serve( InputStream input, OutputStream output, Closeable closeable )
+    {
+        int count = this.connectionCount.get();
+        while ( count < this.connectionLimit )
+        {
+            if ( this.connectionCount.compareAndSet( count, count + 1 ) )
+            {
+                Connection connection = new Connection( new ConnectionIOUtility( input, output ), closeable );
+                this.connections.add( connection );
+                try
+                {
+                    this.sessionThreads.execute( connection );
+                }
+                catch ( RejectedExecutionException e )
+                {
+                    // The server has been stopped, so the connection is treated as if the server were full.
+                    this.connections.remove( connection );
+                    this.connectionCount.decrementAndGet();
+                    break;
+                }
+                return true;
+            }
+            count = this.connectionCount.get();
+        }
+
+        try
+        {
+            output.write( SERVER_FULL );
+            output.flush();
+        }
+        catch ( IOException e )
+        {
+            // The player is being disconnected anyway.
+        }
+        try
+        {
+            closeable.close();
+        }
+        catch ( IOException e )
+        {
+            // There is nothing left to do with a connection that can't be closed.
+        }
+        return false;
+    }
+
+    /**
+     * This helper method accepts connections until the server is stopped, starting a game for each of them.
+     */
+    private void acceptConnections()
+    {
+        while ( !this.serverSocket.isClosed() )
+        {
+            Socket socket;
+            try
+            {
+                socket = this.serverSocket.accept();
+            }
+            catch ( IOException e )
+            {
+                // Once the server socket is closed the loop ends. Otherwise we wait a moment before trying again, since
+                // an error such as running out of file handles would happen again straight away.
+                pause();
+                continue;
+            }
+
+            try
+            {
+                socket.setTcpNoDelay( true );
+                this.serve( socket.getInputStream(), socket.getOutputStream(), socket );
+            }
+            catch ( IOException e )
+            {
+                try
+                {
+                    socket.close();
+                }
+                catch ( IOException closeException )
+                {
+                    // The connection was never used, so there is nothing left to do with it.
+                }
+            }
+        }
+    }
+
+    /**
+     * This helper method waits a moment before the server tries to accept another connection after an error.
+     */
+    private void pause()
+    {
+        try
+        {
+            Thread.sleep( 100 );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * This helper method closes every connection that has been idle for longer than the idle timeout. It is run every
+     * second on its own thread.
+     */
+    private void closeIdleConnections()
+    {
+        long timeout = this.idleTimeout;
+        if ( timeout == 0 )
+        {
+            return;
+        }
+
+        long now = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos( timeout );
+        for ( Connection connection : this.connections )
+        {
+            if ( now - connection.io.getLastActivity() > timeoutNanos )
+            {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * This helper method creates the executor that each session runs its game loop on. Virtual threads are only part
+     * of the Java API from Java 21, so the executor that uses them is looked up by name. If it can't be found, each
+     * session is given a platform thread with a small stack instead.
+     *
+     * @return The ExecutorService that runs the sessions.
+     */
+    private static ExecutorService newSessionThreads()
+    {
+        try
+        {
+            Method virtualThreads = Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" );
+            return ( ExecutorService ) virtualThreads.invoke( null );
+        }
+        catch ( ReflectiveOperationException | RuntimeException e )
+        {
+            return Executors.newCachedThreadPool( new ThreadFactory()
+            {
+                public Thread newThread( Runnable task )
+                {
+                    Thread thread = new Thread( null, task, "Game Session", SESSION_STACK_SIZE );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            } );
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package Adventure;
+
+import java.util.*;
+
+/**
+ * This class is a list that hands out read-only snapshots of its contents instead of copies. The snapshot is only
+ * rebuilt the first time it is asked for after the list has changed, so code that loops over the same list every turn
+ * does not allocate a new copy each time. A snapshot never changes once it has been handed out, which means it is safe
+ * to keep looping over it while components are being added to or removed from the list.
+ *
+ * @param <T> The type of the elements held in the list.
+ */
+public class SnapshotList<T>
+{
+    private final ArrayList<T> elements;
+
+    private List<T> snapshot;
+
+    private int version;
+
+    /**
+     * This constructor creates a new, empty list.
+     */
+    public SnapshotList()
+    {
+        this.elements = new ArrayList<T>();
+        this.snapshot = Collections.emptyList();
+        this.version = 0;
+    }
+
+    /**
+     * This helper method is called after every change to throw away the current snapshot.
+     */
+    private void changed()
+    {
+        this.snapshot = null;
+        this.version++;
+    }
+
+    /**
+     * This method will add an element to the end of the list.
+     *
+     * @param element The element to be added.
+     */
+    public void add( T element )
+    {
+        this.elements.add( element );
+        this.changed();
+    }
+
+    /**
+     * This method will add every element of a collection to the end of the list.
+     *
+     * @param newElements The elements to be added.
+     */
+    public void addAll( Collection<? extends T> newElements )
+    {
+        if ( !newElements.isEmpty() )
+        {
+            this.elements.addAll( newElements );
+            this.changed();
+        }
+    }
+
+    /**
+     * This method will remove an element from the list.
+     *
+     * @param element The element to be removed.
+     * @return True if the element was found and removed, false otherwise.
+     */
+    public boolean remove( Object element )
+    {
+        if ( this.elements.remove( element ) )
+        {
+            this.changed();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * This method will remove every element from the list.
+     */
+    public void clear()
+    {
+        if ( !this.elements.isEmpty() )
+        {
+            this.elements.clear();
+            this.changed();
+        }
+    }
+
+    /**
+     * This method will check if an element is in the list.
+     *
+     * @param element The element to check for.
+     * @return True if the element is in the list, false otherwise.
+     */
+    public boolean contains( Object element )
+    {
+        return this.elements.contains( element );
+    }
+
+    /**
+     * This method will check if the list is empty.
+     *
+     * @return True if there are no elements in the list, false otherwise.
+     */
+    public boolean isEmpty()
+    {
+        return this.elements.isEmpty();
+    }
+
+    /**
+     * This method is used to get the number of elements in the list.
+     *
+     * @return The number of elements in the list.
+     */
+    public int size()
+    {
+        return this.elements.size();
+    }
+
+    /**
+     * This method is used to get a number that changes every time the contents of the list change. It can be used to
+     * tell whether something built from an earlier snapshot is out of date.
+     *
+     * @return The current version of the list.
+     */
+    public int version()
+    {
+        return this.version;
+    }
+
+    /**
+     * This method is used to get a read-only snapshot of the current contents of the list. The same snapshot is returned
+     * until the list changes.
+     *
+     * @return An unmodifiable list holding the current contents.
+     */
+    @SuppressWarnings( "unchecked" )
+    public List<T> snapshot()
+    {
+        if ( this.snapshot == null )
+        {
+            this.snapshot = Collections.unmodifiableList( Arrays.asList( ( T[] ) this.elements.toArray() ) );
+        }
+        return this.snapshot;
+    }
+
+    /**
+     * This method is used to get a modifiable copy of the current contents of the list.
+     *
+     * @return A new ArrayList holding the current contents.
+     */
+    public ArrayList<T> copy()
+    {
+        return new ArrayList<T>( this.elements );
+    }
+}
@@ -4,6 +4,8 @@ import Adventure.API.Utility.*;
 
 import java.awt.*;
 
+import java.util.concurrent.*;
+
 import javax.swing.*;
 
 /**
@@ -64,6 +66,19 @@ public class GameWindow
         return this.panel.getInput();
     }
 
+    /**
+     * This method is a passthrough method between the IO class and the GamePanel object where input is actually
+     * gathered from the player. It waits no longer than the given time for the player to enter something.
+     * 
+     * @param timeout How long to wait for input.
+     * @param unit The TimeUnit of the timeout.
+     * @return The string of input gathered from the GamePanel object, or null if nothing was entered in time.
+     */
+    public String getInput( long timeout, TimeUnit unit )
+    {
+        return this.panel.getInput( timeout, unit );
+    }
+
     /**
      * This method is a passthrough method between the IO class and the GamePanel object where input is actually
      * displayed. It is used to clear the screen.
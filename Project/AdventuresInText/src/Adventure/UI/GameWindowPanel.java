@@ -5,7 +5,10 @@ import Adventure.*;
 import java.awt.*;
 import java.awt.event.*;
 
+import java.util.concurrent.*;
+
 import javax.swing.*;
+import javax.swing.text.*;
 
 /**
  * This class represents the content for the entire GUI interface and has all of the methods necessary to
@@ -14,6 +17,12 @@ import javax.swing.*;
  * is actually present in this class. The GameWindow class actually serves as a passthrough between the IO class and
  * this class. It also acts as an event listener that looks for the enter key being pressed or the enter button
  * being clicked, signaling that there is a string of input ready.
+ *
+ * Each line that is entered is put on a queue that the game thread takes its input from, so the game thread sleeps
+ * while it waits for the player and lines entered while the game is still busy are kept in order until they are needed.
+ *
+ * Output is added to the end of the output window's document on the Swing event thread, so showing a turn only costs as
+ * much as the new output. Once the window holds more lines than the scrollback limit, the oldest lines are dropped.
  */
 public class GameWindowPanel
     extends JPanel
@@ -22,6 +31,17 @@ public class GameWindowPanel
     @SuppressWarnings( "compatibility:3026359036205884011" )
     private static final long serialVersionUID = 1L;
 
+    /**
+     * This is the most lines of input that can be typed ahead of the game. Once this many are waiting, the input field
+     * keeps its text until the game catches up.
+     */
+    public static final int TYPE_AHEAD_LIMIT = 16;
+
+    /**
+     * This is the number of lines the output window keeps by default before the oldest lines are dropped.
+     */
+    public static final int DEFAULT_SCROLLBACK_LIMIT = 5000;
+
     private JScrollPane gameWindowScroller;
 
     private JTextArea gameOutputWindow;
@@ -30,15 +50,18 @@ public class GameWindowPanel
 
     private JButton gameEnterButton;
 
-    private String inputString;
+    private final BlockingQueue<String> inputQueue;
 
-    private boolean inputReady;
+    private volatile int scrollbackLimit;
 
     /**
      * In this constructor we initialize all of the various components of the GUI window.
      */
     public GameWindowPanel()
     {
+        this.inputQueue = new ArrayBlockingQueue<String>( TYPE_AHEAD_LIMIT );
+        this.scrollbackLimit = DEFAULT_SCROLLBACK_LIMIT;
+
         try
         {
             // This makes the window non-opaque
@@ -90,7 +113,34 @@ public class GameWindowPanel
      */
     public void clear()
     {
-        this.gameOutputWindow.setText( "" );
+        this.runOnEventThread( new Runnable()
+        {
+            public void run()
+            {
+                gameOutputWindow.setText( "" );
+            }
+        } );
+    }
+
+    /**
+     * This method is used to set how many lines the output window keeps. When there are more lines than this, the oldest
+     * ones are dropped the next time output is shown.
+     *
+     * @param newScrollbackLimit The number of lines to keep, or 0 to keep every line.
+     */
+    public void setScrollbackLimit( int newScrollbackLimit )
+    {
+        this.scrollbackLimit = Math.max( 0, newScrollbackLimit );
+    }
+
+    /**
+     * This method is used to get how many lines the output window keeps.
+     *
+     * @return The number of lines that are kept, or 0 if every line is kept.
+     */
+    public int getScrollbackLimit()
+    {
+        return this.scrollbackLimit;
     }
 
     /**
@@ -100,20 +150,56 @@ public class GameWindowPanel
      */
     public String getInput()
     {
-        // Because we want the game to pause and wait for input, we will tell our thread to yield and wait until is ready
-        while ( !inputReady )
+        // Because we want the game to pause and wait for input, our thread sleeps until a line has been entered.
+        try
+        {
+            return this.inputQueue.take();
+        }
+        catch ( InterruptedException e )
         {
-            Thread.yield();
+            // If the game thread is interrupted while it is waiting, we keep it marked and hand back blank input.
+            Thread.currentThread().interrupt();
+            return "";
         }
+    }
 
-        // Now that we know we have a valid input string, we can unmark it as ready again.
-        inputReady = false;
-        // Now we store the value of the input string in a new string.
-        String input = inputString;
-        // We set the value of the input string to a blank string again.
-        inputString = "";
-        // And we return the value we stored in the new string above.
-        return input;
+    /**
+     * This method is used to gather a string of input from the text field, waiting no longer than the given time for
+     * the player to enter it.
+     *
+     * @param timeout How long to wait for input.
+     * @param unit The TimeUnit of the timeout.
+     * @return The string of player input to be processed, or null if nothing was entered in time.
+     */
+    public String getInput( long timeout, TimeUnit unit )
+    {
+        try
+        {
+            return this.inputQueue.poll( timeout, unit );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * This method is used to find out how many lines of input have been typed ahead and are waiting to be gathered.
+     *
+     * @return The number of lines of input waiting.
+     */
+    public int pendingInput()
+    {
+        return this.inputQueue.size();
+    }
+
+    /**
+     * This method will throw away any lines of input that have been typed ahead but not gathered yet.
+     */
+    public void discardInput()
+    {
+        this.inputQueue.clear();
     }
 
     /**
@@ -148,10 +234,7 @@ public class GameWindowPanel
      */
     public void showOutput( StringBuilder outputBuffer )
     {
-        String output = gameOutputWindow.getText() + "\n" +
-            outputBuffer.toString();
-        gameOutputWindow.setText( output );
-        gameOutputWindow.setCaretPosition( gameOutputWindow.getDocument().getLength() );
+        this.appendOutput( "\n" + outputBuffer.toString() );
     }
 
     /**
@@ -164,11 +247,61 @@ public class GameWindowPanel
      */
     public void showOutput( StringBuilder outputBuffer, String prompt )
     {
-        String output = gameOutputWindow.getText() + "\n" +
-            outputBuffer.toString();
-        output += prompt + "\n";
-        gameOutputWindow.setText( output );
-        gameOutputWindow.setCaretPosition( gameOutputWindow.getDocument().getLength() );
+        this.appendOutput( "\n" + outputBuffer.toString() + prompt + "\n" );
+    }
+
+    /**
+     * This helper method adds text to the end of the output window, drops the oldest lines if there are more than the
+     * scrollback limit, and then positions the caret at the end so the window scrolls to the last line. The text is
+     * copied before this method returns, so the output buffer can be cleared straight away.
+     *
+     * @param output The string of output to be added.
+     */
+    private void appendOutput( final String output )
+    {
+        this.runOnEventThread( new Runnable()
+        {
+            public void run()
+            {
+                Document document = gameOutputWindow.getDocument();
+                try
+                {
+                    document.insertString( document.getLength(), output, null );
+
+                    // Each line of the output window is one element of the document, so we can find where the lines
+                    // that are being dropped end without looking through the text.
+                    Element root = document.getDefaultRootElement();
+                    int extraLines = root.getElementCount() - scrollbackLimit;
+                    if ( scrollbackLimit > 0 && extraLines > 0 )
+                    {
+                        document.remove( 0, root.getElement( extraLines - 1 ).getEndOffset() );
+                    }
+                }
+                catch ( BadLocationException e )
+                {
+                    // The offsets all come from the document itself, so this can't happen.
+                }
+                gameOutputWindow.setCaretPosition( document.getLength() );
+            }
+        } );
+    }
+
+    /**
+     * This helper method runs a task on the Swing event thread, which is the only thread that may change the output
+     * window. Tasks are run in the order they are given, so output always appears in the order it was shown.
+     *
+     * @param task The Runnable to be run.
+     */
+    private void runOnEventThread( Runnable task )
+    {
+        if ( SwingUtilities.isEventDispatchThread() )
+        {
+            task.run();
+        }
+        else
+        {
+            SwingUtilities.invokeLater( task );
+        }
     }
 
     /**
@@ -184,12 +317,17 @@ public class GameWindowPanel
         // Now we can check if the source is the enter button or the enter key being pressed within the input field
         if ( o.equals( gameEnterButton ) || o.equals( gameInputField ) )
         {
-            // if it is we will store the contents of the input field as the input string.
-            inputString = gameInputField.getText();
-            // Next we can clear the input field so it is ready for more input.
-            gameInputField.setText( "" );
-            // Now we flag our input as ready, so the thread will resume.
-            inputReady = true;
+            // if it is we will hand the contents of the input field to the game thread, which will resume if it is waiting.
+            if ( this.inputQueue.offer( gameInputField.getText() ) )
+            {
+                // Next we can clear the input field so it is ready for more input.
+                gameInputField.setText( "" );
+            }
+            else
+            {
+                // If too many lines are already waiting, the text stays in the field so the player can enter it again.
+                Toolkit.getDefaultToolkit().beep();
+            }
         }
     }
 }
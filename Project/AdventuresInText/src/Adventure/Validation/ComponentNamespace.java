@@ -0,0 +1,212 @@
+package Adventure.Validation;
+
+import Adventure.*;
+
+import Adventure.API.*;
+
+import java.util.*;
+
+/**
+ * This class keeps track of every component name, command hotkey and action alias that is currently in use by a
+ * registered component. Names, hotkeys and aliases all share a single namespace, since any of them can be typed by the
+ * player to mean the same thing, so the ComponentValidator uses this index to check a new string against all of them at
+ * once instead of walking through every component.
+ */
+public class ComponentNamespace
+{
+    /**
+     * This enum describes which part of a component is using a string in the namespace.
+     */
+    public enum Kind
+    {
+        NAME,
+        HOTKEY,
+        ALIAS
+    }
+
+    /**
+     * This class records a single use of a string by a component. If more than one component has claimed the same
+     * string, the entries are chained together.
+     */
+    private static class Entry
+    {
+        private final GameComponent owner;
+
+        private final Kind kind;
+
+        private Entry next;
+
+        private Entry( GameComponent owner, Kind kind, Entry next )
+        {
+            this.owner = owner;
+            this.kind = kind;
+            this.next = next;
+        }
+    }
+
+    private final HashMap<String, Entry> entries;
+
+    /**
+     * This constructor creates a new, empty namespace.
+     */
+    public ComponentNamespace()
+    {
+        this.entries = new HashMap<String, Entry>();
+    }
+
+    /**
+     * This helper method turns a string into the key it is stored under, since every comparison is case-insensitive.
+     *
+     * @param string The string to be converted.
+     * @return The key for the given string.
+     */
+    private static String key( String string )
+    {
+        return string.toLowerCase( Locale.ROOT );
+    }
+
+    /**
+     * This method will record that a component is using a string as its name, its hotkey or one of its aliases.
+     *
+     * @param string The string that is being used. Empty and null strings are ignored.
+     * @param owner The GameComponent object that is using the string.
+     * @param kind Which part of the component the string belongs to.
+     */
+    public void claim( String string, GameComponent owner, Kind kind )
+    {
+        if ( string == null || string.isEmpty() )
+        {
+            return;
+        }
+        String key = key( string );
+        this.entries.put( key, new Entry( owner, kind, this.entries.get( key ) ) );
+    }
+
+    /**
+     * This method will remove the record that a component is using a string.
+     *
+     * @param string The string that is no longer being used.
+     * @param owner The GameComponent object that was using the string.
+     * @param kind Which part of the component the string belonged to.
+     */
+    public void release( String string, GameComponent owner, Kind kind )
+    {
+        if ( string == null || string.isEmpty() )
+        {
+            return;
+        }
+        String key = key( string );
+        Entry previous = null;
+        for ( Entry entry = this.entries.get( key ); entry != null; entry = entry.next )
+        {
+            if ( entry.owner == owner && entry.kind == kind )
+            {
+                if ( previous != null )
+                {
+                    previous.next = entry.next;
+                }
+                else if ( entry.next != null )
+                {
+                    this.entries.put( key, entry.next );
+                }
+                else
+                {
+                    this.entries.remove( key );
+                }
+                return;
+            }
+            previous = entry;
+        }
+    }
+
+    /**
+     * This method will record every string that a component is using: its name, its hotkey if it is a GameCommand and
+     * its aliases if it is a GameAction.
+     *
+     * @param component The GameComponent object to be added to the namespace.
+     */
+    public void claimAll( GameComponent component )
+    {
+        this.claim( component.getName(), component, Kind.NAME );
+        if ( component instanceof GameCommand )
+        {
+            this.claim( ( ( GameCommand ) component ).getHotkey(), component, Kind.HOTKEY );
+        }
+        if ( component instanceof GameAction && ( ( GameAction ) component ).aliasList() != null )
+        {
+            for ( String alias : ( ( GameAction ) component ).aliasList() )
+            {
+                this.claim( alias, component, Kind.ALIAS );
+            }
+        }
+    }
+
+    /**
+     * This method will remove every string that a component is using from the namespace.
+     *
+     * @param component The GameComponent object to be removed from the namespace.
+     */
+    public void releaseAll( GameComponent component )
+    {
+        this.release( component.getName(), component, Kind.NAME );
+        if ( component instanceof GameCommand )
+        {
+            this.release( ( ( GameCommand ) component ).getHotkey(), component, Kind.HOTKEY );
+        }
+        if ( component instanceof GameAction && ( ( GameAction ) component ).aliasList() != null )
+        {
+            for ( String alias : ( ( GameAction ) component ).aliasList() )
+            {
+                this.release( alias, component, Kind.ALIAS );
+            }
+        }
+    }
+
+    /**
+     * This method will remove every string from the namespace.
+     */
+    public void clear()
+    {
+        this.entries.clear();
+    }
+
+    /**
+     * This method is used to find out how a string is already being used. If the string is used by more than one
+     * component, the answer is taken from whichever of them was registered first, checking its name before its hotkey
+     * and its hotkey before its aliases. This matches the order that the validator has always checked components in.
+     *
+     * @param string The string to look up, in any case.
+     * @return The Kind of use for the string, or null if the string is not in use.
+     */
+    public Kind lookup( String string )
+    {
+        Entry entry = this.entries.get( key( string ) );
+        if ( entry == null )
+        {
+            return null;
+        }
+        if ( entry.next == null )
+        {
+            return entry.kind;
+        }
+
+        // More than one component is using the string. This can only happen when a component skipped validation, so we
+        // can afford to walk the master list in order to find out which of them comes first.
+        for ( GameComponent component : Engine.componentView() )
+        {
+            Kind first = null;
+            for ( Entry claim = entry; claim != null; claim = claim.next )
+            {
+                if ( claim.owner == component && ( first == null || claim.kind.compareTo( first ) < 0 ) )
+                {
+                    first = claim.kind;
+                }
+            }
+            if ( first != null )
+            {
+                return first;
+            }
+        }
+        return entry.kind;
+    }
+}
@@ -2,8 +2,6 @@ package Adventure.Validation;
 
 import Adventure.*;
 
-import Adventure.API.*;
-
 /**
  * This class is responsible for validating the names of every GameComponent object before it registers with
  * the Engine class to make sure it is unique and valid. It makes extensive use of the ValidationCode enum.
@@ -52,60 +50,32 @@ public class ComponentValidator
     }
 
     /**
-     * This helper method will take a given string and attempt to match it case-insensitively to the name
-     * of a given GameComponent object.
-     *
-     * @param string the string to be checked.
-     * @param component The GameComponent object to compare against.
-     * @return True if the string and the component name match, false if they do not.
-     */
-    private static boolean stringMatchesName( String string, GameComponent component )
-    {
-        if ( component.getName().equalsIgnoreCase( string ) )
-        {
-            return true;
-        }
-        return false;
-    }
-
-    /**
-     * This helper method will take a given string and attempt to match it case-insensitively to the hotkey
-     * assigned to a given GameCommand object.
+     * This helper method will look up how a given string is already being used by the components in the Engine's
+     * master list, and turn that into the matching ValidationCode.
      *
-     * @param string the string to be checked.
-     * @param command The GameCommand object to compare against.
-     * @return True if the string and the command hotkey match, false if they do not.
+     * @param string The string to be checked.
+     * @param nameCode The code to return if the string is already a component name.
+     * @param hotkeyCode The code to return if the string is already a command hotkey.
+     * @param aliasCode The code to return if the string is already an action alias.
+     * @return The matching ValidationCode, or VALIDATION_PASSED if the string is not in use.
      */
-    private static boolean stringMatchesHotkey( String string, GameCommand command )
+    private static ValidationCode checkNamespace( String string, ValidationCode nameCode, ValidationCode hotkeyCode,
+                                                  ValidationCode aliasCode )
     {
-        if ( command.getHotkey().equalsIgnoreCase( string ) )
+        ComponentNamespace.Kind kind = Engine.componentNamespace().lookup( string );
+        if ( kind == null )
         {
-            return true;
+            return ValidationCode.VALIDATION_PASSED;
         }
-        return false;
-    }
-
-    /**
-     * This helper method will take a given string and attempt to match it case-insensitively to each
-     * alias associated with a given GameAction object.
-     * 
-     * @param string the string to be checked.
-     * @param action The GameAction object to compare against.
-     * @return True if the string matches any of the actions aliases, false if it doesn't.
-     */
-    private static boolean stringMatchesAlias( String string, GameAction action )
-    {
-        if ( action.aliasList() != null )
+        switch ( kind )
         {
-            for ( String alias : action.aliasList() )
-            {
-                if ( alias.equalsIgnoreCase( string ) )
-                {
-                    return true;
-                }
-            }
+        case NAME:
+            return nameCode;
+        case HOTKEY:
+            return hotkeyCode;
+        default:
+            return aliasCode;
         }
-        return false;
     }
 
     /**
@@ -122,27 +92,9 @@ public class ComponentValidator
             return ValidationCode.INVALID_NAME_LENGTH;
         }
 
-        // Now we loop through the Engine's component list and compare the name
-        for ( GameComponent component : Engine.componentList() )
-        {
-            if ( stringMatchesName( componentName, component ) )
-            {
-                return ValidationCode.NAME_DUPLICATION;
-            }
-
-            // If the component is a GameCommand, we want to check the name against the hotkey too
-            if ( component instanceof GameCommand && stringMatchesHotkey( componentName, ( GameCommand ) component ) )
-            {
-                return ValidationCode.NAME_DUPLICATES_HOTKEY;
-            }
-
-            // If the command is a GameAction we need to check the list of aliases
-            if ( component instanceof GameAction && stringMatchesAlias( componentName, ( GameAction ) component ) )
-            {
-                return ValidationCode.NAME_DUPLICATES_ALIAS;
-            }
-        }
-        return ValidationCode.VALIDATION_PASSED;
+        // Now we check the name against every name, hotkey and alias in the Engine's master list
+        return checkNamespace( componentName, ValidationCode.NAME_DUPLICATION, ValidationCode.NAME_DUPLICATES_HOTKEY,
+                               ValidationCode.NAME_DUPLICATES_ALIAS );
     }
 
      /**
@@ -167,27 +119,9 @@ public class ComponentValidator
 
         }
 
-        // Now we loop through the Engine's component list and compare the name
-        for ( GameComponent component : Engine.componentList() )
-        {
-            if ( stringMatchesName( commandName, component ) )
-            {
-                return ValidationCode.NAME_DUPLICATION;
-            }
-
-            // If the component is a GameCommand, we want to check the name against the hotkey too
-            if ( component instanceof GameCommand && stringMatchesHotkey( commandName, ( GameCommand ) component ) )
-            {
-                return ValidationCode.NAME_DUPLICATES_HOTKEY;
-            }
-
-            // If the command is a GameAction we need to check the list of aliases
-            if ( component instanceof GameAction && stringMatchesAlias( commandName, ( GameAction ) component ) )
-            {
-                return ValidationCode.NAME_DUPLICATES_ALIAS;
-            }
-        }
-        return ValidationCode.VALIDATION_PASSED;
+        // Now we check the name against every name, hotkey and alias in the Engine's master list
+        return checkNamespace( commandName, ValidationCode.NAME_DUPLICATION, ValidationCode.NAME_DUPLICATES_HOTKEY,
+                               ValidationCode.NAME_DUPLICATES_ALIAS );
     }
 
      /**
@@ -211,27 +145,8 @@ public class ComponentValidator
             return ValidationCode.INVALID_WHITEPACE;
 
         }
-        // Now we loop through the Engine's component list and compare the name
-        for ( GameComponent component : Engine.componentList() )
-        {
-            if ( stringMatchesName( hotkey, component ) )
-            {
-                return ValidationCode.HOTKEY_DUPLICATES_NAME;
-            }
-
-            // If the component is a GameCommand, we want to check the name against the hotkey too
-            if ( component instanceof GameCommand && stringMatchesHotkey( hotkey, ( GameCommand ) component ) )
-            {
-                return ValidationCode.HOTKEY_DUPLICATION;
-            }
-
-            // If the command is a GameAction we need to check the list of aliases
-            if ( component instanceof GameAction && stringMatchesAlias( hotkey, ( GameAction ) component ) )
-            {
-                return ValidationCode.HOTKEY_DUPLICATES_ALIAS;
-            }
-        }
-        // If we have made it this far, we must have a valid hotkey.
-        return ValidationCode.VALIDATION_PASSED;
+        // Now we check the hotkey against every name, hotkey and alias in the Engine's master list
+        return checkNamespace( hotkey, ValidationCode.HOTKEY_DUPLICATES_NAME, ValidationCode.HOTKEY_DUPLICATION,
+                               ValidationCode.HOTKEY_DUPLICATES_ALIAS );
     }
 }